@@ -1,14 +1,17 @@
-import { useQuery } from '@tanstack/react-query';
+import { useQuery, useQueryClient } from '@tanstack/react-query';
 import { gameApi } from '../services/gameApi';
 import type { ShipView, ShotView } from '../types';
 
 export function useBoardData(
   gameId: number | undefined,
   boardId: number | undefined,
-  options?: { fetchShips?: boolean; fetchShots?: boolean }
+  options?: { fetchShips?: boolean; fetchShots?: boolean; live?: boolean }
 ) {
+  const qc = useQueryClient();
   const fetchShips = options?.fetchShips !== false;
   const fetchShots = options?.fetchShots !== false;
+  // With a live event stream the cache is updated by pushes; polling is only a fallback
+  const live = options?.live === true;
   const retryUnless403 = (failureCount: number, error: unknown) => {
     const status = (error as { status?: number })?.status;
     if (status === 403) return false;
@@ -20,16 +23,24 @@ export function useBoardData(
     queryFn: () => gameApi.getShips(boardId!),
     enabled: !!gameId && !!boardId && fetchShips,
     retry: retryUnless403,
-    refetchInterval: 5000,
+    refetchInterval: live ? false : 5000,
     refetchIntervalInBackground: false,
   });
 
+  const shotsKey = ['shots', gameId, boardId];
   const shots = useQuery<ShotView[]>({
-    queryKey: ['shots', gameId, boardId],
-    queryFn: () => gameApi.getShots(gameId!, boardId!),
+    queryKey: shotsKey,
+    // After the first load only the shots we have not seen are fetched and appended;
+    // an unchanged board keeps the same array so the grid does not re-render
+    queryFn: async () => {
+      const prev = qc.getQueryData<ShotView[]>(shotsKey);
+      if (!prev) return gameApi.getShots(gameId!, boardId!);
+      const delta = await gameApi.getShotsSince(boardId!, prev.length);
+      return delta.length ? [...prev, ...delta] : prev;
+    },
     enabled: !!gameId && !!boardId && fetchShots,
     retry: retryUnless403,
-    refetchInterval: 4000,
+    refetchInterval: live ? false : 4000,
     refetchIntervalInBackground: false,
   });
 
@@ -0,0 +1,54 @@
+import { useEffect, useState } from 'react';
+import { useQueryClient } from '@tanstack/react-query';
+import { getToken } from '../services/auth';
+import type { GameSummary, ShotView } from '../types';
+
+type ShotEvent = { shot: ShotView; game: GameSummary };
+
+/**
+ * Subscribes to the game's Server-Sent Events stream and writes updates straight into the
+ * query cache. Returns whether the stream is currently connected, so callers can stop polling.
+ * EventSource reconnects on its own and resumes via Last-Event-ID.
+ */
+export function useGameEvents(gameId: number | undefined) {
+  const qc = useQueryClient();
+  const [connected, setConnected] = useState(false);
+
+  useEffect(() => {
+    if (!gameId || typeof EventSource === 'undefined') return;
+    const token = getToken();
+    const qs = token ? `?access_token=${encodeURIComponent(token)}` : '';
+    const es = new EventSource(`/api/games/${gameId}/events${qs}`);
+
+    const onSummary = (e: MessageEvent) => {
+      qc.setQueryData(['game', gameId], JSON.parse(e.data) as GameSummary);
+    };
+    es.addEventListener('state', onSummary);
+    es.addEventListener('game', (e) => {
+      onSummary(e as MessageEvent);
+      qc.invalidateQueries({ queryKey: ['boards', gameId] });
+      qc.invalidateQueries({ queryKey: ['ships', gameId] });
+    });
+    es.addEventListener('shot', (e) => {
+      const ev = JSON.parse((e as MessageEvent).data) as ShotEvent;
+      qc.setQueryData(['game', gameId], ev.game);
+      qc.setQueryData<ShotView[]>(['shots', gameId, ev.shot.boardId], (prev) =>
+        prev && !prev.some((s) => s.row === ev.shot.row && s.col === ev.shot.col)
+          ? [...prev, ev.shot]
+          : prev
+      );
+      if (ev.shot.result === 'SUNK') {
+        qc.invalidateQueries({ queryKey: ['ships', gameId, ev.shot.boardId] });
+      }
+    });
+    es.onopen = () => setConnected(true);
+    es.onerror = () => setConnected(false);
+
+    return () => {
+      es.close();
+      setConnected(false);
+    };
+  }, [gameId, qc]);
+
+  return connected;
+}
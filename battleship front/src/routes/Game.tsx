@@ -5,6 +5,7 @@ import { gameApi } from '../services/gameApi';
 import BoardGrid, { type CellState } from '../components/BoardGrid';
 import { ShipPlacementPanel } from '../components/ShipPlacementPanel';
 import { useBoardData } from '../hooks/useBoardData';
+import { useGameEvents } from '../hooks/useGameEvents';
 import { loadAuth } from '../services/auth';
 import type { ShipView, ShotView } from '../types';
 import { useToast } from '../components/ui/toast/ToastContext';
@@ -14,19 +15,20 @@ export default function Game() {
   const gameId = Number(id);
   const qc = useQueryClient();
   const toast = useToast();
+  const live = useGameEvents(Number.isFinite(gameId) ? gameId : undefined);
 
   const gameQ = useQuery({
     queryKey: ['game', gameId],
     queryFn: () => gameApi.getGame(gameId),
     enabled: Number.isFinite(gameId),
-    refetchInterval: 3000,
+    refetchInterval: live ? false : 3000,
   });
 
   const boardsQ = useQuery({
     queryKey: ['boards', gameId],
     queryFn: () => gameApi.getBoards(gameId),
     enabled: Number.isFinite(gameId),
-    refetchInterval: 3000,
+    refetchInterval: live ? false : 3000,
   });
 
   const shootM = useMutation({
@@ -53,10 +55,12 @@ export default function Game() {
   const myData = useBoardData(gameId, myBoard?.id, {
     fetchShips: !!myBoard && myBoard.ownerUserId === myUserId,
     fetchShots: !!myBoard && allowShots,
+    live,
   });
   const oppData = useBoardData(gameId, oppBoard?.id, {
     fetchShips: false,
     fetchShots: !!oppBoard && allowShots,
+    live,
   });
 
   const [selectedType, setSelectedType] = useState<
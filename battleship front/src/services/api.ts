@@ -29,6 +29,8 @@ async function request<T>(
     headers,
     body: body !== undefined ? JSON.stringify(body) : undefined,
     credentials: 'same-origin',
+    // Revalidate with the stored ETag; unchanged polls come back as 304 and reuse the cached body
+    cache: method === 'GET' ? 'no-cache' : undefined,
   });
 
   const contentType = res.headers.get('content-type') || '';
@@ -0,0 +1,19 @@
+// Helpers for the base64 cell bitmasks returned by GET /games/{id}/snapshot and /boards/{id}/tile
+
+export function decodeCells(mask: string | null): Uint8Array {
+  if (!mask) return new Uint8Array(0);
+  const bin = atob(mask);
+  const out = new Uint8Array(bin.length);
+  for (let i = 0; i < bin.length; i++) out[i] = bin.charCodeAt(i);
+  return out;
+}
+
+export function hasCell(bits: Uint8Array, size: number, row: number, col: number): boolean {
+  const i = row * size + col;
+  return ((bits[i >> 3] ?? 0) >> (i & 7)) & 1 ? true : false;
+}
+
+// Tiles are laid out with their own width: pass the tile's cols and cell coordinates relative to it
+export function hasTileCell(bits: Uint8Array, tile: { row: number; col: number; cols: number }, row: number, col: number): boolean {
+  return hasCell(bits, tile.cols, row - tile.row, col - tile.col);
+}
@@ -1,13 +1,25 @@
 import { api } from './api';
-import type { GameSummary, BoardView, ShipView, ShotView } from '../types';
+import type { BoardTile, GamePage, GameSnapshot, GameSummary, BoardView, SalvoResponse, ShipView, ShotView } from '../types';
 
 export const gameApi = {
-  listGames: async () => (await api.get('/games')) as GameSummary[],
-  createGame: async () => (await api.post('/games')) as GameSummary,
+  listGames: async (cursor?: string | null) =>
+    (await api.get(cursor ? `/games?cursor=${encodeURIComponent(cursor)}` : '/games')) as GamePage,
+  createGame: async (mode: GameSummary['mode'] = 'CLASSIC', size?: number, fleet?: string) => {
+    const params = new URLSearchParams({ mode: mode ?? 'CLASSIC' });
+    if (size) params.set('size', String(size));
+    if (fleet) params.set('fleet', fleet);
+    return (await api.post(`/games?${params}`)) as GameSummary;
+  },
+  playBot: async (difficulty: 'EASY' | 'MEDIUM' | 'HARD' = 'MEDIUM', mode: GameSummary['mode'] = 'CLASSIC') =>
+    (await api.post(`/games/vs-bot?difficulty=${difficulty}&mode=${mode}`)) as GameSummary,
+  quickMatch: async () => (await api.post('/games/quick-match')) as GameSummary,
   joinGame: async (id: number) => (await api.post(`/games/${id}/join`)) as GameSummary,
   getGame: async (id: number) => (await api.get(`/games/${id}`)) as GameSummary,
+  getSnapshot: async (id: number) => (await api.get(`/games/${id}/snapshot`)) as GameSnapshot,
 
   getBoards: async (gameId: number) => (await api.get(`/games/${gameId}/boards`)) as BoardView[],
+  getTile: async (boardId: number, row: number, col: number, rows: number, cols: number) =>
+    (await api.get(`/boards/${boardId}/tile?row=${row}&col=${col}&rows=${rows}&cols=${cols}`)) as BoardTile,
   getShips: async (boardId: number) => (await api.get(`/boards/${boardId}/ships`)) as ShipView[],
   placeShips: async (
     gameId: number,
@@ -24,6 +36,10 @@ export const gameApi = {
 
   getShots: async (_gameId: number, boardId: number) =>
     (await api.get(`/boards/${boardId}/shots`)) as ShotView[],
+  getShotsSince: async (boardId: number, sinceSeq: number) =>
+    (await api.get(`/boards/${boardId}/shots?sinceSeq=${sinceSeq}`)) as ShotView[],
   shoot: async (gameId: number, body: { row: number; col: number }) =>
     api.post(`/games/${gameId}/shots`, body) as unknown,
+  fireSalvo: async (gameId: number, shots: Array<{ row: number; col: number }>) =>
+    (await api.post(`/games/${gameId}/salvo`, shots)) as SalvoResponse,
 };
@@ -7,6 +7,45 @@ export type GameSummary = {
   winnerUserId?: number | null;
   createdAt?: string;
   updatedAt?: string;
+  version?: number;
+  mode?: "CLASSIC" | "SALVO";
+  boardSize?: number;
+  fleet?: string; // e.g. "CARRIER:1,DESTROYER:3"
+};
+
+// Cell sets are base64 bitmasks: bit (i % 8) of byte (i / 8) is cell i = row * size + col
+export type BoardSnapshot = {
+  boardId: number;
+  ownerUserId: number;
+  size: number;
+  shotCount: number;
+  shots: string;
+  hits: string;
+  ships: string | null;
+  sunk: ShipView['type'][];
+};
+
+export type GameSnapshot = {
+  game: GameSummary;
+  boards: BoardSnapshot[];
+};
+
+// One viewport of a large board; bit i is cell (row + i / cols, col + i % cols)
+export type BoardTile = {
+  boardId: number;
+  size: number;
+  row: number;
+  col: number;
+  rows: number;
+  cols: number;
+  shots: string;
+  hits: string;
+  ships: string | null;
+};
+
+export type GamePage = {
+  items: GameSummary[];
+  nextCursor: string | null;
 };
 
 export type BoardView = {
@@ -38,3 +77,8 @@ export type ShotView = {
   result: "HIT" | "MISS" | "SUNK";
   sunkShipType?: ShipView["type"] | null;
 };
+
+export type SalvoResponse = {
+  shots: ShotView[];
+  game: GameSummary;
+};
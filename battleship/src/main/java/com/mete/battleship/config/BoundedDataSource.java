@@ -0,0 +1,120 @@
+package com.mete.battleship.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most {@code permits} borrowed connections at a time, queueing the rest fairly
+ * and failing them after {@code acquireTimeoutMs}. With about one permit per pooled
+ * connection, thousands of virtual threads wait here in FIFO order instead of piling onto
+ * the pool.
+ * <p>
+ * A thread that already holds a permit borrows further connections without one: Hibernate's
+ * table id generator fetches id blocks on a second connection while the caller's is still
+ * open, and waiting for a permit there would deadlock once every permit is held by such a
+ * caller. Size the pool a few connections above the permits to leave room for these.
+ */
+public class BoundedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutMs;
+    // Connections the current thread holds under its permit, nested ones included
+    private final ThreadLocal<int[]> held = ThreadLocal.withInitial(() -> new int[1]);
+
+    public BoundedDataSource(DataSource target, int permits, long acquireTimeoutMs) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.maxPermits = permits;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return borrowed(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return borrowed(() -> super.getConnection(username, password));
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public int getInUse() {
+        return maxPermits - permits.availablePermits();
+    }
+
+    /**
+     * Closes the wrapped pool on shutdown, which the container would otherwise no longer see.
+     */
+    @Override
+    public void close() {
+        if (!(getTargetDataSource() instanceof AutoCloseable pool)) return;
+        try {
+            pool.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not close the connection pool", e);
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No database connection permit within " + acquireTimeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+
+    private Connection borrowed(ConnectionSource source) throws SQLException {
+        int[] count = held.get();
+        boolean nested = count[0] > 0;
+        if (!nested) acquire();
+        Connection target;
+        try {
+            target = source.get();
+        } catch (SQLException | RuntimeException e) {
+            if (!nested) permits.release();
+            throw e;
+        }
+        count[0]++;
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            target.close();
+                        } finally {
+                            count[0]--;
+                            if (!nested) permits.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
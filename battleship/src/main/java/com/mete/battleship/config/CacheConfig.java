@@ -0,0 +1,13 @@
+package com.mete.battleship.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Caffeine-backed cache manager configured through {@code spring.cache.*};
+ * the caches themselves are used programmatically by {@code GameReadCache}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,57 @@
+package com.mete.battleship.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the pool in a {@link BoundedDataSource} with one permit per Hikari connection, less
+ * {@code app.db.bulkhead.id-reserve} connections kept free for the id blocks the table
+ * generators fetch on a second connection. Enabled by the {@code virtual} profile, where
+ * request threads are cheap enough that a burst could otherwise queue unbounded work on the pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.bulkhead.enabled", havingValue = "true")
+public class DbBulkheadConfig {
+    private static final Logger log = LoggerFactory.getLogger(DbBulkheadConfig.class);
+
+    @Bean
+    static BeanPostProcessor dbBulkhead(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) return bean;
+                long timeoutMs = env.getProperty("app.db.bulkhead.acquire-timeout-ms", Long.class, 5000L);
+                int reserve = env.getProperty("app.db.bulkhead.id-reserve", Integer.class, 2);
+                int permits = pool.getMaximumPoolSize() - reserve;
+                if (reserve < 0 || permits < 1) {
+                    throw new IllegalStateException("app.db.bulkhead.id-reserve must leave at least one of "
+                            + pool.getMaximumPoolSize() + " pooled connections for permits");
+                }
+                BoundedDataSource bounded = new BoundedDataSource(pool, permits, timeoutMs);
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry != null) {
+                    Gauge.builder("db.bulkhead.waiting", bounded, BoundedDataSource::getWaiting)
+                            .description("Threads waiting for a database connection permit")
+                            .register(registry);
+                    Gauge.builder("db.bulkhead.active", bounded, BoundedDataSource::getInUse)
+                            .description("Database connection permits currently held")
+                            .register(registry);
+                }
+                log.info("Database bulkhead enabled: {} permits, {} connections reserved for id allocation, {}ms acquire timeout",
+                        permits, reserve, timeoutMs);
+                return bounded;
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.mete.battleship.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the JDK's {@code jdk.VirtualThreadPinned} flight-recorder events: a virtual thread
+ * that blocked while pinned to its carrier (inside {@code synchronized} or native code) for
+ * longer than the threshold. Each one is counted as {@code jvm.threads.virtual.pinned} and
+ * logged with the top of its stack.
+ * <p>
+ * Virtual threads need a Java 21+ runtime, which the Docker image provides; the build
+ * targets 17, and on a 17 runtime this only logs that the {@code virtual} profile falls
+ * back to platform threads.
+ */
+@Component
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+
+    private final Counter pinned;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.threads.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("Virtual threads need Java 21+, running on {}; requests use platform threads", Runtime.version());
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {}ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String where = event.getStackTrace() == null ? "unknown" : top(event.getStackTrace().getFrames());
+        log.warn("Virtual thread pinned for {}ms at {}", event.getDuration().toMillis(), where);
+    }
+
+    private static String top(List<RecordedFrame> frames) {
+        return frames.stream()
+                .limit(5)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) stream.close();
+    }
+}
@@ -20,7 +20,7 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${app.cors.allowed-origins:}")
     private String allowedOrigins;
 
-    private String[] resolveOrigins() {
+    String[] resolveOrigins() {
         if (StringUtils.hasText(allowedOrigins)) {
             return Arrays.stream(allowedOrigins.split(","))
                     .map(String::trim)
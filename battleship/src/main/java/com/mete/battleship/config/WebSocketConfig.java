@@ -0,0 +1,31 @@
+package com.mete.battleship.config;
+
+import com.mete.battleship.websocket.GameHandshakeInterceptor;
+import com.mete.battleship.websocket.GameSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final GameSocketHandler gameSocketHandler;
+    private final GameHandshakeInterceptor handshakeInterceptor;
+    private final WebConfig webConfig;
+
+    public WebSocketConfig(GameSocketHandler gameSocketHandler, GameHandshakeInterceptor handshakeInterceptor, WebConfig webConfig) {
+        this.gameSocketHandler = gameSocketHandler;
+        this.handshakeInterceptor = handshakeInterceptor;
+        this.webConfig = webConfig;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(@NonNull WebSocketHandlerRegistry registry) {
+        registry.addHandler(gameSocketHandler, "/ws/games/{gameId}", "/api/ws/games/{gameId}")
+                .addInterceptors(handshakeInterceptor)
+                .setAllowedOriginPatterns(webConfig.resolveOrigins());
+    }
+}
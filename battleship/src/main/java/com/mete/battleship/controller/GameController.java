@@ -2,25 +2,44 @@ package com.mete.battleship.controller;
 
 import com.mete.battleship.dto.PlaceShipRequest;
 import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameMode;
+import com.mete.battleship.dto.GamePage;
+import com.mete.battleship.dto.GameSnapshot;
 import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.SalvoResponse;
 import com.mete.battleship.dto.ShootRequest;
 import com.mete.battleship.dto.ShotResponse;
+import com.mete.battleship.dto.BoardTile;
 import com.mete.battleship.dto.BoardView;
 import com.mete.battleship.dto.ShotView;
 import com.mete.battleship.dto.ShipView;
-import com.mete.battleship.entity.Board;
-import com.mete.battleship.entity.Shot;
-import com.mete.battleship.entity.Ship;
+import com.mete.battleship.engine.TargetingEngine;
 import com.mete.battleship.security.SecurityUtils;
+import com.mete.battleship.service.BotService;
+import com.mete.battleship.service.GameCommandExecutor;
+import com.mete.battleship.service.GameEventHub;
 import com.mete.battleship.service.GameService;
+import com.mete.battleship.service.LiveGameService;
+import com.mete.battleship.service.MatchmakingService;
+import com.mete.battleship.service.ReplayService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
@@ -28,10 +47,24 @@ import java.util.stream.Collectors;
 @RequestMapping({"/", "/api"})
 public class GameController {
     private static final Logger log = LoggerFactory.getLogger(GameController.class);
+    // Browsers may keep a copy but must revalidate it with If-None-Match on every poll
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
     private final GameService gameService;
+    private final GameCommandExecutor commandExecutor;
+    private final LiveGameService liveGameService;
+    private final GameEventHub eventHub;
+    private final MatchmakingService matchmakingService;
+    private final BotService botService;
+    private final ReplayService replayService;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, GameCommandExecutor commandExecutor, LiveGameService liveGameService, GameEventHub eventHub, MatchmakingService matchmakingService, BotService botService, ReplayService replayService) {
         this.gameService = gameService;
+        this.commandExecutor = commandExecutor;
+        this.liveGameService = liveGameService;
+        this.eventHub = eventHub;
+        this.matchmakingService = matchmakingService;
+        this.botService = botService;
+        this.replayService = replayService;
     }
 
     private Long resolveUserId(Long headerUserId) {
@@ -42,10 +75,15 @@ public class GameController {
 
     @PostMapping("/games")
     @ResponseStatus(HttpStatus.CREATED)
-    public GameSummary createGame(@RequestHeader(value = "X-User-Id", required = false) Long creatorUserId) {
+    public GameSummary createGame(
+            @RequestHeader(value = "X-User-Id", required = false) Long creatorUserId,
+            @RequestParam(defaultValue = "CLASSIC") GameMode mode,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fleet
+    ) {
         Long uid = resolveUserId(creatorUserId);
-        log.info("Create game requested by userId={}", uid);
-        Game game = gameService.createGame(uid);
+        log.info("Create game requested by userId={}, mode={}, size={}, fleet={}", uid, mode, size, fleet);
+        Game game = gameService.createGame(uid, mode, size, fleet);
         if (game == null) {
             throw new RuntimeException("Game could not be created");
         }
@@ -56,16 +94,43 @@ public class GameController {
 
     @GetMapping("/games")
     @ResponseStatus(HttpStatus.OK)
-    public List<GameSummary> listGames() {
-        log.info("Listing all games");
-        return gameService.listAllGames();
+    public GamePage listGames(@RequestParam(defaultValue = "20") int limit, @RequestParam(required = false) String cursor) {
+        log.info("Listing games: limit={}, cursor={}", limit, cursor);
+        return gameService.listAllGames(limit, cursor);
     }
 
     @GetMapping("/games/open")
     @ResponseStatus(HttpStatus.OK)
-    public List<GameSummary> listOpenGames() {
-        log.info("Listing open games");
-        return gameService.listOpenGames();
+    public GamePage listOpenGames(@RequestParam(defaultValue = "20") int limit, @RequestParam(required = false) String cursor) {
+        log.info("Listing open games: limit={}, cursor={}", limit, cursor);
+        return gameService.listOpenGames(limit, cursor);
+    }
+
+    @PostMapping("/games/quick-match")
+    @ResponseStatus(HttpStatus.OK)
+    public GameSummary quickMatch(
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            @RequestParam(defaultValue = "CLASSIC") GameMode mode,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fleet
+    ) {
+        Long uid = resolveUserId(userId);
+        log.info("Quick-match requested by userId={}, mode={}, size={}, fleet={}", uid, mode, size, fleet);
+        return matchmakingService.quickMatch(uid, mode, size, fleet);
+    }
+
+    @PostMapping("/games/vs-bot")
+    @ResponseStatus(HttpStatus.CREATED)
+    public GameSummary playBot(
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            @RequestParam(defaultValue = "MEDIUM") TargetingEngine.Difficulty difficulty,
+            @RequestParam(defaultValue = "CLASSIC") GameMode mode,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fleet
+    ) {
+        Long uid = resolveUserId(userId);
+        log.info("Bot game requested by userId={}, difficulty={}, mode={}", uid, difficulty, mode);
+        return botService.startGame(uid, difficulty, mode, size, fleet);
     }
 
     @PostMapping("/games/{gameId}/join")
@@ -73,57 +138,135 @@ public class GameController {
     public GameSummary joinGame(@PathVariable Long gameId, @RequestHeader(value = "X-User-Id", required = false) Long joinerUserId) {
         Long uid = resolveUserId(joinerUserId);
         log.info("Join game requested: gameId={}, userId={}", gameId, uid);
-        Game game = gameService.joinGame(gameId, uid);
+        Game game = commandExecutor.call(gameId, () -> gameService.joinGame(gameId, uid));
         log.info("User {} joined game {}", uid, gameId);
         return GameSummary.fromGame(game);
     }
 
     @GetMapping("/games/{gameId}")
-    @ResponseStatus(HttpStatus.OK)
-    public GameSummary getGame(@PathVariable Long gameId) {
+    public ResponseEntity<GameSummary> getGame(@PathVariable Long gameId, WebRequest request) {
         log.info("Fetching game summary: gameId={}", gameId);
-        return gameService.getGameSummary(gameId);
+        GameSummary summary = gameService.getGameSummary(gameId);
+        return conditional(request, gameId, summary.getVersion(), () -> summary);
+    }
+
+    @GetMapping("/games/{gameId}/snapshot")
+    public ResponseEntity<GameSnapshot> getSnapshot(
+            @PathVariable Long gameId,
+            @RequestHeader(value = "X-User-Id", required = false) Long requesterUserId,
+            WebRequest request
+    ) {
+        Long uid = resolveUserId(requesterUserId);
+        log.info("Fetching game snapshot: gameId={}, requesterUserId={}", gameId, uid);
+        // The body depends on who asks, so the tag does too
+        return conditional(request, gameId + "." + gameService.gameVersion(gameId) + "." + uid, () -> gameService.snapshot(gameId, uid));
+    }
+
+    @GetMapping(value = "/games/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter gameEvents(
+            @PathVariable Long gameId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        log.info("Subscribing to game events: gameId={}, lastEventId={}", gameId, lastEventId);
+        gameService.getGameSummary(gameId); // fail fast on unknown games
+        return eventHub.subscribe(gameId, lastEventId, () -> gameService.getGameSummary(gameId));
+    }
+
+    @GetMapping(value = "/games/{gameId}/replay", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> replay(@PathVariable Long gameId) {
+        log.info("Streaming replay: gameId={}", gameId);
+        Game game = replayService.requireReplayable(gameId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> replayService.writeGame(game, out));
+    }
+
+    /**
+     * Streams the finished games created in {@code [from, to)}, oldest first. Games are
+     * selected by creation time, not by when they finished.
+     */
+    @GetMapping(value = "/games/replays", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> replays(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        log.info("Streaming replays of finished games created from {} to {}", from, to);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> replayService.writeRange(from, to, out));
     }
 
     @GetMapping("/games/{gameId}/boards")
-    @ResponseStatus(HttpStatus.OK)
-    public List<BoardView> listBoards(@PathVariable Long gameId) {
+    public ResponseEntity<List<BoardView>> listBoards(@PathVariable Long gameId, WebRequest request) {
         log.info("Listing boards for gameId={}", gameId);
-        List<Board> boards = gameService.listBoards(gameId);
-        return boards.stream()
+        return conditional(request, gameId, gameService.gameVersion(gameId), () -> gameService.listBoards(gameId).stream()
                 .map(b -> new BoardView(b.getId(), b.getGameId(), b.getOwnerUserId(), b.getSize(), b.getCreatedAt()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @GetMapping("/boards/{boardId}/shots")
-    @ResponseStatus(HttpStatus.OK)
-    public List<ShotView> listShots(@PathVariable Long boardId) {
-        log.info("Listing shots for boardId={}", boardId);
-        List<Shot> shots = gameService.listShots(boardId);
-        return shots.stream()
-                .map(s -> new ShotView(
-                        s.getId(), s.getBoardId(), s.getShooterUserId(), s.getTargetUserId(),
-                        s.getRow(), s.getCol(),
-                        s.getResult() != null ? s.getResult().name() : null,
-                        s.getSunkShipType() != null ? s.getSunkShipType().name() : null
-                ))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<ShotView>> listShots(
+            @PathVariable Long boardId,
+            @RequestParam(required = false) Integer sinceSeq,
+            WebRequest request
+    ) {
+        log.info("Listing shots for boardId={}, sinceSeq={}", boardId, sinceSeq);
+        Long gameId = gameService.gameIdForBoard(boardId);
+        return conditional(request, gameId, gameService.gameVersion(gameId), () -> (sinceSeq == null
+                ? gameService.listShots(boardId) : gameService.listShotsSince(boardId, sinceSeq)).stream()
+                .map(ShotView::fromShot)
+                .collect(Collectors.toList()));
+    }
+
+    @GetMapping("/boards/{boardId}/tile")
+    public ResponseEntity<BoardTile> getTile(
+            @PathVariable Long boardId,
+            @RequestParam(defaultValue = "0") int row,
+            @RequestParam(defaultValue = "0") int col,
+            @RequestParam int rows,
+            @RequestParam int cols,
+            @RequestHeader(value = "X-User-Id", required = false) Long requesterUserId,
+            WebRequest request
+    ) {
+        Long uid = resolveUserId(requesterUserId);
+        log.debug("Fetching board tile: boardId={}, row={}, col={}, rows={}, cols={}", boardId, row, col, rows, cols);
+        Long gameId = gameService.gameIdForBoard(boardId);
+        // The body depends on who asks, so the tag does too
+        return conditional(request, gameId + "." + gameService.gameVersion(gameId) + "." + uid + "." + boardId
+                + "." + row + "." + col + "." + rows + "x" + cols, () -> gameService.tile(boardId, uid, row, col, rows, cols));
     }
 
     @GetMapping("/boards/{boardId}/ships")
-    @ResponseStatus(HttpStatus.OK)
-    public List<ShipView> listShips(
+    public ResponseEntity<List<ShipView>> listShips(
             @PathVariable Long boardId,
-            @RequestHeader(value = "X-User-Id", required = false) Long requesterUserId
+            @RequestHeader(value = "X-User-Id", required = false) Long requesterUserId,
+            WebRequest request
     ) {
         Long uid = resolveUserId(requesterUserId);
         log.info("Listing ships: boardId={}, requesterUserId={}", boardId, uid);
-        List<Ship> ships = gameService.listShips(boardId, uid);
-        return ships.stream()
+        Long gameId = gameService.requireBoardOwner(boardId, uid).getGameId();
+        return conditional(request, gameId, gameService.gameVersion(gameId), () -> gameService.listShips(boardId, uid).stream()
                 .map(s -> new ShipView(
                         s.getId(), s.getBoardId(), s.getType(), s.getLength(), s.getStartRow(), s.getStartCol(), s.getOrientation(), s.getSunk()
                 ))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Answers 304 when the client's ETag matches the game version, before the body is loaded.
+     * The version must be read before the body so a tag never claims newer data than it labels.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, Long gameId, long version, Supplier<T> body) {
+        return conditional(request, gameId + "." + version, body);
+    }
+
+    private <T> ResponseEntity<T> conditional(WebRequest request, String tag, Supplier<T> body) {
+        String etag = "\"" + tag + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
     }
 
     @PostMapping("/boards/{boardId}/ships")
@@ -135,7 +278,8 @@ public class GameController {
     ) {
         Long uid = resolveUserId(ownerUserId);
         log.info("Place ships: boardId={}, ownerUserId={}, ships={}", boardId, uid, body != null ? body.size() : 0);
-        return gameService.placeShips(boardId, uid, body);
+        Long gameId = gameService.gameIdForBoard(boardId);
+        return commandExecutor.call(gameId, () -> gameService.placeShips(boardId, uid, body));
     }
 
     @PostMapping("/games/{gameId}/boards/{boardId}/ships")
@@ -148,7 +292,9 @@ public class GameController {
     ) {
         Long uid = resolveUserId(ownerUserId);
         log.info("Place ships by game: gameId={}, boardId={}, ownerUserId={}, ships={}", gameId, boardId, uid, body != null ? body.size() : 0);
-        return gameService.placeShips(boardId, uid, body);
+        // Route by the board's real game so a mismatched path cannot bypass serialization
+        Long boardGameId = gameService.gameIdForBoard(boardId);
+        return commandExecutor.call(boardGameId, () -> gameService.placeShips(boardId, uid, body));
     }
 
     @PostMapping("/games/{gameId}/shots")
@@ -160,7 +306,19 @@ public class GameController {
     ) {
         Long uid = resolveUserId(shooterUserId);
         log.info("Fire shot: gameId={}, shooterUserId={}, row={}, col={}", gameId, uid, body != null ? body.getRow() : null, body != null ? body.getCol() : null);
-        return gameService.fireShot(gameId, uid, body);
+        return commandExecutor.call(gameId, () -> liveGameService.fireShot(gameId, uid, body));
+    }
+
+    @PostMapping("/games/{gameId}/salvo")
+    @ResponseStatus(HttpStatus.OK)
+    public SalvoResponse fireSalvo(
+            @PathVariable Long gameId,
+            @RequestHeader(value = "X-User-Id", required = false) Long shooterUserId,
+            @RequestBody List<ShootRequest> body
+    ) {
+        Long uid = resolveUserId(shooterUserId);
+        log.info("Fire salvo: gameId={}, shooterUserId={}, shots={}", gameId, uid, body != null ? body.size() : 0);
+        return commandExecutor.call(gameId, () -> liveGameService.fireSalvo(gameId, uid, body));
     }
 
 }
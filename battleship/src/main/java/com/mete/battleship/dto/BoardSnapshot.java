@@ -0,0 +1,52 @@
+package com.mete.battleship.dto;
+
+import java.util.List;
+
+/**
+ * One board as seen by the requester. Cell sets are base64 bitmasks: bit {@code i % 8} of
+ * byte {@code i / 8} is cell {@code i = row * size + col}. Boards larger than a tile are
+ * {@code tiled}: their masks are left out and read through {@code /boards/{id}/tile}.
+ */
+public class BoardSnapshot {
+    private Long boardId;
+    private Long ownerUserId;
+    private int size;
+    private int shotCount;
+    private String shots;
+    private String hits;
+    private String ships; // only on the requester's own board
+    private List<String> sunk;
+    private boolean tiled;
+
+    public BoardSnapshot() {}
+
+    public BoardSnapshot(Long boardId, Long ownerUserId, int size, int shotCount, String shots, String hits, String ships, List<String> sunk) {
+        this.boardId = boardId;
+        this.ownerUserId = ownerUserId;
+        this.size = size;
+        this.shotCount = shotCount;
+        this.shots = shots;
+        this.hits = hits;
+        this.ships = ships;
+        this.sunk = sunk;
+    }
+
+    public Long getBoardId() { return boardId; }
+    public void setBoardId(Long boardId) { this.boardId = boardId; }
+    public Long getOwnerUserId() { return ownerUserId; }
+    public void setOwnerUserId(Long ownerUserId) { this.ownerUserId = ownerUserId; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public int getShotCount() { return shotCount; }
+    public void setShotCount(int shotCount) { this.shotCount = shotCount; }
+    public String getShots() { return shots; }
+    public void setShots(String shots) { this.shots = shots; }
+    public String getHits() { return hits; }
+    public void setHits(String hits) { this.hits = hits; }
+    public String getShips() { return ships; }
+    public void setShips(String ships) { this.ships = ships; }
+    public List<String> getSunk() { return sunk; }
+    public void setSunk(List<String> sunk) { this.sunk = sunk; }
+    public boolean isTiled() { return tiled; }
+    public void setTiled(boolean tiled) { this.tiled = tiled; }
+}
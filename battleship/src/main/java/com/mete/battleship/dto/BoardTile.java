@@ -0,0 +1,51 @@
+package com.mete.battleship.dto;
+
+/**
+ * A rectangular window of a board, for clients that render large boards one viewport at a
+ * time. Cell sets are base64 bitmasks over the window: bit {@code i % 8} of byte {@code i / 8}
+ * is cell {@code i = (row - this.row) * cols + (col - this.col)}.
+ */
+public class BoardTile {
+    private Long boardId;
+    private int size;
+    private int row;
+    private int col;
+    private int rows;
+    private int cols;
+    private String shots;
+    private String hits;
+    private String ships; // only on the requester's own board
+
+    public BoardTile() {}
+
+    public BoardTile(Long boardId, int size, int row, int col, int rows, int cols, String shots, String hits, String ships) {
+        this.boardId = boardId;
+        this.size = size;
+        this.row = row;
+        this.col = col;
+        this.rows = rows;
+        this.cols = cols;
+        this.shots = shots;
+        this.hits = hits;
+        this.ships = ships;
+    }
+
+    public Long getBoardId() { return boardId; }
+    public void setBoardId(Long boardId) { this.boardId = boardId; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+    public int getCol() { return col; }
+    public void setCol(int col) { this.col = col; }
+    public int getRows() { return rows; }
+    public void setRows(int rows) { this.rows = rows; }
+    public int getCols() { return cols; }
+    public void setCols(int cols) { this.cols = cols; }
+    public String getShots() { return shots; }
+    public void setShots(String shots) { this.shots = shots; }
+    public String getHits() { return hits; }
+    public void setHits(String hits) { this.hits = hits; }
+    public String getShips() { return ships; }
+    public void setShips(String ships) { this.ships = ships; }
+}
@@ -0,0 +1,21 @@
+package com.mete.battleship.dto;
+
+import java.util.List;
+
+public class GamePage {
+    private List<GameSummary> items;
+    private String nextCursor;
+
+    public GamePage() {}
+
+    public GamePage(List<GameSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<GameSummary> getItems() { return items; }
+    public void setItems(List<GameSummary> items) { this.items = items; }
+    /** Pass back as {@code cursor} to fetch the next page; null on the last page. */
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
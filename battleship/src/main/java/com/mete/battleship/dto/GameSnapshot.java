@@ -0,0 +1,20 @@
+package com.mete.battleship.dto;
+
+import java.util.List;
+
+public class GameSnapshot {
+    private GameSummary game;
+    private List<BoardSnapshot> boards;
+
+    public GameSnapshot() {}
+
+    public GameSnapshot(GameSummary game, List<BoardSnapshot> boards) {
+        this.game = game;
+        this.boards = boards;
+    }
+
+    public GameSummary getGame() { return game; }
+    public void setGame(GameSummary game) { this.game = game; }
+    public List<BoardSnapshot> getBoards() { return boards; }
+    public void setBoards(List<BoardSnapshot> boards) { this.boards = boards; }
+}
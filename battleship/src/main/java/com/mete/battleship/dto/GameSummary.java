@@ -1,5 +1,6 @@
 package com.mete.battleship.dto;
 
+import com.mete.battleship.engine.Fleet;
 import com.mete.battleship.entity.Game;
 
 import java.time.LocalDateTime;
@@ -13,6 +14,10 @@ public class GameSummary {
     private Long winnerUserId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
+    private String mode;
+    private int boardSize;
+    private String fleet;
 
     public GameSummary(String status, Long gameId, Long player1Id, Long player2Id, Long currentTurnUserId, Long winnerUserId, LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.status = status;
@@ -29,7 +34,7 @@ public class GameSummary {
     }
 
     public static GameSummary fromGame(Game game) {
-        return new GameSummary(
+        GameSummary summary = new GameSummary(
                 game.getStatus().name(),
                 game.getId(),
                 game.getPlayer1Id(),
@@ -39,6 +44,11 @@ public class GameSummary {
                 game.getCreatedAt(),
                 game.getUpdatedAt()
         );
+        summary.setVersion(game.getStateVersion());
+        summary.setMode(game.getMode() != null ? game.getMode().name() : null);
+        summary.setBoardSize(game.getBoardSize());
+        summary.setFleet(Fleet.parse(game.getFleet()).spec());
+        return summary;
     }
 
     public Long getWinnerUserId() {
@@ -104,4 +114,36 @@ public class GameSummary {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public void setBoardSize(int boardSize) {
+        this.boardSize = boardSize;
+    }
+
+    public String getFleet() {
+        return fleet;
+    }
+
+    public void setFleet(String fleet) {
+        this.fleet = fleet;
+    }
 }
@@ -0,0 +1,31 @@
+package com.mete.battleship.dto;
+
+import java.util.List;
+
+public class SalvoResponse {
+    private List<ShotView> shots; // in firing order; stops at the shot that ends the game
+    private GameSummary game;
+
+    public SalvoResponse() {}
+
+    public SalvoResponse(List<ShotView> shots, GameSummary game) {
+        this.shots = shots;
+        this.game = game;
+    }
+
+    public List<ShotView> getShots() {
+        return shots;
+    }
+
+    public void setShots(List<ShotView> shots) {
+        this.shots = shots;
+    }
+
+    public GameSummary getGame() {
+        return game;
+    }
+
+    public void setGame(GameSummary game) {
+        this.game = game;
+    }
+}
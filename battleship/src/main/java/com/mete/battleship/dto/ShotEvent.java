@@ -0,0 +1,18 @@
+package com.mete.battleship.dto;
+
+public class ShotEvent {
+    private ShotView shot;
+    private GameSummary game;
+
+    public ShotEvent() {}
+
+    public ShotEvent(ShotView shot, GameSummary game) {
+        this.shot = shot;
+        this.game = game;
+    }
+
+    public ShotView getShot() { return shot; }
+    public void setShot(ShotView shot) { this.shot = shot; }
+    public GameSummary getGame() { return game; }
+    public void setGame(GameSummary game) { this.game = game; }
+}
@@ -1,5 +1,7 @@
 package com.mete.battleship.dto;
 
+import com.mete.battleship.entity.Shot;
+
 public class ShotView {
     private Long id;
     private Long boardId;
@@ -23,6 +25,15 @@ public class ShotView {
         this.sunkShipType = sunkShipType;
     }
 
+    public static ShotView fromShot(Shot s) {
+        return new ShotView(
+                s.getId(), s.getBoardId(), s.getShooterUserId(), s.getTargetUserId(),
+                s.getRow(), s.getCol(),
+                s.getResult() != null ? s.getResult().name() : null,
+                s.getSunkShipType() != null ? s.getSunkShipType().name() : null
+        );
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public Long getBoardId() { return boardId; }
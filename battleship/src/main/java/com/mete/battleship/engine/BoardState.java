@@ -0,0 +1,261 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.entity.Orientation;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.ShotResult;
+
+import java.util.Arrays;
+
+/**
+ * Sparse view of a single board: a hash of ship cells to ship index, a hash of shot cells
+ * and per-ship hit counters. Cells are indexed row-major ({@code row * size + col}), and
+ * memory and lookups scale with the ships and shots on the board, not its area, so a
+ * 1000x1000 board costs the same as a 10x10 one with the same fleet.
+ * <p>
+ * Instances are not thread-safe; callers serialize access per game.
+ */
+public final class BoardState {
+
+    public static final int MAX_SIZE = 1000;
+
+    private static final int MISS = -1;
+
+    private final int size;
+
+    private long[] shipIds;
+    private ShipType[] shipTypes;
+    private int[] shipLengths;
+    private int[] hits;
+    private int shipCount;
+    private int sunkCount;
+    private int lastHitShip = -1;
+
+    // cell -> ship index
+    private final CellMap occupied;
+    // cell -> index of the ship hit, or MISS
+    private final CellMap shots;
+
+    public BoardState(int size) {
+        this(size, 8);
+    }
+
+    /**
+     * @param expectedShips sizing hint only; the board grows past it
+     */
+    public BoardState(int size, int expectedShips) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 1 and " + MAX_SIZE);
+        }
+        int ships = Math.max(1, expectedShips);
+        this.size = size;
+        this.shipIds = new long[ships];
+        this.shipTypes = new ShipType[ships];
+        this.shipLengths = new int[ships];
+        this.hits = new int[ships];
+        this.occupied = new CellMap(ships * 4);
+        this.shots = new CellMap(ships * 4);
+    }
+
+    /**
+     * Empties the board for reuse, keeping its buffers.
+     */
+    public void reset() {
+        occupied.clear();
+        shots.clear();
+        Arrays.fill(hits, 0, shipCount, 0);
+        shipCount = 0;
+        sunkCount = 0;
+        lastHitShip = -1;
+    }
+
+    public int getSize() { return size; }
+    public int getShipCount() { return shipCount; }
+
+    /**
+     * Whether {@link #addShip} would accept the ship.
+     */
+    public boolean canPlace(ShipType type, int startRow, int startCol, Orientation orientation) {
+        int length = type.getLength();
+        int dr = orientation == Orientation.VERTICAL ? 1 : 0;
+        int dc = orientation == Orientation.HORIZONTAL ? 1 : 0;
+        if (startRow < 0 || startCol < 0 || startRow + dr * (length - 1) >= size || startCol + dc * (length - 1) >= size) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (occupied.containsKey((startRow + dr * i) * size + (startCol + dc * i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds a ship and returns its index. Throws if it leaves the board or overlaps another ship.
+     */
+    public int addShip(long shipId, ShipType type, int startRow, int startCol, Orientation orientation) {
+        int length = type.getLength();
+        int dr = orientation == Orientation.VERTICAL ? 1 : 0;
+        int dc = orientation == Orientation.HORIZONTAL ? 1 : 0;
+        int endRow = startRow + dr * (length - 1);
+        int endCol = startCol + dc * (length - 1);
+        if (startRow < 0 || startCol < 0 || endRow >= size || endCol >= size) {
+            throw new IllegalArgumentException("Ship out of bounds: " + type);
+        }
+        // Check every cell first so a rejected ship leaves nothing behind
+        for (int i = 0; i < length; i++) {
+            if (occupied.containsKey((startRow + dr * i) * size + (startCol + dc * i))) {
+                throw new IllegalArgumentException("Ships overlap at (" + (startRow + dr * i) + "," + (startCol + dc * i) + ")");
+            }
+        }
+        if (shipCount == shipIds.length) {
+            int n = shipCount * 2;
+            shipIds = Arrays.copyOf(shipIds, n);
+            shipTypes = Arrays.copyOf(shipTypes, n);
+            shipLengths = Arrays.copyOf(shipLengths, n);
+            hits = Arrays.copyOf(hits, n);
+        }
+        int idx = shipCount;
+        for (int i = 0; i < length; i++) {
+            occupied.putIfAbsent((startRow + dr * i) * size + (startCol + dc * i), idx);
+        }
+        shipIds[idx] = shipId;
+        shipTypes[idx] = type;
+        shipLengths[idx] = length;
+        shipCount++;
+        return idx;
+    }
+
+    /**
+     * Records an existing shot while loading, updating hit counters but not returning a result.
+     * Ships must be added first.
+     */
+    public void markShot(int row, int col) {
+        int cell = cell(row, col);
+        int idx = shipIndex(cell);
+        if (!shots.putIfAbsent(cell, idx)) return;
+        if (idx >= 0 && ++hits[idx] == shipLengths[idx]) sunkCount++;
+    }
+
+    public boolean isInBounds(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    public boolean isShot(int row, int col) {
+        return shots.containsKey(cell(row, col));
+    }
+
+    /**
+     * Index of the ship covering the cell, or -1 for open water.
+     */
+    public int shipAt(int row, int col) {
+        return shipIndex(cell(row, col));
+    }
+
+    /**
+     * Result a shot at the cell would have, without recording it.
+     */
+    public ShotResult peek(int row, int col) {
+        int idx = shipAt(row, col);
+        if (idx < 0) return ShotResult.MISS;
+        return hits[idx] + 1 >= shipLengths[idx] ? ShotResult.SUNK : ShotResult.HIT;
+    }
+
+    /**
+     * Applies a new shot and returns its result. The cell must be in bounds and not shot before.
+     */
+    public ShotResult fire(int row, int col) {
+        int cell = cell(row, col);
+        int idx = shipIndex(cell);
+        if (!shots.putIfAbsent(cell, idx)) {
+            throw new IllegalStateException("Cell already shot (" + row + "," + col + ")");
+        }
+        if (idx < 0) {
+            return ShotResult.MISS;
+        }
+        lastHitShip = idx;
+        if (++hits[idx] == shipLengths[idx]) {
+            sunkCount++;
+            return ShotResult.SUNK;
+        }
+        return ShotResult.HIT;
+    }
+
+    /**
+     * Index of the ship hit by the most recent {@link #fire} call that was not a miss.
+     */
+    public int getLastHitShip() { return lastHitShip; }
+
+    public long getShipId(int idx) { return shipIds[idx]; }
+    public ShipType getShipType(int idx) { return shipTypes[idx]; }
+    public int getHits(int idx) { return hits[idx]; }
+    public int getShipLength(int idx) { return shipLengths[idx]; }
+    public boolean isSunk(int idx) { return hits[idx] >= shipLengths[idx]; }
+
+    public int getSunkCount() { return sunkCount; }
+
+    public int getShotCount() { return shots.size(); }
+
+    public boolean allSunk() {
+        return shipCount > 0 && sunkCount == shipCount;
+    }
+
+    /**
+     * Shot cells as a bitmask: bit {@code i} of byte {@code i / 8} is cell {@code i}
+     * (row-major), least significant bit first.
+     */
+    public byte[] shotBits() {
+        return shotBits(0, 0, size, size);
+    }
+
+    public byte[] hitBits() {
+        return hitBits(0, 0, size, size);
+    }
+
+    public byte[] shipBits() {
+        return shipBits(0, 0, size, size);
+    }
+
+    /**
+     * Shot cells of the {@code rows x cols} region starting at ({@code row}, {@code col}),
+     * in the same layout as {@link #shotBits()} with the region's width as the row length.
+     */
+    public byte[] shotBits(int row, int col, int rows, int cols) {
+        return toBytes(shots, false, row, col, rows, cols);
+    }
+
+    public byte[] hitBits(int row, int col, int rows, int cols) {
+        return toBytes(shots, true, row, col, rows, cols);
+    }
+
+    public byte[] shipBits(int row, int col, int rows, int cols) {
+        return toBytes(occupied, false, row, col, rows, cols);
+    }
+
+    // Walks the entries rather than the region, so cost follows ships and shots, not area
+    private byte[] toBytes(CellMap cells, boolean hitsOnly, int row, int col, int rows, int cols) {
+        if (rows < 0 || cols < 0 || row < 0 || col < 0 || row + rows > size || col + cols > size) {
+            throw new IllegalArgumentException("Region out of bounds");
+        }
+        byte[] out = new byte[(rows * cols + 7) >>> 3];
+        for (int s = 0; s < cells.capacity(); s++) {
+            int cell = cells.keyAt(s);
+            if (cell < 0 || (hitsOnly && cells.valueAt(s) == MISS)) continue;
+            int r = cell / size - row;
+            int c = cell % size - col;
+            if (r < 0 || r >= rows || c < 0 || c >= cols) continue;
+            int i = r * cols + c;
+            out[i >>> 3] |= (byte) (1 << (i & 7));
+        }
+        return out;
+    }
+
+    private int shipIndex(int cell) {
+        int idx = occupied.get(cell);
+        return idx == CellMap.ABSENT ? MISS : idx;
+    }
+
+    private int cell(int row, int col) {
+        if (!isInBounds(row, col)) {
+            throw new IllegalArgumentException("Cell out of bounds (" + row + "," + col + ")");
+        }
+        return row * size + col;
+    }
+}
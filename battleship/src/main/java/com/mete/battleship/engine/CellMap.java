@@ -0,0 +1,86 @@
+package com.mete.battleship.engine;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from cell index to an int value, sized by the number of entries
+ * rather than by the board area. Keys are non-negative; there is no removal.
+ */
+final class CellMap {
+
+    static final int ABSENT = Integer.MIN_VALUE;
+    private static final int FREE = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int count;
+
+    CellMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(8, expected * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, FREE);
+    }
+
+    int size() { return count; }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        count = 0;
+    }
+
+    int get(int key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == FREE) return ABSENT;
+        }
+    }
+
+    boolean containsKey(int key) {
+        return get(key) != ABSENT;
+    }
+
+    /**
+     * Stores the value unless the key is already present; returns whether it was added.
+     */
+    boolean putIfAbsent(int key, int value) {
+        int i = slot(key);
+        for (; keys[i] != FREE; i = (i + 1) & mask) {
+            if (keys[i] == key) return false;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++count * 2 > keys.length) grow();
+        return true;
+    }
+
+    // Slot accessors for iteration; a slot holding FREE as its key is empty
+    int capacity() { return keys.length; }
+    int keyAt(int slot) { return keys[slot]; }
+    int valueAt(int slot) { return values[slot]; }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        Arrays.fill(keys, FREE);
+        for (int s = 0; s < oldKeys.length; s++) {
+            if (oldKeys[s] == FREE) continue;
+            int i = slot(oldKeys[s]);
+            while (keys[i] != FREE) i = (i + 1) & mask;
+            keys[i] = oldKeys[s];
+            values[i] = oldValues[s];
+        }
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing spreads row-major neighbours across the table
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,124 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.entity.ShipType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * How many ships of each type a board holds, written as {@code "CARRIER:1,DESTROYER:3"}.
+ * A blank spec is the standard fleet of one ship per type.
+ */
+public final class Fleet {
+
+    public static final int MAX_SHIPS = 1000;
+
+    private static final Fleet STANDARD;
+    static {
+        Map<ShipType, Integer> counts = new EnumMap<>(ShipType.class);
+        for (ShipType t : ShipType.values()) counts.put(t, 1);
+        STANDARD = new Fleet(counts);
+    }
+
+    private final Map<ShipType, Integer> counts;
+    private final int totalShips;
+    private final int totalCells;
+
+    private Fleet(Map<ShipType, Integer> counts) {
+        this.counts = Collections.unmodifiableMap(counts);
+        int ships = 0;
+        int cells = 0;
+        for (Map.Entry<ShipType, Integer> e : counts.entrySet()) {
+            ships += e.getValue();
+            cells += e.getValue() * e.getKey().getLength();
+        }
+        this.totalShips = ships;
+        this.totalCells = cells;
+    }
+
+    public static Fleet standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Parses a fleet spec. Throws {@link IllegalArgumentException} on unknown types,
+     * non-positive counts or more than {@link #MAX_SHIPS} ships.
+     */
+    public static Fleet parse(String spec) {
+        if (spec == null || spec.isBlank()) return STANDARD;
+        Map<ShipType, Integer> counts = new EnumMap<>(ShipType.class);
+        long ships = 0;
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            ShipType type;
+            int count;
+            try {
+                type = ShipType.valueOf(kv[0].trim().toUpperCase());
+                count = kv.length == 1 ? 1 : Integer.parseInt(kv[1].trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid fleet entry: " + part.trim());
+            }
+            if (kv.length > 2 || count <= 0) {
+                throw new IllegalArgumentException("Invalid fleet entry: " + part.trim());
+            }
+            if (counts.putIfAbsent(type, count) != null) {
+                throw new IllegalArgumentException("Ship type listed twice in fleet: " + type);
+            }
+            ships += count;
+        }
+        if (ships > MAX_SHIPS) {
+            throw new IllegalArgumentException("A fleet can have at most " + MAX_SHIPS + " ships");
+        }
+        Fleet fleet = new Fleet(counts);
+        return fleet.equals(STANDARD) ? STANDARD : fleet;
+    }
+
+    public int count(ShipType type) {
+        return counts.getOrDefault(type, 0);
+    }
+
+    public Map<ShipType, Integer> counts() {
+        return counts;
+    }
+
+    public int totalShips() {
+        return totalShips;
+    }
+
+    /**
+     * Cells covered when every ship is placed; a board must have room for them.
+     */
+    public int totalCells() {
+        return totalCells;
+    }
+
+    public boolean isStandard() {
+        return this == STANDARD;
+    }
+
+    /**
+     * Canonical spec in {@link ShipType} order; parsing it yields an equal fleet.
+     */
+    public String spec() {
+        StringJoiner out = new StringJoiner(",");
+        counts.forEach((type, n) -> out.add(type.name() + ":" + n));
+        return out.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Fleet f && counts.equals(f.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return counts.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return spec();
+    }
+}
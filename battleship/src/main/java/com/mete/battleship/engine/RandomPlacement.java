@@ -0,0 +1,49 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.entity.Orientation;
+import com.mete.battleship.entity.ShipType;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Places a whole fleet at random positions, longest ships first.
+ */
+public final class RandomPlacement {
+
+    private static final int ATTEMPTS_PER_SHIP = 10_000;
+    private static final ShipType[] TYPES = ShipType.values();
+
+    /** Receives each ship as it is placed. */
+    public interface Sink {
+        void ship(ShipType type, int startRow, int startCol, Orientation orientation);
+    }
+
+    private RandomPlacement() {}
+
+    /**
+     * Adds every ship of the fleet to the empty board. Throws {@link IllegalStateException}
+     * if a ship finds no room, which only happens for fleets packed close to the board area.
+     */
+    public static void place(BoardState board, Fleet fleet, RandomGenerator random, Sink sink) {
+        int size = board.getSize();
+        // ShipType is declared longest first
+        for (ShipType type : TYPES) {
+            for (int n = fleet.count(type); n > 0; n--) {
+                int attempt = 0;
+                while (true) {
+                    Orientation o = random.nextBoolean() ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+                    int row = random.nextInt(size);
+                    int col = random.nextInt(size);
+                    if (board.canPlace(type, row, col, o)) {
+                        board.addShip(board.getShipCount(), type, row, col, o);
+                        if (sink != null) sink.ship(type, row, col, o);
+                        break;
+                    }
+                    if (++attempt == ATTEMPTS_PER_SHIP) {
+                        throw new IllegalStateException("No room left for " + type + " on a " + size + "x" + size + " board");
+                    }
+                }
+            }
+        }
+    }
+}
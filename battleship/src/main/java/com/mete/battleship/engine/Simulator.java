@@ -0,0 +1,185 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.engine.TargetingEngine.Difficulty;
+import com.mete.battleship.entity.GameMode;
+import com.mete.battleship.entity.ShotResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless bot-vs-bot games on the rules the server enforces: fleets are placed through
+ * {@link BoardState#canPlace}, shots resolved by {@link BoardState#fire}, a game is won when
+ * {@link BoardState#allSunk} and salvo sizes come from {@link GameMode#shotsPerTurn}.
+ * <p>
+ * Games are split across a fork-join pool in batches. Every thread keeps its own boards and
+ * engines and resets them per game, and bots are fed only the new shot results rather than
+ * replaying the game, so a game allocates next to nothing. Each batch gets its own split of
+ * the seed, so a run is reproducible whatever the thread count.
+ * <p>
+ * Strategies meet in every ordered pairing (both sides move first equally often); with a
+ * single strategy it plays itself.
+ */
+public final class Simulator {
+
+    private static final int BATCH_GAMES = 256;
+
+    public record StrategyResult(Difficulty strategy, long games, long wins, double winRate, double avgShotsToWin) {}
+
+    public record Report(long games, double seconds, double gamesPerSecond, double avgShotsToWin, List<StrategyResult> strategies) {}
+
+    private final int size;
+    private final Fleet fleet;
+    private final GameMode mode;
+    private final Difficulty[] strategies;
+    private final int[][] pairings;
+    private final ThreadLocal<Table> tables;
+
+    public Simulator(int size, Fleet fleet, GameMode mode, List<Difficulty> strategies) {
+        if (size < 1 || size > TargetingEngine.MAX_SIZE) {
+            throw new IllegalArgumentException("Simulations support boards up to " + TargetingEngine.MAX_SIZE + "x" + TargetingEngine.MAX_SIZE);
+        }
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("At least one strategy is required");
+        }
+        this.size = size;
+        this.fleet = fleet;
+        this.mode = mode;
+        this.strategies = strategies.toArray(new Difficulty[0]);
+        List<int[]> pairs = new ArrayList<>();
+        for (int a = 0; a < this.strategies.length; a++) {
+            for (int b = 0; b < this.strategies.length; b++) {
+                if (a != b || this.strategies.length == 1) pairs.add(new int[]{a, b});
+            }
+        }
+        this.pairings = pairs.toArray(new int[0][]);
+        this.tables = ThreadLocal.withInitial(Table::new);
+    }
+
+    public Report run(long games, long seed, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(new Batch(0, games, new SplittableRandom(seed)));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        List<StrategyResult> results = new ArrayList<>(strategies.length);
+        for (int i = 0; i < strategies.length; i++) {
+            results.add(new StrategyResult(strategies[i], tally.played[i], tally.wins[i],
+                    tally.played[i] == 0 ? 0 : (double) tally.wins[i] / tally.played[i],
+                    tally.wins[i] == 0 ? 0 : (double) tally.winShots[i] / tally.wins[i]));
+        }
+        return new Report(games, seconds, games / seconds, games == 0 ? 0 : (double) tally.totalWinShots / games, results);
+    }
+
+    private final class Batch extends RecursiveTask<Tally> {
+        private final long from;
+        private final long to;
+        private final SplittableRandom random;
+
+        Batch(long from, long to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= BATCH_GAMES) {
+                Tally tally = new Tally(strategies.length);
+                Table table = tables.get();
+                for (long g = from; g < to; g++) {
+                    int[] pair = pairings[(int) (g % pairings.length)];
+                    table.play(pair[0], pair[1], random, tally);
+                }
+                return tally;
+            }
+            long mid = (from + to) >>> 1;
+            Batch left = new Batch(from, mid, random.split());
+            Batch right = new Batch(mid, to, random.split());
+            left.fork();
+            Tally tally = right.compute();
+            tally.add(left.join());
+            return tally;
+        }
+    }
+
+    /** One thread's boards and bots, reused for every game it plays. */
+    private final class Table {
+        private final BoardState[] boards = {new BoardState(size, fleet.totalShips()), new BoardState(size, fleet.totalShips())};
+        private final TargetingEngine[] bots = {new TargetingEngine(), new TargetingEngine()};
+        private final Difficulty[] playing = new Difficulty[2];
+        private final int[] player = new int[2];
+        private final int[] shots = new int[2];
+        private final int[] salvo = new int[size * size];
+
+        // first moves first; players are strategy indexes
+        void play(int first, int second, SplittableRandom random, Tally tally) {
+            player[0] = first;
+            player[1] = second;
+            for (int p = 0; p < 2; p++) {
+                shots[p] = 0;
+                boards[p].reset();
+                RandomPlacement.place(boards[p], fleet, random, null);
+                bots[p].reset(size, fleet);
+                playing[p] = strategies[player[p]];
+            }
+            int turn = 0;
+            while (true) {
+                BoardState own = boards[turn];
+                BoardState target = boards[1 - turn];
+                TargetingEngine bot = bots[turn];
+                int count = Math.min(mode.shotsPerTurn(own.getShipCount() - own.getSunkCount()),
+                        size * size - target.getShotCount());
+                // A salvo is chosen before any of its results are known
+                for (int i = 0; i < count; i++) salvo[i] = bot.nextCell(playing[turn], random);
+                for (int i = 0; i < count; i++) {
+                    int row = salvo[i] / size;
+                    int col = salvo[i] % size;
+                    ShotResult result = target.fire(row, col);
+                    shots[turn]++;
+                    switch (result) {
+                        case MISS -> bot.miss(row, col);
+                        case HIT -> bot.hit(row, col);
+                        case SUNK -> bot.sunk(row, col, target.getShipType(target.getLastHitShip()));
+                    }
+                    if (target.allSunk()) {
+                        tally.record(player[turn], player[1 - turn], shots[turn]);
+                        return;
+                    }
+                }
+                turn = 1 - turn;
+            }
+        }
+    }
+
+    private static final class Tally {
+        final long[] played;
+        final long[] wins;
+        final long[] winShots;
+        long totalWinShots;
+
+        Tally(int strategies) {
+            played = new long[strategies];
+            wins = new long[strategies];
+            winShots = new long[strategies];
+        }
+
+        void record(int winner, int loser, int shots) {
+            played[winner]++;
+            played[loser]++;
+            wins[winner]++;
+            winShots[winner] += shots;
+            totalWinShots += shots;
+        }
+
+        void add(Tally other) {
+            for (int i = 0; i < played.length; i++) {
+                played[i] += other.played[i];
+                wins[i] += other.wins[i];
+                winShots[i] += other.winShots[i];
+            }
+            totalWinShots += other.totalWinShots;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.entity.ShipType;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks shots from a probability-density map. Every placement of every ship still afloat
+ * that avoids the known misses and sunk ships adds weight to the open cells it covers, far
+ * more when it passes through hits not yet explained by a sunk ship. Placements are found
+ * with bitboard shifts over row-major masks, and every buffer is allocated up front, so
+ * {@link #reset}, the shot feed and {@link #nextCell} allocate nothing.
+ * <p>
+ * Instances are not thread-safe; keep one per thread and {@link #reset} it for each move.
+ */
+public final class TargetingEngine {
+
+    public static final int MAX_SIZE = 64;
+
+    public enum Difficulty {
+        /** Uniformly random open cells. */
+        EASY,
+        /** Random checkerboard hunting; density targeting once something is hit. */
+        MEDIUM,
+        /** Always the densest open cell. */
+        HARD
+    }
+
+    // Placements through an unresolved hit outweigh any amount of open-water evidence
+    private static final long HIT_WEIGHT = 1_000;
+    private static final ShipType[] TYPES = ShipType.values();
+
+    private final long[] misses;
+    private final long[] hits;
+    private final long[] sunk;
+    private final long[] pending;
+    private final long[] free;
+    private final long[] open;
+    private final long[] starts;
+    private final long[] parity;
+    private final long[][] fitsRow; // by ship length: cells a horizontal ship may start on
+    private final long[] density;
+    private final int[] remaining = new int[TYPES.length];
+
+    private int size;
+    private int area;
+    private int words;
+
+    public TargetingEngine() {
+        int maxWords = (MAX_SIZE * MAX_SIZE + 63) >>> 6;
+        misses = new long[maxWords];
+        hits = new long[maxWords];
+        sunk = new long[maxWords];
+        pending = new long[maxWords];
+        free = new long[maxWords];
+        open = new long[maxWords];
+        starts = new long[maxWords];
+        parity = new long[maxWords];
+        int maxLength = 0;
+        for (ShipType t : TYPES) maxLength = Math.max(maxLength, t.getLength());
+        fitsRow = new long[maxLength + 1][maxWords];
+        density = new long[MAX_SIZE * MAX_SIZE];
+    }
+
+    /**
+     * Forgets all shots and starts over for a board with the given fleet afloat.
+     */
+    public void reset(int size, Fleet fleet) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Targeting supports boards up to " + MAX_SIZE + "x" + MAX_SIZE);
+        }
+        if (size != this.size) resize(size);
+        for (int w = 0; w < words; w++) {
+            misses[w] = 0L;
+            hits[w] = 0L;
+            sunk[w] = 0L;
+            pending[w] = 0L;
+        }
+        for (ShipType t : TYPES) remaining[t.ordinal()] = fleet.count(t);
+    }
+
+    private void resize(int size) {
+        this.size = size;
+        this.area = size * size;
+        this.words = (area + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            parity[w] = 0L;
+            for (long[] mask : fitsRow) mask[w] = 0L;
+        }
+        for (int cell = 0; cell < area; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            if (((row + col) & 1) == 0) set(parity, cell);
+            for (int len = 1; len < fitsRow.length; len++) {
+                if (col + len <= size) set(fitsRow[len], cell);
+            }
+        }
+    }
+
+    public void miss(int row, int col) {
+        set(misses, cell(row, col));
+    }
+
+    public void hit(int row, int col) {
+        set(hits, cell(row, col));
+    }
+
+    /**
+     * Records the shot that sank a ship of the given type. Its cells are worked out from the
+     * hits around the shot when only one straight run of hits can hold it; otherwise they stay
+     * unresolved hits.
+     */
+    public void sunk(int row, int col, ShipType type) {
+        int cell = cell(row, col);
+        set(hits, cell);
+        if (remaining[type.ordinal()] > 0) remaining[type.ordinal()]--;
+        int length = type.getLength();
+        int found = 0;
+        int foundStart = -1;
+        int foundStep = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            int step = pass == 0 ? 1 : size;
+            for (int back = 0; back < length; back++) {
+                int start = cell - back * step;
+                if (runOfHits(start, step, length)) {
+                    found++;
+                    foundStart = start;
+                    foundStep = step;
+                }
+            }
+        }
+        if (found == 1) {
+            for (int i = 0; i < length; i++) set(sunk, foundStart + i * foundStep);
+        }
+    }
+
+    private boolean runOfHits(int start, int step, int length) {
+        if (start < 0) return false;
+        int end = start + (length - 1) * step;
+        if (end >= area) return false;
+        if (step == 1 && start / size != end / size) return false;
+        for (int c = start; c <= end; c += step) {
+            if (!get(hits, c) || get(sunk, c)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Next cell ({@code row * size + col}) to shoot. The cell is held back from later calls
+     * until the next {@link #reset} or {@link #clearPending}, so a salvo can be picked with
+     * repeated calls.
+     */
+    public int nextCell(Difficulty difficulty, RandomGenerator random) {
+        long candidates = 0;
+        boolean unresolved = false;
+        for (int w = 0; w < words; w++) {
+            open[w] = ~(misses[w] | hits[w] | pending[w]) & boardMask(w);
+            candidates += Long.bitCount(open[w]);
+            unresolved |= (hits[w] & ~sunk[w]) != 0;
+        }
+        if (candidates == 0) {
+            throw new IllegalStateException("No cells left to shoot");
+        }
+        int cell;
+        if (difficulty == Difficulty.HARD || (difficulty == Difficulty.MEDIUM && unresolved)) {
+            cell = densest(random);
+        } else if (difficulty == Difficulty.MEDIUM) {
+            cell = randomCell(open, parity, random);
+            if (cell < 0) cell = randomCell(open, null, random);
+        } else {
+            cell = randomCell(open, null, random);
+        }
+        set(pending, cell);
+        return cell;
+    }
+
+    public void clearPending() {
+        for (int w = 0; w < words; w++) pending[w] = 0L;
+    }
+
+    /**
+     * Density of the cell as of the last {@link #nextCell} call that computed one.
+     */
+    public long density(int row, int col) {
+        return density[cell(row, col)];
+    }
+
+    private int densest(RandomGenerator random) {
+        computeDensity();
+        long best = 0;
+        int bestCell = -1;
+        int ties = 0;
+        for (int w = 0; w < words; w++) {
+            for (long bits = open[w]; bits != 0; bits &= bits - 1) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                long d = density[cell];
+                if (d > best) {
+                    best = d;
+                    bestCell = cell;
+                    ties = 1;
+                } else if (d == best && d > 0 && random.nextInt(++ties) == 0) {
+                    bestCell = cell;
+                }
+            }
+        }
+        // No placement fits the evidence (e.g. an unusual fleet): fall back to any open cell
+        return bestCell >= 0 ? bestCell : randomCell(open, null, random);
+    }
+
+    private void computeDensity() {
+        for (int i = 0; i < area; i++) density[i] = 0L;
+        for (int w = 0; w < words; w++) free[w] = ~(misses[w] | sunk[w]) & boardMask(w);
+        for (ShipType type : TYPES) {
+            int count = remaining[type.ordinal()];
+            if (count == 0) continue;
+            int length = type.getLength();
+            if (length > size) continue;
+            // Horizontal: start cells whose next length-1 cells in the row are free
+            for (int w = 0; w < words; w++) starts[w] = free[w] & fitsRow[length][w];
+            for (int k = 1; k < length; k++) andShiftedRight(starts, free, k);
+            addPlacements(length, 1, count);
+            // Vertical: shifting by whole rows drops starts whose ship would leave the board
+            System.arraycopy(free, 0, starts, 0, words);
+            for (int k = 1; k < length; k++) andShiftedRight(starts, free, k * size);
+            addPlacements(length, size, count);
+        }
+    }
+
+    private void addPlacements(int length, int step, int count) {
+        for (int w = 0; w < words; w++) {
+            for (long bits = starts[w]; bits != 0; bits &= bits - 1) {
+                int start = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int end = start + (length - 1) * step;
+                int through = 0;
+                for (int c = start; c <= end; c += step) {
+                    if (get(hits, c)) through++;
+                }
+                long weight = count * (1 + HIT_WEIGHT * through);
+                for (int c = start; c <= end; c += step) {
+                    if (!get(hits, c)) density[c] += weight;
+                }
+            }
+        }
+    }
+
+    // acc &= src >>> shift, across word boundaries; bits shifted in from past the board are 0
+    private void andShiftedRight(long[] acc, long[] src, int shift) {
+        int ws = shift >>> 6;
+        int bs = shift & 63;
+        for (int w = 0; w < words; w++) {
+            int i = w + ws;
+            long v = i < words ? src[i] >>> bs : 0L;
+            if (bs != 0 && i + 1 < words) v |= src[i + 1] << (64 - bs);
+            acc[w] &= v;
+        }
+    }
+
+    private int randomCell(long[] mask, long[] and, RandomGenerator random) {
+        int count = 0;
+        for (int w = 0; w < words; w++) count += Long.bitCount(and == null ? mask[w] : mask[w] & and[w]);
+        if (count == 0) return -1;
+        int pick = random.nextInt(count);
+        for (int w = 0; w < words; w++) {
+            long bits = and == null ? mask[w] : mask[w] & and[w];
+            int n = Long.bitCount(bits);
+            if (pick < n) {
+                for (; pick > 0; pick--) bits &= bits - 1;
+                return (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            pick -= n;
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private long boardMask(int w) {
+        int bitsInWord = area - (w << 6);
+        return bitsInWord >= 64 ? -1L : (1L << bitsInWord) - 1;
+    }
+
+    private int cell(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            throw new IllegalArgumentException("Cell out of bounds (" + row + "," + col + ")");
+        }
+        return row * size + col;
+    }
+
+    private static void set(long[] mask, int cell) {
+        mask[cell >>> 6] |= 1L << cell;
+    }
+
+    private static boolean get(long[] mask, int cell) {
+        return (mask[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 @Table(name="boards")
 public class Board {
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "boards")
+    @TableGenerator(name = "boards", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "boards", allocationSize = 50)
     private Long id;
     @Column(name = "game_id", nullable = false)
     private Long gameId;
@@ -8,13 +8,26 @@ import java.time.LocalDateTime;
 @Entity
 public class Game {
 
-    @Id @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "games")
+    @TableGenerator(name = "games", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "games", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private GameStatus status;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "game_mode", nullable = false)
+    private GameMode mode = GameMode.CLASSIC;
+
+    @Column(name = "board_size", nullable = false)
+    private int boardSize = 10;
+    // Fleet spec such as "CARRIER:1,DESTROYER:3"; empty means one ship of each type
+    @Column(nullable = false)
+    private String fleet = "";
+
     @Column(name = "player1_id" ,nullable = false)
     private Long player1Id;
     @Column(name = "player2_id")
@@ -27,6 +40,15 @@ public class Game {
     private java.time.LocalDateTime createdAt;
     @Column(name = "updated_at", insertable = false, updatable = false)
     private java.time.LocalDateTime updatedAt;
+    // Bumped on every visible change to the game, its boards, ships or shots; drives ETags
+    @Column(name = "state_version", nullable = false)
+    private long stateVersion;
+    // Last game_events row reflected in this row (event-sourced mode)
+    @Column(name = "projected_seq", nullable = false)
+    private int projectedSeq;
+    // Boards, ships and shots moved to game_archives
+    @Column(nullable = false)
+    private boolean archived;
 
     public Game() {
     }
@@ -55,6 +77,14 @@ public class Game {
         this.status = status;
     }
 
+    public GameMode getMode() {
+        return mode;
+    }
+
+    public void setMode(GameMode mode) {
+        this.mode = mode;
+    }
+
     public Long getPlayer1Id() {
         return player1Id;
     }
@@ -94,4 +124,44 @@ public class Game {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public long getStateVersion() {
+        return stateVersion;
+    }
+
+    public void setStateVersion(long stateVersion) {
+        this.stateVersion = stateVersion;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public void setBoardSize(int boardSize) {
+        this.boardSize = boardSize;
+    }
+
+    public String getFleet() {
+        return fleet;
+    }
+
+    public void setFleet(String fleet) {
+        this.fleet = fleet;
+    }
+
+    public int getProjectedSeq() {
+        return projectedSeq;
+    }
+
+    public void setProjectedSeq(int projectedSeq) {
+        this.projectedSeq = projectedSeq;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
 }
@@ -0,0 +1,12 @@
+package com.mete.battleship.entity;
+
+public enum GameMode {
+    // One shot per turn
+    CLASSIC,
+    // One shot per surviving ship per turn, fired together through /salvo
+    SALVO;
+
+    public int shotsPerTurn(int survivingShips) {
+        return this == SALVO ? survivingShips : 1;
+    }
+}
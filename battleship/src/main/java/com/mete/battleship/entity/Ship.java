@@ -6,7 +6,9 @@ import jakarta.persistence.*;
 @Table(name = "ships")
 public class Ship {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ships")
+    @TableGenerator(name = "ships", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "ships", allocationSize = 50)
     private Long id;
 
     @Column(name = "board_id",nullable = false)
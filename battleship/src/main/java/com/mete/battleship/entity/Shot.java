@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 @Table(name = "shots")
 public class Shot {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "shots")
+    @TableGenerator(name = "shots", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "shots", allocationSize = 50)
     private Long id;
 
     @Column(name = "board_id", nullable = false)
@@ -0,0 +1,30 @@
+package com.mete.battleship.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements one call of the annotated method should issue, including those
+ * flushed on commit. Each call is recorded as {@code game.operations.sql} tagged with the
+ * operation; with {@code app.sql.budget.warn=true} calls over budget are logged.
+ * <p>
+ * Only statements prepared by Hibernate are counted ({@link SqlStatementCounter} is a
+ * {@code StatementInspector}); {@code JdbcTemplate} statements are not. With
+ * {@code app.game.event-sourcing.enabled} a budgeted call therefore also issues one
+ * uncounted {@code game_events} INSERT, plus the event log reads when it loads a game
+ * that is not live. Write-behind flushes, projection and archiving run off the request
+ * and are outside any budget.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int value();
+
+    /**
+     * Operation tag; defaults to the method name.
+     */
+    String operation() default "";
+}
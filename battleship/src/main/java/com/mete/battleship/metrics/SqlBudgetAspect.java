@@ -0,0 +1,58 @@
+package com.mete.battleship.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the statements of every {@link SqlBudget} method call. Ordered ahead of the
+ * transaction interceptor so statements flushed at commit are part of the call, but after
+ * Spring's {@code ExposeInvocationInterceptor}; the annotation is read from the method rather
+ * than bound as an advice argument, so the advice does not depend on that order either.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SqlBudgetAspect {
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetAspect.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean warn;
+
+    public SqlBudgetAspect(MeterRegistry meterRegistry, @Value("${app.sql.budget.warn:false}") boolean warn) {
+        this.meterRegistry = meterRegistry;
+        this.warn = warn;
+    }
+
+    @Around("@annotation(com.mete.battleship.metrics.SqlBudget)")
+    public Object count(ProceedingJoinPoint call) throws Throwable {
+        SqlBudget budget = AnnotationUtils.findAnnotation(((MethodSignature) call.getSignature()).getMethod(), SqlBudget.class);
+        SqlStatementCounter.Tally tally = SqlStatementCounter.open();
+        try {
+            return call.proceed();
+        } finally {
+            tally.close();
+            String operation = budget.operation().isEmpty() ? call.getSignature().getName() : budget.operation();
+            int count = tally.count();
+            DistributionSummary.builder("game.operations.sql")
+                    .description("SQL statements issued per game operation")
+                    .baseUnit("statements")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .record(count);
+            if (warn && count > budget.value()) {
+                log.warn("{} issued {} SQL statements, budget is {}", operation, count, budget.value());
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.mete.battleship.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements Hibernate prepares on behalf of the current unit of work.
+ * A {@link Tally} is opened per HTTP request by {@link SqlStatementMetricsFilter}; work
+ * handed to another thread (the game command lanes) keeps counting into the caller's
+ * tally through {@link #callWith}. Statements issued outside any tally are ignored, as
+ * are statements that bypass Hibernate ({@code JdbcTemplate}).
+ * <p>
+ * Hibernate instantiates the inspector itself from
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}, so the
+ * state lives in a static thread-local.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Tally tally = CURRENT.get();
+        if (tally != null) tally.count.incrementAndGet();
+        return sql;
+    }
+
+    /**
+     * Starts counting on this thread; close the returned tally to stop.
+     */
+    public static Tally open() {
+        Tally tally = new Tally(CURRENT.get());
+        CURRENT.set(tally);
+        return tally;
+    }
+
+    /**
+     * The tally statements on this thread currently count into, or null.
+     */
+    public static Tally current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs work on this thread counting into a tally opened elsewhere.
+     */
+    public static <T> T callWith(Tally tally, Supplier<T> work) {
+        if (tally == null) return work.get();
+        Tally previous = CURRENT.get();
+        CURRENT.set(tally);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(Tally previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+    public static final class Tally implements AutoCloseable {
+        private final Tally parent;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Tally(Tally parent) {
+            this.parent = parent;
+        }
+
+        public int count() {
+            return count.get();
+        }
+
+        /**
+         * Stops counting; statements seen here also count toward the enclosing tally.
+         */
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) restore(parent);
+            if (parent != null) parent.count.addAndGet(count.get());
+        }
+    }
+}
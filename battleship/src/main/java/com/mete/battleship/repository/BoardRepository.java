@@ -2,7 +2,11 @@ package com.mete.battleship.repository;
 
 import com.mete.battleship.entity.Board;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BoardRepository extends JpaRepository<Board,Long> {
@@ -10,4 +14,9 @@ public interface BoardRepository extends JpaRepository<Board,Long> {
     boolean existsByGameIdAndOwnerUserId(Long gameId, Long ownerUserId);
     Board findByGameIdAndOwnerUserId(Long gameId, Long ownerUserId);
     List<Board> findByGameId(Long gameId);
+    List<Board> findByGameIdIn(Collection<Long> gameIds);
+
+    @Modifying
+    @Query("delete from Board b where b.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
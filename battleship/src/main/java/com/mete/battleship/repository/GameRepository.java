@@ -2,12 +2,54 @@ package com.mete.battleship.repository;
 
 import com.mete.battleship.entity.Game;
 import com.mete.battleship.entity.GameStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface GameRepository extends JpaRepository<Game,Long> {
-    List<Game> findAllByOrderByCreatedAtDesc();
-    List<Game> findByStatusOrderByCreatedAtDesc(GameStatus status);
-    List<Game> findByStatusAndPlayer2IdIsNullOrderByCreatedAtDesc(GameStatus status);
+    // Keyset pages, newest first; (created_at, id) is unique so no row is skipped or repeated
+    @Query("select g from Game g order by g.createdAt desc, g.id desc")
+    List<Game> findFirstPage(Limit limit);
+
+    @Query("select g from Game g where g.createdAt < :createdAt or (g.createdAt = :createdAt and g.id < :id) order by g.createdAt desc, g.id desc")
+    List<Game> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Finished games created in [from, to), oldest first, in keyset pages for replay exports
+    @Query("select g from Game g where g.status = com.mete.battleship.entity.GameStatus.FINISHED and g.createdAt >= :from and g.createdAt < :to order by g.createdAt, g.id")
+    List<Game> findFinishedFirstPage(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Limit limit);
+
+    @Query("select g from Game g where g.status = com.mete.battleship.entity.GameStatus.FINISHED and g.createdAt < :to and (g.createdAt > :createdAt or (g.createdAt = :createdAt and g.id > :id)) order by g.createdAt, g.id")
+    List<Game> findFinishedPageAfter(@Param("to") LocalDateTime to, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    List<Game> findByStatusAndPlayer2IdIsNull(GameStatus status);
+
+    List<Game> findByStatusAndCurrentTurnUserIdIn(GameStatus status, Collection<Long> currentTurnUserIds);
+
+    // Rows of [GameStatus, Long]
+    @Query("select g.status, count(g) from Game g group by g.status")
+    List<Object[]> countByStatus();
+
+    // A negative version (journal entries written before versions existed) just bumps the stored one
+    @Modifying
+    @Query("update Game g set g.status = :status, g.currentTurnUserId = :turn, g.winnerUserId = :winner, g.stateVersion = case when :version < 0 then g.stateVersion + 1 else :version end where g.id = :id")
+    int updateState(@Param("id") Long id, @Param("status") GameStatus status, @Param("turn") Long currentTurnUserId, @Param("winner") Long winnerUserId, @Param("version") long stateVersion);
+
+    // Applies logged events up to seq; 0 rows means they were projected already
+    @Modifying
+    @Query("update Game g set g.status = :status, g.currentTurnUserId = :turn, g.winnerUserId = :winner, g.stateVersion = :version, g.projectedSeq = :seq where g.id = :id and g.projectedSeq < :seq")
+    int updateProjection(@Param("id") Long id, @Param("status") GameStatus status, @Param("turn") Long currentTurnUserId, @Param("winner") Long winnerUserId, @Param("version") long stateVersion, @Param("seq") int seq);
+
+    // Finished, unarchived games last updated before the cutoff, by id after a keyset cursor
+    @Query("select g.id from Game g where g.status = com.mete.battleship.entity.GameStatus.FINISHED and g.archived = false and g.updatedAt < :cutoff and g.id > :afterId order by g.id")
+    List<Long> findArchivable(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("update Game g set g.archived = true where g.id in :ids")
+    int markArchived(@Param("ids") Collection<Long> ids);
 }
@@ -3,12 +3,49 @@ package com.mete.battleship.repository;
 import com.mete.battleship.entity.Ship;
 import com.mete.battleship.entity.ShipType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 
 public interface ShipRepository extends JpaRepository<Ship, Long> {
     long countByBoardId(Long boardId);
+
+    long countByBoardIdAndSunkFalse(Long boardId);
     boolean existsByBoardIdAndType(Long boardId, ShipType type);
     List<Ship> findByBoardId(Long boardId);
+    List<Ship> findByBoardIdInOrderByIdAsc(Collection<Long> boardIds);
+
+    // Ships and shots of one board in a single round trip, ships first:
+    // [kind(0=ship,1=shot), ship id, type, row, col, orientation]
+    @Query(value = "SELECT 0 AS kind, s.id, s.type, s.start_row, s.start_col, s.orientation FROM ships s WHERE s.board_id = :boardId " +
+            "UNION ALL " +
+            "SELECT 1 AS kind, NULL, NULL, t.`row`, t.`col`, NULL FROM shots t WHERE t.board_id = :boardId " +
+            "ORDER BY 1", nativeQuery = true)
+    List<Object[]> findBoardCells(@Param("boardId") Long boardId);
+
+    // Same cells for every board of a game, tagged with their board:
+    // [kind(0=ship,1=shot), board id, ship id, type, row, col, orientation]
+    @Query(value = "SELECT 0 AS kind, s.board_id, s.id, s.type, s.start_row, s.start_col, s.orientation FROM ships s " +
+            "JOIN boards b ON b.id = s.board_id WHERE b.game_id = :gameId " +
+            "UNION ALL " +
+            "SELECT 1 AS kind, t.board_id, NULL, NULL, t.`row`, t.`col`, NULL FROM shots t " +
+            "JOIN boards b ON b.id = t.board_id WHERE b.game_id = :gameId " +
+            "ORDER BY 1", nativeQuery = true)
+    List<Object[]> findGameCells(@Param("gameId") Long gameId);
+
+    @Modifying
+    @Query("update Ship s set s.sunk = true where s.id = :id")
+    int markSunk(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Ship s set s.sunk = true where s.id in :ids")
+    int markAllSunk(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Ship s where s.boardId in :boardIds")
+    int deleteByBoardIdIn(@Param("boardIds") Collection<Long> boardIds);
 }
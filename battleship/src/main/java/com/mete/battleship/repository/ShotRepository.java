@@ -2,11 +2,21 @@ package com.mete.battleship.repository;
 
 import com.mete.battleship.entity.Shot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ShotRepository extends JpaRepository<Shot, Long> {
     boolean existsByBoardIdAndRowAndCol(Long boardId, Integer row, Integer col);
-    List<Shot> findByBoardId(Long boardId);
+    // Insertion order; shot feeds address shots by their position in this list
+    List<Shot> findByBoardIdOrderByIdAsc(Long boardId);
+    List<Shot> findByBoardIdInOrderByIdAsc(Collection<Long> boardIds);
+
+    @Modifying
+    @Query("delete from Shot s where s.boardId in :boardIds")
+    int deleteByBoardIdIn(@Param("boardIds") Collection<Long> boardIds);
 }
 
@@ -13,10 +13,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.regex.Pattern;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    // The only endpoints whose clients cannot send headers: the SSE stream and the game socket
+    private static final Pattern QUERY_TOKEN_PATHS = Pattern.compile("(/api)?/(games/\\d+/events|ws/games/\\d+)");
+
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
 
@@ -28,22 +32,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain chain)
             throws ServletException, IOException {
-        final String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            chain.doFilter(request, response);
-            return;
-        }
-        String jwt = authHeader.substring(7);
-        String username;
-        try {
-            username = jwtService.extractUsername(jwt);
-        } catch (Exception e) {
+        String jwt = resolveToken(request);
+        if (jwt == null) {
             chain.doFilter(request, response);
             return;
         }
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            CustomUserDetails principal = jwtService.authenticate(jwt);
+            if (principal != null) {
+                UserDetails userDetails = principal.getId() != null
+                        ? principal
+                        : userDetailsService.loadUserByUsername(principal.getUsername()); // token predates the uid claim
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -52,4 +51,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+
+    private String resolveToken(HttpServletRequest request) {
+        final String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        // EventSource and browser WebSockets cannot send headers, so they may pass the token as a query parameter.
+        // Query strings end up in access logs, so this is limited to those two endpoints.
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("GET".equals(request.getMethod()) && QUERY_TOKEN_PATHS.matcher(path).matches()) {
+            String param = request.getParameter("access_token");
+            if (param != null && !param.isBlank()) return param;
+        }
+        return null;
+    }
 }
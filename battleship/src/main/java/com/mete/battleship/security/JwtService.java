@@ -3,7 +3,10 @@ package com.mete.battleship.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
@@ -16,6 +19,9 @@ import java.util.Map;
 
 @Service
 public class JwtService {
+    public static final String TOKEN_CACHE = "verifiedTokens";
+
+    private record Verified(CustomUserDetails principal, long expiresAtMs) {}
 
     @Value("${app.jwt.secret}")
     private String secret;
@@ -23,6 +29,26 @@ public class JwtService {
     @Value("${app.jwt.expirationMs:86400000}") // 1 day default
     private long expirationMs;
 
+    @Value("${app.jwt.token-cache.enabled:false}")
+    private boolean tokenCacheEnabled;
+
+    private final CacheManager cacheManager;
+    private Key signingKey;
+    private JwtParser parser;
+    private Cache tokenCache;
+
+    public JwtService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @PostConstruct
+    void init() {
+        // Key derivation and parser setup are too costly to repeat per request; both are immutable
+        signingKey = Keys.hmacShaKeyFor(keyBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        tokenCache = tokenCacheEnabled ? cacheManager.getCache(TOKEN_CACHE) : null;
+    }
+
     private byte[] keyBytes() {
         // Try Base64 first
         try {
@@ -46,14 +72,6 @@ public class JwtService {
         }
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(keyBytes());
-    }
-
-    public String extractUsername(String token) {
-        return parseClaims(token).getBody().getSubject();
-    }
-
     public String generateToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         if (userId != null) claims.put("uid", userId);
@@ -63,22 +81,38 @@ public class JwtService {
                 .setSubject(username)
                 .setIssuedAt(new Date(now))
                 .setExpiration(new Date(now + expirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, String username) {
+    /**
+     * Verifies the token once and builds the principal from its claims without touching the
+     * database. Returns null for invalid or expired tokens. Tokens issued without a {@code uid}
+     * claim yield a principal with a null id; callers resolve those by username.
+     */
+    public CustomUserDetails authenticate(String token) {
+        long now = System.currentTimeMillis();
+        if (tokenCache != null) {
+            Verified cached = tokenCache.get(token, Verified.class);
+            if (cached != null) {
+                return cached.expiresAtMs() > now ? cached.principal() : null;
+            }
+        }
+        Claims claims;
         try {
-            Claims claims = parseClaims(token).getBody();
-            String sub = claims.getSubject();
-            Date exp = claims.getExpiration();
-            return sub != null && sub.equals(username) && exp != null && exp.after(new Date());
+            claims = parseClaims(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
+        String sub = claims.getSubject();
+        Date exp = claims.getExpiration();
+        if (sub == null || exp == null || !exp.after(new Date(now))) return null;
+        CustomUserDetails principal = new CustomUserDetails(claims.get("uid", Long.class), sub, null);
+        if (tokenCache != null) tokenCache.put(token, new Verified(principal, exp.getTime()));
+        return principal;
     }
 
     private Jws<Claims> parseClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
     }
 }
@@ -0,0 +1,235 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.PlaceShipRequest;
+import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.dto.ShotEvent;
+import com.mete.battleship.engine.BoardState;
+import com.mete.battleship.engine.Fleet;
+import com.mete.battleship.engine.RandomPlacement;
+import com.mete.battleship.engine.TargetingEngine;
+import com.mete.battleship.engine.TargetingEngine.Difficulty;
+import com.mete.battleship.entity.Board;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameMode;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.entity.User;
+import com.mete.battleship.repository.GameRepository;
+import com.mete.battleship.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-player games against a server-side bot. The bot is an ordinary user
+ * ({@code bot-easy}, {@code bot-medium}, {@code bot-hard}) that joins as player 2, places a
+ * random fleet and, whenever a committed change leaves it on turn, queues its move on the
+ * game's lane. Moves go through the same services as human shots.
+ * <p>
+ * Queued moves are not durable: a move dropped by a full lane or lost in a restart is picked
+ * up by a sweep every {@code app.game.bot.sweep-ms}, which queues a move for every game
+ * where a bot is on turn.
+ */
+@Service
+public class BotService {
+    private static final Logger log = LoggerFactory.getLogger(BotService.class);
+    static final String USERNAME_PREFIX = "bot-";
+
+    // Engines keep their buffers between moves; lanes are long-lived threads
+    private static final ThreadLocal<TargetingEngine> ENGINES = ThreadLocal.withInitial(TargetingEngine::new);
+
+    private final GameService gameService;
+    private final LiveGameService liveGameService;
+    private final GameCommandExecutor commandExecutor;
+    private final UserRepository userRepository;
+    private final GameRepository gameRepository;
+    private final Map<Difficulty, Timer> moveTimers = new EnumMap<>(Difficulty.class);
+    private volatile Map<Long, Difficulty> bots;
+
+    @Value("${app.game.bot.sweep-ms:30000}")
+    private long sweepMs;
+
+    private ScheduledExecutorService sweeper;
+
+    public BotService(GameService gameService, LiveGameService liveGameService, GameCommandExecutor commandExecutor,
+                      UserRepository userRepository, GameRepository gameRepository, MeterRegistry meterRegistry) {
+        this.gameService = gameService;
+        this.liveGameService = liveGameService;
+        this.commandExecutor = commandExecutor;
+        this.userRepository = userRepository;
+        this.gameRepository = gameRepository;
+        for (Difficulty d : Difficulty.values()) {
+            moveTimers.put(d, Timer.builder("game.bot.moves")
+                    .description("Time the targeting engine spends choosing a bot's shots")
+                    .tag("difficulty", d.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (sweepMs <= 0) return;
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bot-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::resumeQuietly, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    private void resumeQuietly() {
+        try {
+            resumeStalledTurns();
+        } catch (Exception e) {
+            log.error("Bot sweep failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queues a move for every game in progress where a bot is on turn; returns how many.
+     * Harmless for games whose move is already queued, since {@link #play} re-checks the turn.
+     */
+    public int resumeStalledTurns() {
+        Map<Long, Difficulty> known = bots();
+        if (known.isEmpty()) return 0;
+        List<Game> games = gameRepository.findByStatusAndCurrentTurnUserIdIn(GameStatus.IN_PROGRESS, known.keySet());
+        for (Game g : games) {
+            Long gameId = g.getId();
+            Long botId = g.getCurrentTurnUserId();
+            commandExecutor.submit(gameId, () -> play(gameId, botId, known.get(botId)));
+        }
+        if (!games.isEmpty()) log.info("Bot sweep queued moves for {} games", games.size());
+        return games.size();
+    }
+
+    /**
+     * Creates a game for the user with the bot already joined and its ships placed.
+     */
+    public GameSummary startGame(Long userId, Difficulty difficulty, GameMode mode, Integer size, String fleet) {
+        if (size != null && size > TargetingEngine.MAX_SIZE) {
+            throw new IllegalArgumentException("Bot games support boards up to " + TargetingEngine.MAX_SIZE + "x" + TargetingEngine.MAX_SIZE);
+        }
+        Long botId = botId(difficulty);
+        Game game = gameService.createUnlistedGame(userId, mode, size, fleet);
+        Long gameId = game.getId();
+        return commandExecutor.call(gameId, () -> {
+            Game joined = gameService.joinGame(gameId, botId);
+            Board own = boardOf(gameId, botId);
+            List<PlaceShipRequest> ships = new ArrayList<>();
+            RandomPlacement.place(new BoardState(joined.getBoardSize()), Fleet.parse(joined.getFleet()),
+                    ThreadLocalRandom.current(), (type, row, col, orientation) -> {
+                        PlaceShipRequest r = new PlaceShipRequest();
+                        r.setType(type);
+                        r.setStartRow(row);
+                        r.setStartCol(col);
+                        r.setOrientation(orientation);
+                        ships.add(r);
+                    });
+            GameSummary summary = gameService.placeShips(own.getId(), botId, ships);
+            log.info("Bot {} joined game {} for user {}", difficulty, gameId, userId);
+            return summary;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameEvent(GameEvent event) {
+        GameSummary summary = event.payload() instanceof ShotEvent shot ? shot.getGame()
+                : event.payload() instanceof GameSummary game ? game : null;
+        if (summary == null || !GameStatus.IN_PROGRESS.name().equals(summary.getStatus())) return;
+        Long botId = summary.getCurrentTurnUserId();
+        if (botId == null) return;
+        Difficulty difficulty = bots().get(botId);
+        if (difficulty == null) return;
+        // Not inline: the triggering command is still finishing on this lane. A move dropped
+        // here (lane full) is queued again by the next sweep.
+        commandExecutor.submit(event.gameId(), () -> play(event.gameId(), botId, difficulty));
+    }
+
+    /**
+     * Fires the bot's turn if it is still on turn. Call on the game's lane.
+     */
+    void play(Long gameId, Long botId, Difficulty difficulty) {
+        GameSummary summary = gameService.getGameSummary(gameId);
+        if (!GameStatus.IN_PROGRESS.name().equals(summary.getStatus()) || !botId.equals(summary.getCurrentTurnUserId())) {
+            return; // a salvo raises one event per shot; only the first of them plays
+        }
+        Long opponentId = botId.equals(summary.getPlayer1Id()) ? summary.getPlayer2Id() : summary.getPlayer1Id();
+        Board target = boardOf(gameId, opponentId);
+        int size = GameService.sizeOf(target);
+        List<Shot> shots = gameService.listShots(target.getId());
+        int count = GameMode.SALVO.name().equals(summary.getMode())
+                ? (int) Math.min(liveGameService.salvoSize(gameId, botId), (long) size * size - shots.size())
+                : 1;
+
+        long start = System.nanoTime();
+        TargetingEngine engine = ENGINES.get();
+        engine.reset(size, Fleet.parse(summary.getFleet()));
+        for (Shot s : shots) {
+            switch (s.getResult()) {
+                case MISS -> engine.miss(s.getRow(), s.getCol());
+                case HIT -> engine.hit(s.getRow(), s.getCol());
+                case SUNK -> engine.sunk(s.getRow(), s.getCol(), s.getSunkShipType());
+            }
+        }
+        List<ShootRequest> cells = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int cell = engine.nextCell(difficulty, ThreadLocalRandom.current());
+            ShootRequest r = new ShootRequest();
+            r.setRow(cell / size);
+            r.setCol(cell % size);
+            cells.add(r);
+        }
+        moveTimers.get(difficulty).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (GameMode.SALVO.name().equals(summary.getMode())) {
+            liveGameService.fireSalvo(gameId, botId, cells);
+        } else {
+            liveGameService.fireShot(gameId, botId, cells.get(0));
+        }
+        log.debug("Bot {} fired {} shot(s) in game {}", difficulty, count, gameId);
+    }
+
+    private Board boardOf(Long gameId, Long ownerUserId) {
+        for (Board b : gameService.listBoards(gameId)) {
+            if (b.getOwnerUserId().equals(ownerUserId)) return b;
+        }
+        throw new RuntimeException("Board not found");
+    }
+
+    Long botId(Difficulty difficulty) {
+        for (Map.Entry<Long, Difficulty> e : bots().entrySet()) {
+            if (e.getValue() == difficulty) return e.getKey();
+        }
+        throw new RuntimeException("Bot player not available: " + difficulty);
+    }
+
+    private Map<Long, Difficulty> bots() {
+        Map<Long, Difficulty> loaded = bots;
+        if (loaded != null) return loaded;
+        Map<Long, Difficulty> found = new HashMap<>();
+        for (Difficulty d : Difficulty.values()) {
+            Optional<User> user = userRepository.findByUsername(USERNAME_PREFIX + d.name().toLowerCase(Locale.ROOT));
+            user.ifPresent(u -> found.put(u.getId(), d));
+        }
+        bots = found;
+        return found;
+    }
+}
@@ -0,0 +1,255 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.entity.Board;
+import com.mete.battleship.entity.Ship;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.repository.BoardRepository;
+import com.mete.battleship.repository.GameRepository;
+import com.mete.battleship.repository.ShipRepository;
+import com.mete.battleship.repository.ShotRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves finished games out of the live tables. Games finished longer than {@code min-age-hours}
+ * ago are encoded with {@link GameArchiveCodec} into {@code game_archives}, and their shots,
+ * ships, boards and event log ({@code game_events}, {@code game_snapshots}) deleted,
+ * {@code batch-games} games per transaction: a reader sees each game either in the live
+ * tables or in the archive, and no transaction locks more than one batch. Games with logged
+ * events not yet projected into the tables wait for a later run.
+ * <p>
+ * Reads fall back to the archive when the live tables hold nothing for a board or game, so
+ * archived games are served by the usual endpoints, decoded on demand.
+ */
+@Component
+public class GameArchive {
+    private static final Logger log = LoggerFactory.getLogger(GameArchive.class);
+
+    private final JdbcTemplate jdbc;
+    private final GameRepository gameRepository;
+    private final BoardRepository boardRepository;
+    private final ShipRepository shipRepository;
+    private final ShotRepository shotRepository;
+    private final LiveGameStore liveGameStore;
+    private final TransactionTemplate tx;
+
+    @Value("${app.game.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.game.archive.min-age-hours:720}")
+    private long minAgeHours;
+
+    @Value("${app.game.archive.interval-ms:3600000}")
+    private long intervalMs;
+
+    @Value("${app.game.archive.batch-games:50}")
+    private int batchGames;
+
+    private ScheduledExecutorService archiver;
+
+    public GameArchive(JdbcTemplate jdbc, GameRepository gameRepository, BoardRepository boardRepository, ShipRepository shipRepository,
+                       ShotRepository shotRepository, LiveGameStore liveGameStore, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.gameRepository = gameRepository;
+        this.boardRepository = boardRepository;
+        this.shipRepository = shipRepository;
+        this.shotRepository = shotRepository;
+        this.liveGameStore = liveGameStore;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        if (batchGames < 1) throw new IllegalStateException("app.game.archive.batch-games must be positive");
+        archiver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        archiver.scheduleWithFixedDelay(this::archiveQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Game archiving enabled: minAge={}h, interval={}ms, batch={} games", minAgeHours, intervalMs, batchGames);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (archiver != null) archiver.shutdownNow();
+    }
+
+    private void archiveQuietly() {
+        try {
+            archiveDue();
+        } catch (Exception e) {
+            log.error("Game archiving failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archives every finished game last updated before the configured age; returns how many.
+     */
+    public int archiveDue() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(minAgeHours);
+        long start = System.nanoTime();
+        int archived = 0;
+        long afterId = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> ids = gameRepository.findArchivable(cutoff, afterId, Limit.of(batchGames));
+            if (ids.isEmpty()) break;
+            Integer done = tx.execute(status -> archive(ids));
+            archived += done != null ? done : 0;
+            if (ids.size() < batchGames) break;
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (archived > 0) {
+            log.info("Archived {} games finished before {} in {}ms", archived, cutoff, (System.nanoTime() - start) / 1_000_000);
+        }
+        return archived;
+    }
+
+    // One batch, inside the caller's transaction
+    private int archive(List<Long> gameIds) {
+        List<Board> boards = boardRepository.findByGameIdIn(gameIds);
+        Map<Long, List<Board>> boardsByGame = new HashMap<>();
+        Map<Long, Long> gameByBoard = new HashMap<>();
+        for (Board b : boards) {
+            boardsByGame.computeIfAbsent(b.getGameId(), k -> new ArrayList<>()).add(b);
+            gameByBoard.put(b.getId(), b.getGameId());
+        }
+        Map<Long, List<Ship>> shipsByGame = new HashMap<>();
+        Map<Long, List<Shot>> shotsByGame = new HashMap<>();
+        if (!gameByBoard.isEmpty()) {
+            for (Ship s : shipRepository.findByBoardIdInOrderByIdAsc(gameByBoard.keySet())) {
+                shipsByGame.computeIfAbsent(gameByBoard.get(s.getBoardId()), k -> new ArrayList<>()).add(s);
+            }
+            for (Shot s : shotRepository.findByBoardIdInOrderByIdAsc(gameByBoard.keySet())) {
+                shotsByGame.computeIfAbsent(gameByBoard.get(s.getBoardId()), k -> new ArrayList<>()).add(s);
+            }
+        }
+
+        Set<Long> unprojected = new HashSet<>(jdbc.queryForList(
+                "SELECT DISTINCT e.game_id FROM game_events e JOIN games g ON g.id = e.game_id WHERE e.seq > g.projected_seq AND e.game_id IN ("
+                        + String.join(",", Collections.nCopies(gameIds.size(), "?")) + ")",
+                Long.class, gameIds.toArray()));
+
+        List<Long> archivedGames = new ArrayList<>();
+        List<Long> archivedBoards = new ArrayList<>();
+        List<Object[]> archiveRows = new ArrayList<>();
+        List<Object[]> boardRows = new ArrayList<>();
+        for (Long gameId : gameIds) {
+            // Held in memory by a live game; archived on a later run once evicted
+            if (liveGameStore.find(gameId) != null || unprojected.contains(gameId)) continue;
+            List<Board> own = boardsByGame.getOrDefault(gameId, List.of());
+            byte[] data;
+            try {
+                data = GameArchiveCodec.encode(own, shipsByGame.getOrDefault(gameId, List.of()), shotsByGame.getOrDefault(gameId, List.of()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Game {} left unarchived: {}", gameId, e.getMessage());
+                continue;
+            }
+            archivedGames.add(gameId);
+            archiveRows.add(new Object[]{gameId, GameArchiveCodec.FORMAT, data});
+            for (Board b : own) {
+                archivedBoards.add(b.getId());
+                boardRows.add(new Object[]{b.getId(), gameId});
+            }
+        }
+        if (archivedGames.isEmpty()) return 0;
+
+        jdbc.batchUpdate("INSERT INTO game_archives (game_id, format_version, payload) VALUES (?, ?, ?)", archiveRows);
+        if (!archivedBoards.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO archived_boards (board_id, game_id) VALUES (?, ?)", boardRows);
+            shotRepository.deleteByBoardIdIn(archivedBoards);
+            shipRepository.deleteByBoardIdIn(archivedBoards);
+            boardRepository.deleteByIdIn(archivedBoards);
+        }
+        // The log would otherwise fold the game back without its boards
+        List<Object[]> gameRows = archivedGames.stream().map(id -> new Object[]{id}).toList();
+        jdbc.batchUpdate("DELETE FROM game_snapshots WHERE game_id = ?", gameRows);
+        jdbc.batchUpdate("DELETE FROM game_events WHERE game_id = ?", gameRows);
+        gameRepository.markArchived(archivedGames);
+        return archivedGames.size();
+    }
+
+    /**
+     * The archived game, or null if it is not archived.
+     */
+    GameArchiveCodec.Archived load(Long gameId) {
+        List<byte[]> data = jdbc.query("SELECT payload FROM game_archives WHERE game_id = ?", (rs, i) -> rs.getBytes(1), gameId);
+        return data.isEmpty() ? null : GameArchiveCodec.decode(gameId, data.get(0));
+    }
+
+    private GameArchiveCodec.Archived loadByBoard(Long boardId) {
+        List<Long> gameIds = jdbc.queryForList("SELECT game_id FROM archived_boards WHERE board_id = ?", Long.class, boardId);
+        return gameIds.isEmpty() ? null : load(gameIds.get(0));
+    }
+
+    public Optional<Board> board(Long boardId) {
+        GameArchiveCodec.Archived game = loadByBoard(boardId);
+        if (game == null) return Optional.empty();
+        return game.boards().stream().filter(b -> b.getId().equals(boardId)).findFirst();
+    }
+
+    /**
+     * The game's boards, or an empty list if it is not archived.
+     */
+    public List<Board> boards(Long gameId) {
+        GameArchiveCodec.Archived game = load(gameId);
+        return game != null ? game.boards() : List.of();
+    }
+
+    public List<Ship> ships(Long boardId) {
+        GameArchiveCodec.Archived game = loadByBoard(boardId);
+        return game != null ? game.shipsOf(boardId) : List.of();
+    }
+
+    public List<Shot> shots(Long boardId) {
+        GameArchiveCodec.Archived game = loadByBoard(boardId);
+        return game != null ? game.shotsOf(boardId) : List.of();
+    }
+
+    /**
+     * Rows shaped like {@link ShipRepository#findBoardCells}.
+     */
+    public List<Object[]> boardCells(Long boardId) {
+        GameArchiveCodec.Archived game = loadByBoard(boardId);
+        if (game == null) return List.of();
+        List<Object[]> rows = new ArrayList<>();
+        for (Ship s : game.shipsOf(boardId)) {
+            rows.add(new Object[]{0, s.getId(), s.getType().name(), s.getStartRow(), s.getStartCol(), s.getOrientation().name()});
+        }
+        for (Shot s : game.shotsOf(boardId)) {
+            rows.add(new Object[]{1, null, null, s.getRow(), s.getCol(), null});
+        }
+        return rows;
+    }
+
+    /**
+     * Rows shaped like {@link ShipRepository#findGameCells}.
+     */
+    public List<Object[]> gameCells(Long gameId) {
+        GameArchiveCodec.Archived game = load(gameId);
+        if (game == null) return List.of();
+        List<Object[]> rows = new ArrayList<>();
+        for (Ship s : game.ships()) {
+            rows.add(new Object[]{0, s.getBoardId(), s.getId(), s.getType().name(), s.getStartRow(), s.getStartCol(), s.getOrientation().name()});
+        }
+        for (Shot s : game.shots()) {
+            rows.add(new Object[]{1, s.getBoardId(), null, null, s.getRow(), s.getCol(), null});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,264 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.engine.BoardState;
+import com.mete.battleship.entity.Board;
+import com.mete.battleship.entity.Orientation;
+import com.mete.battleship.entity.Ship;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.entity.ShotResult;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Binary form of a finished game's boards, ships and shots. Numbers are unsigned LEB128
+ * varints; ids, cells and timestamps are stored as zigzag deltas from the previous value, so
+ * a typical shot takes three bytes. Per board:
+ * <pre>
+ *   board id, owner, size, created_at, ship count,
+ *     per ship: id, cell (row * size + col), type &lt;&lt; 2 | orientation &lt;&lt; 1 | sunk
+ *   shot count, shooter (if any shots),
+ *     per shot in id order: id, cell delta &lt;&lt; 2 | result, created_at
+ * </pre>
+ * The shooter and target of every shot follow from the board, and the sunk ship type from
+ * the ship covering the cell. Timestamps keep whole seconds; 0 encodes null.
+ */
+final class GameArchiveCodec {
+    static final int FORMAT = 1;
+
+    record Archived(List<Board> boards, List<Ship> ships, List<Shot> shots) {
+        List<Ship> shipsOf(Long boardId) {
+            return ships.stream().filter(s -> s.getBoardId().equals(boardId)).toList();
+        }
+
+        List<Shot> shotsOf(Long boardId) {
+            return shots.stream().filter(s -> s.getBoardId().equals(boardId)).toList();
+        }
+    }
+
+    private GameArchiveCodec() {}
+
+    /**
+     * Throws IllegalArgumentException for data the format cannot represent exactly, such as
+     * shots on one board by two different players.
+     */
+    static byte[] encode(List<Board> boards, List<Ship> ships, List<Shot> shots) {
+        Out out = new Out(64 + ships.size() * 4 + shots.size() * 3);
+        out.varint(FORMAT);
+        List<Board> sorted = new ArrayList<>(boards);
+        sorted.sort(Comparator.comparing(Board::getId));
+        out.varint(sorted.size());
+        long prevBoard = 0;
+        long prevShip = 0;
+        long prevShot = 0;
+        long[] prevTime = {0};
+        for (Board b : sorted) {
+            int size = GameService.sizeOf(b);
+            out.zigzag(b.getId() - prevBoard);
+            prevBoard = b.getId();
+            out.varint(b.getOwnerUserId());
+            out.varint(size);
+            out.time(b.getCreatedAt(), prevTime);
+
+            List<Ship> own = ships.stream().filter(s -> s.getBoardId().equals(b.getId()))
+                    .sorted(Comparator.comparing(Ship::getId)).toList();
+            out.varint(own.size());
+            for (Ship s : own) {
+                out.zigzag(s.getId() - prevShip);
+                prevShip = s.getId();
+                out.varint(cell(s.getStartRow(), s.getStartCol(), size));
+                out.varint(s.getType().ordinal() << 2 | s.getOrientation().ordinal() << 1 | (Boolean.TRUE.equals(s.getSunk()) ? 1 : 0));
+            }
+
+            List<Shot> fired = shots.stream().filter(s -> s.getBoardId().equals(b.getId()))
+                    .sorted(Comparator.comparing(Shot::getId)).toList();
+            out.varint(fired.size());
+            if (fired.isEmpty()) continue;
+            Long shooter = fired.get(0).getShooterUserId();
+            out.varint(shooter);
+            long prevCell = 0;
+            for (Shot s : fired) {
+                if (!Objects.equals(s.getShooterUserId(), shooter) || !Objects.equals(s.getTargetUserId(), b.getOwnerUserId())) {
+                    throw new IllegalArgumentException("Board " + b.getId() + " has shots from more than one player");
+                }
+                out.zigzag(s.getId() - prevShot);
+                prevShot = s.getId();
+                long c = cell(s.getRow(), s.getCol(), size);
+                out.varint(zigzag(c - prevCell) << 2 | s.getResult().ordinal());
+                prevCell = c;
+                out.time(s.getCreatedAt(), prevTime);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static Archived decode(Long gameId, byte[] data) {
+        In in = new In(data);
+        int format = (int) in.varint();
+        if (format != FORMAT) throw new IllegalStateException("Unknown archive format " + format + " for game " + gameId);
+        ShipType[] types = ShipType.values();
+        Orientation[] orientations = Orientation.values();
+        ShotResult[] results = ShotResult.values();
+        int boardCount = (int) in.varint();
+        List<Board> boards = new ArrayList<>(boardCount);
+        List<Ship> ships = new ArrayList<>();
+        List<Shot> shots = new ArrayList<>();
+        long boardId = 0;
+        long shipId = 0;
+        long shotId = 0;
+        long[] prevTime = {0};
+        for (int i = 0; i < boardCount; i++) {
+            Board b = new Board();
+            boardId += in.zigzag();
+            b.setId(boardId);
+            b.setGameId(gameId);
+            b.setOwnerUserId(in.varint());
+            int size = (int) in.varint();
+            b.setSize(size);
+            b.setCreatedAt(in.time(prevTime));
+            boards.add(b);
+
+            // Only used to find the ship a SUNK shot sank
+            BoardState state = new BoardState(size);
+            int shipCount = (int) in.varint();
+            for (int j = 0; j < shipCount; j++) {
+                Ship s = new Ship();
+                shipId += in.zigzag();
+                s.setId(shipId);
+                s.setBoardId(boardId);
+                long c = in.varint();
+                int bits = (int) in.varint();
+                ShipType type = types[bits >>> 2];
+                s.setType(type);
+                s.setLength(type.getLength());
+                s.setStartRow((int) (c / size));
+                s.setStartCol((int) (c % size));
+                s.setOrientation(orientations[(bits >>> 1) & 1]);
+                s.setSunk((bits & 1) == 1);
+                state.addShip(shipId, type, s.getStartRow(), s.getStartCol(), s.getOrientation());
+                ships.add(s);
+            }
+
+            int shotCount = (int) in.varint();
+            if (shotCount == 0) continue;
+            Long shooter = in.varint();
+            long prevCell = 0;
+            for (int j = 0; j < shotCount; j++) {
+                Shot s = new Shot();
+                shotId += in.zigzag();
+                s.setId(shotId);
+                s.setBoardId(boardId);
+                s.setShooterUserId(shooter);
+                s.setTargetUserId(b.getOwnerUserId());
+                long token = in.varint();
+                long c = prevCell + unzigzag(token >>> 2);
+                prevCell = c;
+                int row = (int) (c / size);
+                int col = (int) (c % size);
+                s.setRow(row);
+                s.setCol(col);
+                ShotResult result = results[(int) (token & 3)];
+                s.setResult(result);
+                int hit = state.shipAt(row, col);
+                if (result == ShotResult.SUNK && hit >= 0) s.setSunkShipType(state.getShipType(hit));
+                s.setCreatedAt(in.time(prevTime));
+                shots.add(s);
+            }
+        }
+        return new Archived(boards, ships, shots);
+    }
+
+    private static long cell(int row, int col, int size) {
+        return (long) row * size + col;
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static final class Out {
+        private byte[] buf;
+        private int len;
+
+        Out(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void varint(long v) {
+            if (v < 0) throw new IllegalArgumentException("Negative value " + v);
+            raw(v);
+        }
+
+        void zigzag(long delta) {
+            raw(GameArchiveCodec.zigzag(delta));
+        }
+
+        // Unsigned: zigzagged values may use the sign bit
+        private void raw(long v) {
+            while (true) {
+                if (len == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+                if ((v & ~0x7FL) == 0) {
+                    buf[len++] = (byte) v;
+                    return;
+                }
+                buf[len++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+        }
+
+        void time(LocalDateTime t, long[] prev) {
+            if (t == null) {
+                varint(0);
+                return;
+            }
+            long seconds = t.toEpochSecond(ZoneOffset.UTC);
+            raw(GameArchiveCodec.zigzag(seconds - prev[0]) + 1);
+            prev[0] = seconds;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, len);
+        }
+    }
+
+    private static final class In {
+        private final byte[] buf;
+        private int pos;
+
+        In(byte[] buf) {
+            this.buf = buf;
+        }
+
+        long varint() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos == buf.length) throw new IllegalStateException("Truncated archive");
+                byte b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return v;
+            }
+            throw new IllegalStateException("Malformed varint in archive");
+        }
+
+        long zigzag() {
+            return unzigzag(varint());
+        }
+
+        LocalDateTime time(long[] prev) {
+            long v = varint();
+            if (v == 0) return null;
+            prev[0] += unzigzag(v - 1);
+            return LocalDateTime.ofEpochSecond(prev[0], 0, ZoneOffset.UTC);
+        }
+    }
+}
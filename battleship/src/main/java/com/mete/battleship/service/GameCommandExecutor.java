@@ -0,0 +1,164 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Serializes state-changing commands per game. Every game is pinned to one of a fixed
+ * number of single-threaded lanes (gameId hash modulo lane count), so two commands for
+ * the same game never run concurrently while different games spread across all lanes.
+ * <p>
+ * This only serializes within one JVM; it replaces row locking, not multi-node coordination.
+ * <p>
+ * A command may wait only on its own lane. {@link #call} from a lane thread for a game on
+ * another lane throws instead of blocking, since two lanes waiting on each other would
+ * deadlock; use {@link #submit} to hand work to another game.
+ */
+@Component
+public class GameCommandExecutor {
+    private static final Logger log = LoggerFactory.getLogger(GameCommandExecutor.class);
+
+    private static final ThreadLocal<Integer> CURRENT_LANE = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor[] lanes;
+    private final Timer waitTimer;
+
+    public GameCommandExecutor(
+            @Value("${app.game.executor.lanes:0}") int configuredLanes,
+            @Value("${app.game.executor.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        int count = configuredLanes > 0 ? configuredLanes : Runtime.getRuntime().availableProcessors() * 2;
+        this.lanes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            final int lane = i;
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(() -> {
+                    CURRENT_LANE.set(lane);
+                    r.run();
+                }, "game-lane-" + lane);
+                t.setDaemon(true);
+                return t;
+            };
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), factory, new ThreadPoolExecutor.AbortPolicy());
+        }
+        Gauge.builder("game.commands.queue.depth", this, GameCommandExecutor::queueDepth)
+                .description("Commands waiting across all game lanes")
+                .register(meterRegistry);
+        Gauge.builder("game.commands.queue.max", this, GameCommandExecutor::maxLaneDepth)
+                .description("Commands waiting on the busiest game lane")
+                .register(meterRegistry);
+        Gauge.builder("game.commands.lanes", lanes, l -> l.length)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("game.commands.wait")
+                .description("Time a command spends queued before it starts")
+                .register(meterRegistry);
+        log.info("Game command executor started with {} lanes (queue capacity {})", count, queueCapacity);
+    }
+
+    /**
+     * Runs the command on the lane owning the game and waits for its result.
+     * Exceptions thrown by the command are rethrown unchanged. Throws IllegalStateException
+     * when called from a command running on a different lane.
+     */
+    public <T> T call(Long gameId, Supplier<T> command) {
+        int lane = laneOf(gameId);
+        Integer current = CURRENT_LANE.get();
+        if (current != null) {
+            // Already serialized for this game (nested command); run inline to avoid self-deadlock
+            if (current == lane) return command.get();
+            throw new IllegalStateException("Command on game lane " + current + " may not wait on lane " + lane
+                    + " (game " + gameId + "); use submit instead");
+        }
+        long enqueuedAt = System.nanoTime();
+        SqlStatementCounter.Tally tally = SqlStatementCounter.current(); // keep counting for the caller's request
+        Future<T> future;
+        try {
+            future = lanes[lane].submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return SqlStatementCounter.callWith(tally, command);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Command rejected for game {}: lane {} is full", gameId, lane);
+            throw new RejectedExecutionException("Game is busy, please retry");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for game command", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public void run(Long gameId, Runnable command) {
+        call(gameId, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Queues the command on the game's lane without waiting for it, e.g. a move triggered by
+     * another command. Failures are logged rather than thrown.
+     */
+    public void submit(Long gameId, Runnable command) {
+        int lane = laneOf(gameId);
+        try {
+            lanes[lane].execute(() -> {
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    log.warn("Queued command for game {} failed: {}", gameId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Queued command dropped for game {}: lane {} is full", gameId, lane);
+        }
+    }
+
+    public int queueDepth() {
+        int total = 0;
+        for (ThreadPoolExecutor lane : lanes) total += lane.getQueue().size();
+        return total;
+    }
+
+    public int maxLaneDepth() {
+        int max = 0;
+        for (ThreadPoolExecutor lane : lanes) max = Math.max(max, lane.getQueue().size());
+        return max;
+    }
+
+    private int laneOf(Long gameId) {
+        return Math.floorMod(Long.hashCode(gameId), lanes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) lane.shutdown();
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                if (!lane.awaitTermination(10, TimeUnit.SECONDS)) lane.shutdownNow();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.shutdownNow();
+            }
+        }
+    }
+}
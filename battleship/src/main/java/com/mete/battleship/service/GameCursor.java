@@ -0,0 +1,30 @@
+package com.mete.battleship.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last game on a listing page. Clients treat the encoded form as opaque.
+ * {@code createdAt} is absent for games listed from memory before their row was re-read.
+ */
+record GameCursor(LocalDateTime createdAt, Long id) {
+
+    String encode() {
+        String raw = (createdAt == null ? "" : createdAt.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static GameCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("Invalid cursor");
+            String time = raw.substring(0, sep);
+            return new GameCursor(time.isEmpty() ? null : LocalDateTime.parse(time), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.ShotEvent;
+import com.mete.battleship.dto.ShotView;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.Shot;
+
+/**
+ * Application event raised after a game changes. {@code type} is the SSE event name:
+ * {@code game} carries a {@link GameSummary}, {@code shot} a {@link ShotEvent}.
+ */
+public record GameEvent(Long gameId, String type, Object payload) {
+
+    public static final String GAME = "game";
+    public static final String SHOT = "shot";
+
+    public static GameEvent game(Game game) {
+        return new GameEvent(game.getId(), GAME, GameSummary.fromGame(game));
+    }
+
+    public static GameEvent shot(Shot shot, GameSummary summary) {
+        return new GameEvent(summary.getGameId(), SHOT, new ShotEvent(ShotView.fromShot(shot), summary));
+    }
+}
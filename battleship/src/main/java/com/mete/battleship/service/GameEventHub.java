@@ -0,0 +1,283 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fans game events out to Server-Sent Events subscribers. Each game keeps a short replay
+ * buffer so a client reconnecting with {@code Last-Event-ID} receives only what it missed;
+ * when that is no longer possible (buffer overrun, server restart) it gets a fresh
+ * {@code state} event with the current summary instead.
+ * <p>
+ * Event ids are {@code <boot id>-<sequence>} so ids from a previous process are never
+ * mistaken for current ones.
+ * <p>
+ * Events are published from game command lanes, so publishing never touches a socket: each
+ * subscriber has its own queue, drained by a small {@code sse-fanout} pool. A subscriber
+ * with more than {@code app.sse.client-queue} events still waiting is disconnected; it
+ * reconnects with {@code Last-Event-ID} and catches up from the replay buffer.
+ */
+@Component
+public class GameEventHub {
+    private static final Logger log = LoggerFactory.getLogger(GameEventHub.class);
+    public static final String STATE = "state";
+
+    private record Sent(long seq, String name, Object data) {}
+
+    private static final Sent PING = new Sent(-1, null, null);
+
+    private static final class Channel {
+        private final ArrayDeque<Sent> buffer = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private long seq;
+        private volatile long lastActivityMs = System.currentTimeMillis();
+    }
+
+    /**
+     * One SSE connection and the events queued for it. At most one drain task runs per
+     * subscriber, so events reach the client in order.
+     */
+    private final class Subscriber {
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Sent> pending = new ArrayDeque<>(); // guarded by itself
+        private int limit;
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues the event without blocking; disconnects the subscriber instead if it is too
+         * far behind.
+         */
+        void offer(Sent s) {
+            boolean slow;
+            synchronized (pending) {
+                if (closed) return;
+                slow = pending.size() >= limit;
+                if (!slow) {
+                    pending.addLast(s);
+                    if (draining) return;
+                    draining = true;
+                }
+            }
+            try {
+                if (slow) {
+                    log.debug("SSE subscriber dropped: more than {} events waiting", limit);
+                    close();
+                    fanout.execute(emitter::complete);
+                } else {
+                    fanout.execute(this::drain);
+                }
+            } catch (RejectedExecutionException e) {
+                close(); // shutting down
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Sent s;
+                synchronized (pending) {
+                    s = pending.pollFirst();
+                    if (s == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (s == PING) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        send(emitter, s);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            synchronized (pending) {
+                closed = true;
+                pending.clear();
+            }
+            channel.subscribers.remove(this);
+        }
+    }
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeat;
+    private final ExecutorService fanout;
+
+    @Value("${app.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.sse.replay-buffer:256}")
+    private int replayBuffer;
+
+    @Value("${app.sse.idle-channel-ms:120000}")
+    private long idleChannelMs;
+
+    @Value("${app.sse.client-queue:64}")
+    private int clientQueue;
+
+    public GameEventHub(@Value("${app.sse.heartbeat-ms:15000}") long heartbeatMs,
+                        @Value("${app.sse.fanout-threads:4}") int fanoutThreads) {
+        AtomicInteger fanoutIds = new AtomicInteger();
+        this.fanout = Executors.newFixedThreadPool(fanoutThreads, r -> {
+            Thread t = new Thread(r, "sse-fanout-" + fanoutIds.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sse-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.scheduleWithFixedDelay(this::heartbeatAndSweep, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(Long gameId, String lastEventId, Supplier<GameSummary> snapshot) {
+        Channel ch = channels.computeIfAbsent(gameId, id -> new Channel());
+        ch.lastActivityMs = System.currentTimeMillis();
+        long resumeFrom = parseSeq(lastEventId);
+        long seqBeforeSnapshot;
+        ch.lock.lock();
+        try {
+            seqBeforeSnapshot = ch.seq;
+        } finally {
+            ch.lock.unlock();
+        }
+        // Fetched outside the lock; anything published meanwhile is replayed on top of it
+        GameSummary current = resumeFrom >= 0 ? null : snapshot.get();
+
+        SseEmitter emitter = newEmitter();
+        Subscriber sub = new Subscriber(ch, emitter);
+        emitter.onCompletion(sub::close);
+        emitter.onTimeout(sub::close);
+        emitter.onError(e -> sub.close());
+
+        ch.lock.lock();
+        try {
+            long from = resumeFrom;
+            if (from >= 0 && !canResume(ch, from)) {
+                from = -1;
+                seqBeforeSnapshot = ch.seq;
+                current = snapshot.get();
+            }
+            // The catch-up backlog does not count against the client's queue
+            List<Sent> backlog = new ArrayList<>();
+            if (from < 0) {
+                backlog.add(new Sent(seqBeforeSnapshot, STATE, current));
+                from = seqBeforeSnapshot;
+            }
+            for (Sent s : ch.buffer) {
+                if (s.seq() > from) backlog.add(s);
+            }
+            sub.limit = backlog.size() + clientQueue;
+            ch.subscribers.add(sub);
+            for (Sent s : backlog) sub.offer(s);
+            ch.lastActivityMs = System.currentTimeMillis();
+        } finally {
+            ch.lock.unlock();
+        }
+        log.debug("SSE subscriber added for game {} (resumeFrom={})", gameId, resumeFrom);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameEvent(GameEvent event) {
+        Channel ch = channels.get(event.gameId());
+        if (ch == null) return; // nobody listening recently
+        ch.lock.lock();
+        try {
+            Sent sent = new Sent(++ch.seq, event.type(), event.payload());
+            ch.buffer.addLast(sent);
+            while (ch.buffer.size() > replayBuffer) ch.buffer.removeFirst();
+            ch.lastActivityMs = System.currentTimeMillis();
+            for (Subscriber sub : ch.subscribers) sub.offer(sent);
+        } finally {
+            ch.lock.unlock();
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    public int subscriberCount() {
+        int n = 0;
+        for (Channel ch : channels.values()) n += ch.subscribers.size();
+        return n;
+    }
+
+    private void send(SseEmitter emitter, Sent s) throws IOException {
+        emitter.send(SseEmitter.event().id(eventId(s.seq())).name(s.name()).data(s.data(), MediaType.APPLICATION_JSON));
+    }
+
+    private boolean canResume(Channel ch, long from) {
+        if (from > ch.seq) return false;
+        if (from == ch.seq) return true;
+        return !ch.buffer.isEmpty() && ch.buffer.peekFirst().seq() <= from + 1;
+    }
+
+    private String eventId(long seq) {
+        return bootId + "-" + seq;
+    }
+
+    private long parseSeq(String lastEventId) {
+        if (lastEventId == null) return -1;
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash <= 0 || !lastEventId.substring(0, dash).equals(bootId)) return -1;
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void heartbeatAndSweep() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, Channel> e : channels.entrySet()) {
+            Channel ch = e.getValue();
+            // Queued like any event; dead connections are found when the ping is written
+            for (Subscriber sub : ch.subscribers) sub.offer(PING);
+            if (ch.subscribers.isEmpty() && now - ch.lastActivityMs > idleChannelMs) {
+                channels.remove(e.getKey(), ch);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        fanout.shutdownNow();
+        for (Channel ch : channels.values()) {
+            for (Subscriber sub : ch.subscribers) sub.emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.mete.battleship.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mete.battleship.dto.PlaceShipRequest;
+import com.mete.battleship.engine.BoardState;
+import com.mete.battleship.entity.Board;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.entity.ShotResult;
+import com.mete.battleship.repository.BoardRepository;
+import com.mete.battleship.repository.GameRepository;
+import com.mete.battleship.repository.ShipRepository;
+import com.mete.battleship.repository.ShotRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-sourced game storage. Every command appends one row to {@code game_events}; for a
+ * turn, single shot or whole salvo, that INSERT is the only synchronous write. A game's
+ * state is its latest snapshot plus the events after it, folded into a {@link LiveGame}
+ * that serves the following commands from memory.
+ * <p>
+ * {@code games}, {@code ships} and {@code shots} become projections: a background projector
+ * applies logged turns in batches, advancing {@code games.projected_seq} in the same
+ * transaction so no event is applied twice, and writes a snapshot every
+ * {@code snapshot-every} events. Setup commands (create, join, place) are rare and keep
+ * writing their rows directly, next to their event. Events not yet projected when the
+ * process stopped are applied on startup, whether or not the mode is still enabled.
+ */
+@Component
+public class GameEventLog {
+    private static final Logger log = LoggerFactory.getLogger(GameEventLog.class);
+
+    public enum Type { CREATED, JOINED, PLACED, TURN }
+
+    /** A shot of a turn with the ship it sank, if any. */
+    public record Fired(Shot shot, Long sunkShipId) {}
+
+    // Payloads: the game's state after the command plus what the command did
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Change(GameStatus status, Long currentTurnUserId, Long winnerUserId, long version,
+                  Long boardId, Long shooterUserId, Long targetUserId,
+                  List<PlaceShipRequest> ships, List<Cell> shots) {}
+
+    record Cell(int row, int col, ShotResult result, ShipType sunkShipType, Long sunkShipId) {}
+
+    // Shot cells per board as base64 bitmasks, see BoardState#shotBits
+    record Snapshot(GameStatus status, Long currentTurnUserId, Long winnerUserId, long version, Map<Long, String> shots) {}
+
+    private record Projection(Long gameId, int seq, Change change, List<Shot> shots, Snapshot snapshot) {}
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final GameRepository gameRepository;
+    private final BoardRepository boardRepository;
+    private final ShipRepository shipRepository;
+    private final ShotRepository shotRepository;
+    private final LiveGameStore liveGameStore;
+    private final GameCommandExecutor commandExecutor;
+    private final GameReadCache readCache;
+    private final TransactionTemplate tx;
+
+    @Value("${app.game.event-sourcing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.game.event-sourcing.projection-window-ms:200}")
+    private long windowMs;
+
+    @Value("${app.game.event-sourcing.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${app.game.event-sourcing.snapshot-every:50}")
+    private int snapshotEvery;
+
+    @Value("${app.game.write-behind.enabled:false}")
+    private boolean writeBehind;
+
+    @Value("${app.game.write-behind.idle-evict-ms:600000}")
+    private long idleEvictMs;
+
+    private final Queue<Projection> queue = new ConcurrentLinkedQueue<>();
+    // Taken from the queue but not committed yet; only touched by the projector thread
+    private final List<Projection> inFlight = new ArrayList<>();
+    private ScheduledExecutorService projector;
+
+    public GameEventLog(JdbcTemplate jdbc, ObjectMapper objectMapper, GameRepository gameRepository, BoardRepository boardRepository,
+                        ShipRepository shipRepository, ShotRepository shotRepository, LiveGameStore liveGameStore,
+                        GameCommandExecutor commandExecutor, GameReadCache readCache, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.gameRepository = gameRepository;
+        this.boardRepository = boardRepository;
+        this.shipRepository = shipRepository;
+        this.shotRepository = shotRepository;
+        this.liveGameStore = liveGameStore;
+        this.commandExecutor = commandExecutor;
+        this.readCache = readCache;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled && writeBehind) {
+            throw new IllegalStateException("Enable either app.game.event-sourcing or app.game.write-behind, not both");
+        }
+        catchUp();
+        if (!enabled) return;
+        projector = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-event-projector");
+            t.setDaemon(true);
+            return t;
+        });
+        projector.scheduleWithFixedDelay(this::projectQuietly, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        log.info("Event-sourced games enabled: window={}ms, maxBatch={}, snapshotEvery={}", windowMs, maxBatch, snapshotEvery);
+    }
+
+    /**
+     * Logs a setup command. Call inside the transaction that writes its rows; the game's
+     * {@code projected_seq} moves along so the projector never sees it.
+     */
+    public void appendSetup(Game game, Type type, Long boardId, List<PlaceShipRequest> ships) {
+        int seq = game.getProjectedSeq() + 1;
+        insert(game.getId(), seq, type, new Change(game.getStatus(), game.getCurrentTurnUserId(), game.getWinnerUserId(),
+                game.getStateVersion(), boardId, null, null, ships, null));
+        game.setProjectedSeq(seq);
+    }
+
+    /**
+     * Logs a turn already applied to the live game, as one row. If the write fails the live
+     * game is dropped, so the next command folds it again from what was logged.
+     */
+    public void appendTurn(LiveGame live, List<Fired> fired) {
+        Game game = live.getGame();
+        Shot first = fired.get(0).shot();
+        List<Cell> cells = new ArrayList<>(fired.size());
+        List<Shot> shots = new ArrayList<>(fired.size());
+        for (Fired f : fired) {
+            Shot s = f.shot();
+            cells.add(new Cell(s.getRow(), s.getCol(), s.getResult(), s.getSunkShipType(), f.sunkShipId()));
+            shots.add(s);
+        }
+        Change change = new Change(game.getStatus(), game.getCurrentTurnUserId(), game.getWinnerUserId(), game.getStateVersion(),
+                first.getBoardId(), first.getShooterUserId(), first.getTargetUserId(), null, cells);
+        int seq = live.getEventSeq() + 1;
+        try {
+            insert(game.getId(), seq, Type.TURN, change);
+        } catch (RuntimeException e) {
+            log.warn("Event append failed for game {} at seq {}: {}", game.getId(), seq, e.getMessage());
+            liveGameStore.discard(game.getId());
+            throw e;
+        }
+        live.setEventSeq(seq);
+        Snapshot snapshot = seq % snapshotEvery == 0 ? snapshot(live) : null;
+        queue.add(new Projection(game.getId(), seq, change, shots, snapshot));
+    }
+
+    private void insert(Long gameId, int seq, Type type, Change change) {
+        jdbc.update("INSERT INTO game_events (game_id, seq, type, payload) VALUES (?, ?, ?, ?)",
+                gameId, seq, type.name(), write(change));
+    }
+
+    /**
+     * Returns the live game, folding it from its snapshot and later events on first use.
+     * Games with nothing logged, and archived games, are loaded from their rows. Call on the
+     * game's lane.
+     */
+    public LiveGame load(Long gameId) {
+        LiveGame cached = liveGameStore.find(gameId);
+        if (cached != null) return cached;
+        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+        // Finished with its boards in the archive: nothing left to fold, and no command will pass
+        if (game.isArchived()) return liveGameStore.load(gameId);
+
+        int seq = 0;
+        Snapshot snapshot = null;
+        List<Map<String, Object>> snapshots = jdbc.queryForList("SELECT seq, state FROM game_snapshots WHERE game_id = ?", gameId);
+        if (!snapshots.isEmpty()) {
+            seq = ((Number) snapshots.get(0).get("seq")).intValue();
+            snapshot = read(snapshots.get(0).get("state").toString(), Snapshot.class);
+        }
+        List<Object[]> events = jdbc.query("SELECT seq, payload FROM game_events WHERE game_id = ? AND seq > ? ORDER BY seq",
+                (rs, n) -> new Object[]{rs.getInt(1), rs.getString(2)}, gameId, seq);
+        if (snapshot == null && events.isEmpty()) {
+            return liveGameStore.load(gameId);
+        }
+
+        // Projected rows are never ahead of the log, so starting from them only saves work
+        LiveGame live = new LiveGame(game);
+        List<Board> boards = boardRepository.findByGameId(gameId);
+        for (Board b : boards) {
+            live.addBoard(b.getId(), b.getOwnerUserId(), GameService.toBoardState(GameService.sizeOf(b), shipRepository.findBoardCells(b.getId())));
+        }
+        if (snapshot != null) {
+            apply(game, snapshot.status(), snapshot.currentTurnUserId(), snapshot.winnerUserId(), snapshot.version());
+            for (Map.Entry<Long, String> e : snapshot.shots().entrySet()) {
+                markAll(live.state(e.getKey()), Base64.getDecoder().decode(e.getValue()));
+            }
+        }
+        for (Object[] event : events) {
+            seq = (int) event[0];
+            Change change = read((String) event[1], Change.class);
+            apply(game, change.status(), change.currentTurnUserId(), change.winnerUserId(), change.version());
+            if (change.shots() == null) continue;
+            BoardState state = live.state(change.boardId());
+            for (Cell c : change.shots()) {
+                state.markShot(c.row(), c.col());
+                if (seq > game.getProjectedSeq()) live.addPending(toShot(change, c));
+            }
+        }
+        live.setEventSeq(seq);
+        live.refreshSummary();
+        // Setup still writes through the rows; only cache games whose turns are logged here
+        if (game.getStatus() == GameStatus.IN_PROGRESS || game.getStatus() == GameStatus.FINISHED) {
+            liveGameStore.register(live);
+        }
+        log.debug("Folded game {} from {} events{}", gameId, events.size(), snapshot != null ? " after a snapshot" : "");
+        return live;
+    }
+
+    // The projection may be newer when the mode was switched off for a while
+    private static void apply(Game game, GameStatus status, Long turn, Long winner, long version) {
+        if (version < game.getStateVersion()) return;
+        game.setStatus(status);
+        game.setCurrentTurnUserId(turn);
+        game.setWinnerUserId(winner);
+        game.setStateVersion(version);
+    }
+
+    private static void markAll(BoardState state, byte[] bits) {
+        int size = state.getSize();
+        for (int i = 0; i < bits.length; i++) {
+            for (int b = bits[i] & 0xff; b != 0; b &= b - 1) {
+                int cell = (i << 3) + Integer.numberOfTrailingZeros(b);
+                state.markShot(cell / size, cell % size);
+            }
+        }
+    }
+
+    private static Snapshot snapshot(LiveGame live) {
+        Game game = live.getGame();
+        Map<Long, String> shots = new HashMap<>();
+        for (Long boardId : live.boardIds()) {
+            shots.put(boardId, Base64.getEncoder().encodeToString(live.state(boardId).shotBits()));
+        }
+        return new Snapshot(game.getStatus(), game.getCurrentTurnUserId(), game.getWinnerUserId(), game.getStateVersion(), shots);
+    }
+
+    private static Shot toShot(Change change, Cell c) {
+        return GameService.newShot(change.boardId(), change.shooterUserId(), change.targetUserId(), c.row(), c.col(), c.result(), c.sunkShipType());
+    }
+
+    private void projectQuietly() {
+        try {
+            project();
+        } catch (Exception e) {
+            log.error("Event projection failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies queued turns to the tables in batches of up to {@code max-batch} events.
+     */
+    void project() {
+        while (true) {
+            while (inFlight.size() < maxBatch) {
+                Projection p = queue.poll();
+                if (p == null) break;
+                inFlight.add(p);
+            }
+            if (inFlight.isEmpty()) break;
+            commit(inFlight);
+            for (Projection p : inFlight) {
+                for (Shot s : p.shots()) liveGameStore.flushed(s);
+            }
+            log.debug("Projected {} game events", inFlight.size());
+            inFlight.clear();
+        }
+        for (Long gameId : liveGameStore.evictable(idleEvictMs)) {
+            commandExecutor.run(gameId, () -> liveGameStore.evict(gameId));
+        }
+    }
+
+    private void commit(List<Projection> batch) {
+        try {
+            tx.executeWithoutResult(status -> {
+                Map<Long, Projection> lastByGame = new LinkedHashMap<>();
+                for (Projection p : batch) lastByGame.put(p.gameId(), p);
+                // A game whose row is already past these events was projected before a restart
+                Set<Long> skipped = new HashSet<>();
+                for (Projection p : lastByGame.values()) {
+                    Change c = p.change();
+                    if (gameRepository.updateProjection(p.gameId(), c.status(), c.currentTurnUserId(), c.winnerUserId(), c.version(), p.seq()) == 0) {
+                        skipped.add(p.gameId());
+                    }
+                }
+                List<Shot> shots = new ArrayList<>();
+                for (Projection p : batch) {
+                    if (skipped.contains(p.gameId())) continue;
+                    shots.addAll(p.shots());
+                    for (Cell c : p.change().shots() != null ? p.change().shots() : List.<Cell>of()) {
+                        if (c.sunkShipId() != null) shipRepository.markSunk(c.sunkShipId());
+                    }
+                    if (p.snapshot() != null) {
+                        jdbc.update("DELETE FROM game_snapshots WHERE game_id = ?", p.gameId());
+                        jdbc.update("INSERT INTO game_snapshots (game_id, seq, state) VALUES (?, ?, ?)", p.gameId(), p.seq(), write(p.snapshot()));
+                    }
+                }
+                shotRepository.saveAll(shots);
+            });
+        } catch (RuntimeException e) {
+            // Ids assigned by the rolled-back inserts must not survive into the retry
+            for (Projection p : batch) {
+                for (Shot s : p.shots()) s.setId(null);
+            }
+            throw e;
+        }
+        // Cached reads predate these rows; live games are served from memory until evicted
+        for (Projection p : batch) {
+            readCache.gameEvicted(p.gameId());
+            if (p.change().boardId() == null) continue;
+            readCache.shotsChanged(p.change().boardId());
+            readCache.shipsChanged(p.change().boardId());
+        }
+    }
+
+    private void catchUp() {
+        List<Projection> pending = jdbc.query(
+                "SELECT e.game_id, e.seq, e.payload FROM game_events e JOIN games g ON g.id = e.game_id " +
+                        "WHERE e.seq > g.projected_seq ORDER BY e.game_id, e.seq",
+                (rs, n) -> {
+                    Change change = read(rs.getString(3), Change.class);
+                    List<Shot> shots = new ArrayList<>();
+                    if (change.shots() != null) {
+                        for (Cell c : change.shots()) shots.add(toShot(change, c));
+                    }
+                    return new Projection(rs.getLong(1), rs.getInt(2), change, shots, null);
+                });
+        if (pending.isEmpty()) return;
+        for (int from = 0; from < pending.size(); from += maxBatch) {
+            commit(pending.subList(from, Math.min(pending.size(), from + maxBatch)));
+        }
+        log.info("Projected {} logged game events left over from the last run", pending.size());
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode game event", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not decode game event", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (projector == null) return;
+        projector.shutdown();
+        try {
+            projector.awaitTermination(10, TimeUnit.SECONDS);
+            project();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Final event projection failed; events will be projected on next start: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.ShotEvent;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.ShotResult;
+import com.mete.battleship.repository.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Game-level meters: {@code game.shots} counts committed shots by {@link ShotResult} and
+ * {@code game.games} gauges how many games are in each {@link GameStatus}. The gauge reads
+ * one grouped count from the database, reused for {@code app.metrics.games-refresh-ms}
+ * so a scrape costs at most one query.
+ * <p>
+ * Operation latencies ({@code game.operations}) come from {@code @Timed} on the services.
+ */
+@Component
+public class GameMetrics {
+
+    private final GameRepository gameRepository;
+    private final long refreshMs;
+    private final Map<ShotResult, Counter> shots = new EnumMap<>(ShotResult.class);
+    private volatile Map<GameStatus, Long> gamesByStatus = new EnumMap<>(GameStatus.class);
+    private volatile long refreshedAt;
+
+    public GameMetrics(GameRepository gameRepository, MeterRegistry meterRegistry,
+                       @Value("${app.metrics.games-refresh-ms:10000}") long refreshMs) {
+        this.gameRepository = gameRepository;
+        this.refreshMs = refreshMs;
+        for (ShotResult result : ShotResult.values()) {
+            shots.put(result, Counter.builder("game.shots")
+                    .description("Shots fired, by result")
+                    .tag("result", result.name())
+                    .register(meterRegistry));
+        }
+        for (GameStatus status : GameStatus.values()) {
+            Gauge.builder("game.games", this, m -> m.gamesIn(status))
+                    .description("Games currently in each status")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameEvent(GameEvent event) {
+        if (event.payload() instanceof ShotEvent shot) {
+            shots.get(ShotResult.valueOf(shot.getShot().getResult())).increment();
+        }
+    }
+
+    double gamesIn(GameStatus status) {
+        long now = System.currentTimeMillis();
+        if (now - refreshedAt >= refreshMs) {
+            synchronized (this) {
+                if (now - refreshedAt >= refreshMs) {
+                    Map<GameStatus, Long> counts = new EnumMap<>(GameStatus.class);
+                    for (Object[] row : gameRepository.countByStatus()) {
+                        counts.put((GameStatus) row[0], (Long) row[1]);
+                    }
+                    gamesByStatus = counts;
+                    refreshedAt = now;
+                }
+            }
+        }
+        return gamesByStatus.getOrDefault(status, 0L);
+    }
+}
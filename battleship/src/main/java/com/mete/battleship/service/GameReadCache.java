@@ -0,0 +1,103 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.entity.Board;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.Ship;
+import com.mete.battleship.entity.Shot;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for game summaries, boards and ship/shot listings. Size and TTL
+ * limits come from {@code spring.cache.caffeine.spec}; hit/miss/eviction metrics are
+ * published by actuator as {@code cache.gets} and {@code cache.evictions}.
+ * <p>
+ * Mutations update or evict entries only after their transaction commits, so a reader
+ * can never cache a state that is later rolled back.
+ */
+@Component
+public class GameReadCache {
+    public static final String SUMMARIES = "gameSummaries";
+    public static final String GAME_BOARDS = "gameBoards";
+    public static final String BOARDS = "boards";
+    public static final String SHIPS = "boardShips";
+    public static final String SHOTS = "boardShots";
+
+    private final Cache summaries;
+    private final Cache gameBoards;
+    private final Cache boards;
+    private final Cache ships;
+    private final Cache shots;
+
+    public GameReadCache(CacheManager cacheManager) {
+        this.summaries = require(cacheManager, SUMMARIES);
+        this.gameBoards = require(cacheManager, GAME_BOARDS);
+        this.boards = require(cacheManager, BOARDS);
+        this.ships = require(cacheManager, SHIPS);
+        this.shots = require(cacheManager, SHOTS);
+    }
+
+    public GameSummary summary(Long gameId, Supplier<GameSummary> loader) {
+        return summaries.get(gameId, loader::get);
+    }
+
+    public List<Board> gameBoards(Long gameId, Supplier<List<Board>> loader) {
+        return gameBoards.get(gameId, () -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Boards never change once created, so entries are only dropped by size or TTL.
+     */
+    public Board board(Long boardId, Supplier<Board> loader) {
+        return boards.get(boardId, loader::get);
+    }
+
+    public List<Ship> ships(Long boardId, Supplier<List<Ship>> loader) {
+        return ships.get(boardId, () -> List.copyOf(loader.get()));
+    }
+
+    public List<Shot> shots(Long boardId, Supplier<List<Shot>> loader) {
+        return shots.get(boardId, () -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Writes the new summary through.
+     */
+    public void gameChanged(Game game) {
+        GameSummary summary = GameSummary.fromGame(game);
+        Long gameId = game.getId();
+        TransactionHooks.afterCommit(() -> summaries.put(gameId, summary));
+    }
+
+    /**
+     * Drops the board list, which only changes when players join.
+     */
+    public void boardsChanged(Long gameId) {
+        TransactionHooks.afterCommit(() -> gameBoards.evict(gameId));
+    }
+
+    public void gameEvicted(Long gameId) {
+        TransactionHooks.afterCommit(() -> summaries.evict(gameId));
+    }
+
+    public void shipsChanged(Long boardId) {
+        TransactionHooks.afterCommit(() -> ships.evict(boardId));
+    }
+
+    public void shotsChanged(Long boardId) {
+        TransactionHooks.afterCommit(() -> shots.evict(boardId));
+    }
+
+    private static Cache require(CacheManager cacheManager, String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + name);
+        }
+        return cache;
+    }
+}
@@ -1,19 +1,31 @@
 package com.mete.battleship.service;
 
+import com.mete.battleship.dto.BoardSnapshot;
+import com.mete.battleship.dto.BoardTile;
+import com.mete.battleship.dto.GamePage;
+import com.mete.battleship.dto.GameSnapshot;
 import com.mete.battleship.dto.GameSummary;
 import com.mete.battleship.dto.PlaceShipRequest;
 import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.dto.ShotView;
+import com.mete.battleship.dto.SalvoResponse;
 import com.mete.battleship.dto.ShotResponse;
+import com.mete.battleship.engine.BoardState;
+import com.mete.battleship.engine.Fleet;
 import com.mete.battleship.entity.*;
+import com.mete.battleship.metrics.SqlBudget;
 import com.mete.battleship.repository.BoardRepository;
 import com.mete.battleship.repository.GameRepository;
 import com.mete.battleship.repository.ShipRepository;
 import com.mete.battleship.repository.UserRepository;
 import com.mete.battleship.repository.ShotRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,36 +35,98 @@ import java.util.stream.Collectors;
 @Service
 public class GameService {
     private static final Logger log = LoggerFactory.getLogger(GameService.class);
+    static final int MAX_PAGE_SIZE = 100;
+    static final int DEFAULT_BOARD_SIZE = 10;
+    static final int MAX_TILE_SIDE = 256;
     private final GameRepository gameRepository;
     private final UserRepository userRepository;
     private final BoardRepository boardRepository;
     private final ShipRepository shipRepository;
     private final ShotRepository shotRepository;
-
-    public GameService(GameRepository gameRepository, UserRepository userRepository, BoardRepository boardRepository, ShipRepository shipRepository, ShotRepository shotRepository) {
+    private final LiveGameStore liveGameStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GameReadCache readCache;
+    private final OpenLobbyIndex lobbyIndex;
+    private final GameEventLog eventLog;
+    private final GameArchive archive;
+
+    public GameService(GameRepository gameRepository, UserRepository userRepository, BoardRepository boardRepository, ShipRepository shipRepository, ShotRepository shotRepository, LiveGameStore liveGameStore, ApplicationEventPublisher eventPublisher, GameReadCache readCache, OpenLobbyIndex lobbyIndex, GameEventLog eventLog, GameArchive archive) {
         this.gameRepository = gameRepository;
         this.userRepository = userRepository;
         this.boardRepository = boardRepository;
         this.shipRepository = shipRepository;
         this.shotRepository = shotRepository;
+        this.liveGameStore = liveGameStore;
+        this.eventPublisher = eventPublisher;
+        this.readCache = readCache;
+        this.lobbyIndex = lobbyIndex;
+        this.eventLog = eventLog;
+        this.archive = archive;
+    }
+
+    @Timed(value = "game.operations", extraTags = {"operation", "createGame"})
+    @SqlBudget(2)
+    @Transactional
+    public Game createGame(Long creatorUserId, GameMode mode, Integer boardSize, String fleetSpec) {
+        return newGame(creatorUserId, mode, boardSize, fleetSpec, true);
+    }
+
+    /**
+     * Creates a game whose second player is already chosen (bot games): it is never listed
+     * in the open lobby, so neither the lobby list nor quick-match can hand it to someone else.
+     */
+    @Timed(value = "game.operations", extraTags = {"operation", "createGame"})
+    @SqlBudget(2)
+    @Transactional
+    public Game createUnlistedGame(Long creatorUserId, GameMode mode, Integer boardSize, String fleetSpec) {
+        return newGame(creatorUserId, mode, boardSize, fleetSpec, false);
     }
 
-    public Game createGame(Long creatorUserId) {
+    private Game newGame(Long creatorUserId, GameMode mode, Integer boardSize, String fleetSpec, boolean listed) {
+        int size = boardSize != null ? boardSize : DEFAULT_BOARD_SIZE;
+        Fleet fleet = Fleet.parse(fleetSpec);
+        checkFleetFits(size, fleet);
         if (!userRepository.existsById(creatorUserId)) {
             log.warn("Create game failed: user {} not found", creatorUserId);
             throw new RuntimeException("User not found");
         }
         var game = new Game();
         game.setStatus(GameStatus.LOBBY);
+        game.setMode(mode != null ? mode : GameMode.CLASSIC);
+        game.setBoardSize(size);
+        game.setFleet(fleet.spec());
         game.setPlayer1Id(creatorUserId);
         game.setPlayer2Id(null);
         game.setCurrentTurnUserId(null);
         game.setWinnerUserId(null);
         Game saved = gameRepository.save(game);
+        if (eventLog.isEnabled()) eventLog.appendSetup(saved, GameEventLog.Type.CREATED, null, null);
+        if (listed) lobbyIndex.opened(GameSummary.fromGame(saved));
         log.info("Game created id={} by userId={}", saved.getId(), creatorUserId);
         return saved;
     }
 
+    /**
+     * Rejects boards outside 1..{@link BoardState#MAX_SIZE} and fleets that could not be
+     * placed: a ship longer than the board, or ships covering more than half its cells.
+     */
+    static void checkFleetFits(int size, Fleet fleet) {
+        if (size < 1 || size > BoardState.MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 1 and " + BoardState.MAX_SIZE);
+        }
+        for (ShipType type : fleet.counts().keySet()) {
+            if (type.getLength() > size) {
+                throw new IllegalArgumentException(type + " does not fit on a " + size + "x" + size + " board");
+            }
+        }
+        if (fleet.totalCells() > size * size / 2) {
+            throw new IllegalArgumentException("Fleet covers " + fleet.totalCells() + " cells, more than half of a "
+                    + size + "x" + size + " board");
+        }
+    }
+
+    @Timed(value = "game.operations", extraTags = {"operation", "joinGame"})
+    @SqlBudget(5)
     @Transactional
     public Game joinGame(Long gameId, Long joinerUserId) {
         log.info("User {} joining game {}", joinerUserId, gameId);
@@ -75,16 +149,18 @@ public class GameService {
         }
         game.setPlayer2Id(joinerUserId);
         game.setStatus(GameStatus.PLACING);
+        touch(game);
+        int size = game.getBoardSize();
         long count = boardRepository.countByGameId(gameId);
         if (count == 0) {
             Board board = new Board();
             Board board2 = new Board();
             board.setGameId(gameId);
             board.setOwnerUserId(player1Id);
-            board.setSize(10);
+            board.setSize(size);
             board2.setGameId(gameId);
             board2.setOwnerUserId(joinerUserId);
-            board2.setSize(10);
+            board2.setSize(size);
             boardRepository.save(board2);
             boardRepository.save(board);
             log.debug("Created two boards for game {}", gameId);
@@ -94,30 +170,38 @@ public class GameService {
                 Board board2 = new Board();
                 board2.setGameId(gameId);
                 board2.setOwnerUserId(joinerUserId);
-                board2.setSize(10);
+                board2.setSize(size);
                 boardRepository.save(board2);
                 log.debug("Created second board for joiner {} in game {}", joinerUserId, gameId);
             } else {
                 Board board = new Board();
                 board.setGameId(gameId);
                 board.setOwnerUserId(player1Id);
-                board.setSize(10);
+                board.setSize(size);
                 boardRepository.save(board);
                 log.debug("Created missing board for player1 {} in game {}", player1Id, gameId);
             }
         }
 
+        if (eventLog.isEnabled()) eventLog.appendSetup(game, GameEventLog.Type.JOINED, null, null);
         Game saved = gameRepository.save(game);
+        lobbyIndex.joined(gameId);
+        readCache.boardsChanged(gameId);
+        readCache.gameChanged(saved);
+        eventPublisher.publishEvent(GameEvent.game(saved));
         log.info("User {} joined game {} -> status {}", joinerUserId, gameId, saved.getStatus());
         return saved;
 
 
     }
 
+    @Timed(value = "game.operations", extraTags = {"operation", "placeShips"})
+    // The placement that completes both fleets also writes the game's status, turn and version
+    @SqlBudget(8)
     @Transactional
     public GameSummary placeShips(Long boardId, Long ownerUserId, List<PlaceShipRequest> ships) {
         log.info("Placing ships: boardId={}, ownerUserId={}, count={} ", boardId, ownerUserId, ships != null ? ships.size() : 0);
-        var board = boardRepository.findById(boardId).orElseThrow(() -> new RuntimeException("Board not found"));
+        var board = findBoard(boardId);
         if (!board.getOwnerUserId().equals(ownerUserId)) {
             log.warn("Place ships forbidden: user {} is not owner of board {}", ownerUserId, boardId);
             throw new RuntimeException("You are not the owner of this board");
@@ -133,58 +217,15 @@ public class GameService {
             log.warn("Place ships rejected: board {} already has ships", boardId);
             throw new RuntimeException("Ships have already been placed on this board");
         }
-        if (ships == null || ships.size() != 5) {
-            log.warn("Place ships rejected: expected 5 ships, got {}", ships == null ? null : ships.size());
-            throw new RuntimeException("You must place exactly 5 ships");
+        Fleet fleet = Fleet.parse(game.getFleet());
+        if (ships == null || ships.size() != fleet.totalShips()) {
+            log.warn("Place ships rejected: expected {} ships, got {}", fleet.totalShips(), ships == null ? null : ships.size());
+            throw new RuntimeException("You must place exactly " + fleet.totalShips() + " ships");
         }
 
-        int size = board.getSize() != null ? board.getSize() : 10;
-        boolean[][] occupied = new boolean[size][size];
-        Set<ShipType> seenTypes = new HashSet<>();
-        for (var r : ships) {
-            if (r.getType() == null || r.getOrientation() == null || r.getStartRow() == null || r.getStartCol() == null) {
-                throw new RuntimeException("Ship placement fields cannot be null");
-            }
-            if (!seenTypes.add(r.getType())) {
-                throw new RuntimeException("Duplicate ship type: " + r.getType());
-            }
-            int length = r.getType().getLength();
-            int row = r.getStartRow();
-            int col = r.getStartCol();
-            if (row < 0 || row >= size || col < 0 || col >= size) {
-                throw new RuntimeException("Ship start position out of bounds");
-            }
-            if (r.getOrientation() == com.mete.battleship.entity.Orientation.HORIZONTAL) {
-                if (col + length - 1 >= size) {
-                    throw new RuntimeException("Ship extends beyond board horizontally: " + r.getType());
-                }
-                for (int c = col; c < col + length; c++) {
-                    if (occupied[row][c]) {
-                        throw new RuntimeException("Ships overlap at (" + row + "," + c + ")");
-                    }
-                }
-                for (int c = col; c < col + length; c++) {
-                    occupied[row][c] = true;
-                }
-            } else { // VERTICAL
-                if (row + length - 1 >= size) {
-                    throw new RuntimeException("Ship extends beyond board vertically: " + r.getType());
-                }
-                for (int r2 = row; r2 < row + length; r2++) {
-                    if (occupied[r2][col]) {
-                        throw new RuntimeException("Ships overlap at (" + r2 + "," + col + ")");
-                    }
-                }
-                for (int r2 = row; r2 < row + length; r2++) {
-                    occupied[r2][col] = true;
-                }
-            }
-        }
-        if (!seenTypes.equals(EnumSet.allOf(ShipType.class))) {
-            throw new RuntimeException("You must place one of each ship type: " + EnumSet.allOf(ShipType.class));
-        }
+        validateFleet(sizeOf(board), fleet, ships);
 
-        var toSave = new ArrayList<Ship>(5);
+        var toSave = new ArrayList<Ship>(ships.size());
         for (var r : ships) {
             var ship = new Ship();
             ship.setBoardId(boardId);
@@ -202,192 +243,500 @@ public class GameService {
         Long p2 = game.getPlayer2Id();
         Long otherUserId = ownerUserId.equals(p1) ? p2 : p1;
         if (otherUserId != null) {
-            Board otherBoard = boardRepository.findByGameIdAndOwnerUserId(game.getId(), otherUserId);
+            Board otherBoard = boardOf(game.getId(), otherUserId);
             if (otherBoard != null) {
                 long otherCount = shipRepository.countByBoardId(otherBoard.getId());
-                if (otherCount >= 5) {
+                if (otherCount >= fleet.totalShips()) {
                     game.setStatus(GameStatus.IN_PROGRESS);
                     game.setCurrentTurnUserId(p1);
-                    gameRepository.save(game);
                     log.info("Game {} moved to IN_PROGRESS. First turn userId={}", game.getId(), p1);
                 }
             }
         }
+        touch(game);
+        if (eventLog.isEnabled()) eventLog.appendSetup(game, GameEventLog.Type.PLACED, boardId, ships);
+        gameRepository.save(game);
 
+        readCache.shipsChanged(boardId);
+        readCache.gameChanged(game);
+        eventPublisher.publishEvent(GameEvent.game(game));
         return GameSummary.fromGame(game);
     }
 
+    /**
+     * Checks a full fleet placement: exactly the ships of the fleet, inside the board, no
+     * overlaps. Cells are tracked sparsely, so the cost follows the fleet, not the board area.
+     */
+    static void validateFleet(int size, Fleet fleet, List<PlaceShipRequest> ships) {
+        BoardState layout = new BoardState(size, ships.size());
+        Map<ShipType, Integer> placed = new EnumMap<>(ShipType.class);
+        for (var r : ships) {
+            if (r.getType() == null || r.getOrientation() == null || r.getStartRow() == null || r.getStartCol() == null) {
+                throw new RuntimeException("Ship placement fields cannot be null");
+            }
+            if (placed.merge(r.getType(), 1, Integer::sum) > fleet.count(r.getType())) {
+                throw new RuntimeException("Too many ships of type " + r.getType() + " for fleet " + fleet.spec());
+            }
+            if (!layout.isInBounds(r.getStartRow(), r.getStartCol())) {
+                throw new RuntimeException("Ship start position out of bounds");
+            }
+            try {
+                layout.addShip(0L, r.getType(), r.getStartRow(), r.getStartCol(), r.getOrientation());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException(e.getMessage());
+            }
+        }
+        if (!placed.equals(fleet.counts())) {
+            throw new RuntimeException("You must place exactly this fleet: " + fleet.spec());
+        }
+    }
+
+    static int sizeOf(Board board) {
+        return board.getSize() != null ? board.getSize() : DEFAULT_BOARD_SIZE;
+    }
+
+    public Long gameIdForBoard(Long boardId) {
+        return findBoard(boardId).getGameId();
+    }
+
+    // Archived games have no live rows left, so the archive is only asked when a lookup comes back empty
+    private Board findBoard(Long boardId) {
+        return readCache.board(boardId, () -> boardRepository.findById(boardId).or(() -> archive.board(boardId))
+                .orElseThrow(() -> new RuntimeException("Board not found")));
+    }
+
     public List<Board> listBoards(Long gameId) {
         log.debug("List boards for game {}", gameId);
-        return boardRepository.findByGameId(gameId);
+        return readCache.gameBoards(gameId, () -> {
+            List<Board> boards = boardRepository.findByGameId(gameId);
+            return boards.isEmpty() ? archive.boards(gameId) : boards;
+        });
+    }
+
+    private Board boardOf(Long gameId, Long ownerUserId) {
+        for (Board b : listBoards(gameId)) {
+            if (b.getOwnerUserId().equals(ownerUserId)) return b;
+        }
+        return null;
     }
 
     public GameSummary getGameSummary(Long gameId) {
         log.debug("Get game summary for {}", gameId);
-        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
-        return GameSummary.fromGame(game);
+        GameSummary live = liveGameStore.summary(gameId);
+        if (live != null) return live;
+        return readCache.summary(gameId, () -> GameSummary.fromGame(
+                gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"))));
+    }
+
+    /**
+     * Throws unless the user is one of the game's players.
+     */
+    public void requirePlayer(Long gameId, Long userId) {
+        GameSummary game = getGameSummary(gameId);
+        if (!Objects.equals(userId, game.getPlayer1Id()) && !Objects.equals(userId, game.getPlayer2Id())) {
+            log.warn("Rejected: user {} not in game {}", userId, gameId);
+            throw new RuntimeException("You are not a player in this game");
+        }
     }
 
     public List<Shot> listShots(Long boardId) {
         log.debug("List shots for board {}", boardId);
-        return shotRepository.findByBoardId(boardId);
+        // Pending first: a shot flushed in between is then already in the rows read below
+        List<Shot> pending = liveGameStore.pendingShots(boardId);
+        List<Shot> shots = readCache.shots(boardId, () -> {
+            List<Shot> rows = shotRepository.findByBoardIdOrderByIdAsc(boardId);
+            return rows.isEmpty() ? archive.shots(boardId) : rows;
+        });
+        if (pending.isEmpty()) return shots;
+        // Write-behind shots not flushed yet; a shot may briefly be in both lists while its batch commits
+        Set<Integer> seen = new HashSet<>();
+        for (Shot s : shots) seen.add(s.getRow() * 100_000 + s.getCol());
+        List<Shot> merged = new ArrayList<>(shots);
+        for (Shot s : pending) {
+            if (seen.add(s.getRow() * 100_000 + s.getCol())) merged.add(s);
+        }
+        return merged;
     }
 
 
+    /**
+     * Shots after the first {@code sinceSeq} in firing order, i.e. what a client holding
+     * {@code sinceSeq} shots has not seen yet. Sequence numbers also cover write-behind
+     * shots that have no id yet, which is why an id cursor is not used.
+     */
+    public List<Shot> listShotsSince(Long boardId, int sinceSeq) {
+        if (sinceSeq < 0) throw new IllegalArgumentException("sinceSeq must not be negative");
+        List<Shot> shots = listShots(boardId);
+        return sinceSeq >= shots.size() ? List.of() : shots.subList(sinceSeq, shots.size());
+    }
+
+    /**
+     * Everything the requester may see of a game, with cells as bitmasks. Uses the cached
+     * summary and boards plus a single query for the ships and shots of all boards; ship
+     * positions are only included for the requester's own board. Boards wider than
+     * {@link #MAX_TILE_SIDE} carry counts only; their masks grow with the square of the side.
+     */
+    public GameSnapshot snapshot(Long gameId, Long requesterUserId) {
+        GameSummary summary = getGameSummary(gameId);
+        List<Board> boards = listBoards(gameId);
+        if (boards.isEmpty()) return new GameSnapshot(summary, List.of());
+
+        Map<Long, List<Shot>> pending = new HashMap<>();
+        for (Board b : boards) pending.put(b.getId(), liveGameStore.pendingShots(b.getId()));
+        Map<Long, BoardState> states = new HashMap<>();
+        for (Board b : boards) {
+            states.put(b.getId(), new BoardState(sizeOf(b)));
+        }
+        List<Object[]> cells = shipRepository.findGameCells(gameId);
+        if (cells.isEmpty()) cells = archive.gameCells(gameId);
+        for (Object[] cell : cells) {
+            BoardState state = states.get(((Number) cell[1]).longValue());
+            int row = ((Number) cell[4]).intValue();
+            int col = ((Number) cell[5]).intValue();
+            if (((Number) cell[0]).intValue() == 0) {
+                state.addShip(((Number) cell[2]).longValue(), ShipType.valueOf(cell[3].toString()),
+                        row, col, Orientation.valueOf(cell[6].toString()));
+            } else {
+                state.markShot(row, col);
+            }
+        }
+
+        Base64.Encoder b64 = Base64.getEncoder();
+        List<BoardSnapshot> views = new ArrayList<>(boards.size());
+        for (Board b : boards) {
+            BoardState state = states.get(b.getId());
+            for (Shot s : pending.get(b.getId())) state.markShot(s.getRow(), s.getCol());
+            List<String> sunk = new ArrayList<>();
+            for (int i = 0; i < state.getShipCount(); i++) {
+                if (state.isSunk(i)) sunk.add(state.getShipType(i).name());
+            }
+            if (state.getSize() > MAX_TILE_SIDE) {
+                BoardSnapshot view = new BoardSnapshot(b.getId(), b.getOwnerUserId(), state.getSize(), state.getShotCount(),
+                        null, null, null, sunk);
+                view.setTiled(true);
+                views.add(view);
+                continue;
+            }
+            boolean own = Objects.equals(b.getOwnerUserId(), requesterUserId);
+            views.add(new BoardSnapshot(b.getId(), b.getOwnerUserId(), state.getSize(), state.getShotCount(),
+                    b64.encodeToString(state.shotBits()), b64.encodeToString(state.hitBits()),
+                    own ? b64.encodeToString(state.shipBits()) : null, sunk));
+        }
+        return new GameSnapshot(summary, views);
+    }
+
+    /**
+     * One window of a board, built from that board's ships and shots only; ship positions are
+     * only included for the requester's own board. At most {@link #MAX_TILE_SIDE} cells a side.
+     */
+    public BoardTile tile(Long boardId, Long requesterUserId, int row, int col, int rows, int cols) {
+        Board board = findBoard(boardId);
+        int size = sizeOf(board);
+        if (rows < 1 || cols < 1 || rows > MAX_TILE_SIDE || cols > MAX_TILE_SIDE) {
+            throw new IllegalArgumentException("Tiles must be 1 to " + MAX_TILE_SIDE + " cells on a side");
+        }
+        if (row < 0 || col < 0 || row + rows > size || col + cols > size) {
+            throw new IllegalArgumentException("Tile leaves the " + size + "x" + size + " board");
+        }
+        // Pending first: a shot flushed in between is then already in the rows read below
+        List<Shot> pending = liveGameStore.pendingShots(boardId);
+        List<Object[]> cells = shipRepository.findBoardCells(boardId);
+        if (cells.isEmpty()) cells = archive.boardCells(boardId);
+        BoardState state = toBoardState(size, cells);
+        for (Shot s : pending) state.markShot(s.getRow(), s.getCol());
+
+        Base64.Encoder b64 = Base64.getEncoder();
+        boolean own = Objects.equals(board.getOwnerUserId(), requesterUserId);
+        return new BoardTile(boardId, size, row, col, rows, cols,
+                b64.encodeToString(state.shotBits(row, col, rows, cols)),
+                b64.encodeToString(state.hitBits(row, col, rows, cols)),
+                own ? b64.encodeToString(state.shipBits(row, col, rows, cols)) : null);
+    }
+
     public List<Ship> listShips(Long boardId, Long requesterUserId) {
-        Board board = boardRepository.findById(boardId).orElseThrow(() -> new RuntimeException("Board not found"));
+        requireBoardOwner(boardId, requesterUserId);
+        return readCache.ships(boardId, () -> {
+            List<Ship> rows = shipRepository.findByBoardId(boardId);
+            return rows.isEmpty() ? archive.ships(boardId) : rows;
+        });
+    }
+
+    public Board requireBoardOwner(Long boardId, Long requesterUserId) {
+        Board board = findBoard(boardId);
         if (!Objects.equals(board.getOwnerUserId(), requesterUserId)) {
             log.warn("List ships forbidden: requester {} is not owner of board {}", requesterUserId, boardId);
             throw new AccessDeniedException("You can only view your own ships");
         }
-        return shipRepository.findByBoardId(boardId);
+        return board;
     }
 
 
-    public List<GameSummary> listAllGames() {
-        return gameRepository.findAllByOrderByCreatedAtDesc()
-                .stream().map(GameSummary::fromGame).collect(Collectors.toList());
+    public GamePage listAllGames(int limit, String cursor) {
+        int size = pageSize(limit);
+        Limit fetch = Limit.of(size + 1);
+        List<Game> games;
+        if (cursor == null || cursor.isBlank()) {
+            games = gameRepository.findFirstPage(fetch);
+        } else {
+            GameCursor after = GameCursor.decode(cursor);
+            if (after.createdAt() == null) throw new IllegalArgumentException("Invalid cursor");
+            games = gameRepository.findPageAfter(after.createdAt(), after.id(), fetch);
+        }
+        return toPage(games.stream().map(GameSummary::fromGame).collect(Collectors.toList()), size);
+    }
+
+    /**
+     * Served from {@link OpenLobbyIndex}; the cursor's id alone positions the page.
+     */
+    public GamePage listOpenGames(int limit, String cursor) {
+        int size = pageSize(limit);
+        Long beforeId = cursor == null || cursor.isBlank() ? null : GameCursor.decode(cursor).id();
+        return toPage(lobbyIndex.newest(size + 1, beforeId), size);
     }
 
+    private static int pageSize(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be positive");
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
 
-    public List<GameSummary> listOpenGames() {
-        return gameRepository.findByStatusAndPlayer2IdIsNullOrderByCreatedAtDesc(GameStatus.LOBBY)
-                .stream().map(GameSummary::fromGame).collect(Collectors.toList());
+    // One extra row is fetched to learn whether another page exists
+    static GamePage toPage(List<GameSummary> games, int size) {
+        boolean more = games.size() > size;
+        List<GameSummary> page = more ? games.subList(0, size) : games;
+        String next = null;
+        if (more) {
+            GameSummary last = page.get(page.size() - 1);
+            next = new GameCursor(last.getCreatedAt(), last.getGameId()).encode();
+        }
+        return new GamePage(page, next);
     }
 
     @Transactional
     public ShotResponse fireShot(Long gameId, Long shooterUserId, ShootRequest req) {
+        requireCell(gameId, shooterUserId, req);
+        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+        Long targetUserId = checkShotAllowed(game, shooterUserId);
+        requireSingleShots(game);
+        Board targetBoard = boardOf(gameId, targetUserId);
+        if (targetBoard == null) {
+            log.warn("Fire shot rejected: target board not found (game={}, targetUserId={})", gameId, targetUserId);
+            throw new RuntimeException("Target board not found");
+        }
+        int size = sizeOf(targetBoard);
+        int row = req.getRow();
+        int col = req.getCol();
+        BoardState state = toBoardState(size, shipRepository.findBoardCells(targetBoard.getId()));
+        checkShotCell(state, row, col);
+
+        ShotResult result = state.fire(row, col);
+        ShipType sunkType = result == ShotResult.SUNK ? state.getShipType(state.getLastHitShip()) : null;
+        Shot shot = newShot(targetBoard.getId(), shooterUserId, targetUserId, row, col, result, sunkType);
+        shotRepository.save(shot);
+
+        if (result == ShotResult.SUNK) {
+            shipRepository.markSunk(state.getShipId(state.getLastHitShip()));
+            readCache.shipsChanged(targetBoard.getId());
+        }
+
+        applyShotOutcome(game, shot, result == ShotResult.SUNK && state.allSunk());
+        gameRepository.save(game);
+        readCache.shotsChanged(targetBoard.getId());
+        readCache.gameChanged(game);
+
+        GameSummary summary = GameSummary.fromGame(game);
+        eventPublisher.publishEvent(GameEvent.shot(shot, summary));
+        return new ShotResponse(result.name(), shot.getSunkShipType() != null ? shot.getSunkShipType().name() : null, summary);
+    }
+
+    @Transactional
+    public SalvoResponse fireSalvo(Long gameId, Long shooterUserId, List<ShootRequest> shots) {
+        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+        Long targetUserId = checkShotAllowed(game, shooterUserId);
+        Board targetBoard = boardOf(gameId, targetUserId);
+        Board ownBoard = boardOf(gameId, shooterUserId);
+        if (targetBoard == null || ownBoard == null) {
+            log.warn("Salvo rejected: boards not found (game={}, shooter={})", gameId, shooterUserId);
+            throw new RuntimeException("Target board not found");
+        }
+        int allowed = game.getMode() == GameMode.SALVO
+                ? salvoSize(game, (int) shipRepository.countByBoardIdAndSunkFalse(ownBoard.getId()))
+                : salvoSize(game, 0);
+        int size = sizeOf(targetBoard);
+        BoardState state = toBoardState(size, shipRepository.findBoardCells(targetBoard.getId()));
+        checkSalvo(state, allowed, shots);
+
+        List<Shot> fired = new ArrayList<>(shots.size());
+        List<Long> sunkShipIds = new ArrayList<>();
+        for (ShootRequest r : shots) {
+            ShotResult result = state.fire(r.getRow(), r.getCol());
+            ShipType sunkType = null;
+            if (result == ShotResult.SUNK) {
+                sunkType = state.getShipType(state.getLastHitShip());
+                sunkShipIds.add(state.getShipId(state.getLastHitShip()));
+            }
+            fired.add(newShot(targetBoard.getId(), shooterUserId, targetUserId, r.getRow(), r.getCol(), result, sunkType));
+            if (state.allSunk()) break; // the rest of the salvo is not fired
+        }
+        shotRepository.saveAll(fired);
+        if (!sunkShipIds.isEmpty()) {
+            shipRepository.markAllSunk(sunkShipIds);
+            readCache.shipsChanged(targetBoard.getId());
+        }
+
+        applyShotOutcome(game, fired.get(fired.size() - 1), state.allSunk());
+        gameRepository.save(game);
+        readCache.shotsChanged(targetBoard.getId());
+        readCache.gameChanged(game);
+
+        GameSummary summary = GameSummary.fromGame(game);
+        for (Shot shot : fired) eventPublisher.publishEvent(GameEvent.shot(shot, summary));
+        return new SalvoResponse(fired.stream().map(ShotView::fromShot).collect(Collectors.toList()), summary);
+    }
+
+    /**
+     * Shots the player may fire this turn, before capping at the open cells of the target.
+     */
+    public int salvoSize(Long gameId, Long shooterUserId) {
+        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+        if (game.getMode() != GameMode.SALVO) return salvoSize(game, 0);
+        Board own = boardOf(gameId, shooterUserId);
+        if (own == null) throw new RuntimeException("Board not found");
+        return salvoSize(game, (int) shipRepository.countByBoardIdAndSunkFalse(own.getId()));
+    }
+
+    static void requireCell(Long gameId, Long shooterUserId, ShootRequest req) {
         if (req == null || req.getRow() == null || req.getCol() == null) {
             log.warn("Fire shot rejected: missing row/col for game {} by user {}", gameId, shooterUserId);
             throw new RuntimeException("row and col are required");
         }
-        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+    }
+
+    /**
+     * Status, membership and turn checks shared by every shot path. Returns the defending player.
+     */
+    static Long checkShotAllowed(Game game, Long shooterUserId) {
         if (game.getStatus() != GameStatus.IN_PROGRESS) {
-            log.warn("Fire shot rejected: game {} not IN_PROGRESS (status={})", gameId, game.getStatus());
+            log.warn("Fire shot rejected: game {} not IN_PROGRESS (status={})", game.getId(), game.getStatus());
             throw new RuntimeException("Game is not in progress");
         }
         Long p1 = game.getPlayer1Id();
         Long p2 = game.getPlayer2Id();
         if (!Objects.equals(shooterUserId, p1) && !Objects.equals(shooterUserId, p2)) {
-            log.warn("Fire shot rejected: user {} not in game {}", shooterUserId, gameId);
+            log.warn("Fire shot rejected: user {} not in game {}", shooterUserId, game.getId());
             throw new RuntimeException("You are not a player in this game");
         }
         if (!Objects.equals(game.getCurrentTurnUserId(), shooterUserId)) {
-            log.warn("Fire shot rejected: not user {}'s turn in game {}", shooterUserId, gameId);
+            log.warn("Fire shot rejected: not user {}'s turn in game {}", shooterUserId, game.getId());
             throw new RuntimeException("It's not your turn");
         }
-        Long targetUserId = Objects.equals(shooterUserId, p1) ? p2 : p1;
-        Board targetBoard = boardRepository.findByGameIdAndOwnerUserId(gameId, targetUserId);
-        if (targetBoard == null) {
-            log.warn("Fire shot rejected: target board not found (game={}, targetUserId={})", gameId, targetUserId);
-            throw new RuntimeException("Target board not found");
+        return Objects.equals(shooterUserId, p1) ? p2 : p1;
+    }
+
+    static void requireSingleShots(Game game) {
+        if (game.getMode() == GameMode.SALVO) {
+            log.warn("Fire shot rejected: game {} is a salvo game", game.getId());
+            throw new RuntimeException("Salvo games fire all shots of a turn together");
         }
-        int size = targetBoard.getSize() != null ? targetBoard.getSize() : 10;
-        int row = req.getRow();
-        int col = req.getCol();
-        if (row < 0 || row >= size || col < 0 || col >= size) {
-            log.warn("Fire shot rejected: out of bounds (row={}, col={}, size={})", row, col, size);
+    }
+
+    /**
+     * Shots per turn: one in classic games, one per surviving ship of the shooter in salvo games.
+     */
+    static int salvoSize(Game game, int survivingShips) {
+        return game.getMode().shotsPerTurn(survivingShips);
+    }
+
+    /**
+     * Checks every cell of a salvo against the board and against the rest of the salvo, so the
+     * unique (board, row, col) constraint can never be hit. A salvo has exactly {@code allowed}
+     * shots, or fewer only when fewer cells are left.
+     */
+    static void checkSalvo(BoardState state, int allowed, List<ShootRequest> shots) {
+        int size = state.getSize();
+        long expected = Math.min(allowed, (long) size * size - state.getShotCount());
+        if (shots == null || shots.size() != expected) {
+            log.warn("Salvo rejected: expected {} shots, got {}", expected, shots == null ? null : shots.size());
+            throw new RuntimeException("This salvo must have exactly " + expected + " shots");
+        }
+        Set<Long> cells = new HashSet<>();
+        for (ShootRequest r : shots) {
+            if (r == null || r.getRow() == null || r.getCol() == null) {
+                throw new RuntimeException("row and col are required");
+            }
+            checkShotCell(state, r.getRow(), r.getCol());
+            if (!cells.add((long) r.getRow() * size + r.getCol())) {
+                log.warn("Salvo rejected: cell ({},{}) repeated", r.getRow(), r.getCol());
+                throw new RuntimeException("Each cell can only be targeted once per salvo");
+            }
+        }
+    }
+
+    static void checkShotCell(BoardState state, int row, int col) {
+        if (!state.isInBounds(row, col)) {
+            log.warn("Fire shot rejected: out of bounds (row={}, col={}, size={})", row, col, state.getSize());
             throw new RuntimeException("Shot out of bounds");
         }
-        if (shotRepository.existsByBoardIdAndRowAndCol(targetBoard.getId(), row, col)) {
+        if (state.isShot(row, col)) {
             log.warn("Fire shot rejected: already shot cell (row={}, col={})", row, col);
             throw new RuntimeException("This cell has already been shot");
         }
+    }
 
-
-        List<Ship> defenderShips = shipRepository.findByBoardId(targetBoard.getId());
-        Ship hitShip = null;
-        for (Ship s : defenderShips) {
-            if (occupiesCell(s, row, col)) {
-                hitShip = s;
-                break;
-            }
-        }
-
+    static Shot newShot(Long boardId, Long shooterUserId, Long targetUserId, int row, int col, ShotResult result, ShipType sunkType) {
         Shot shot = new Shot();
-        shot.setBoardId(targetBoard.getId());
+        shot.setBoardId(boardId);
         shot.setShooterUserId(shooterUserId);
         shot.setTargetUserId(targetUserId);
         shot.setRow(row);
         shot.setCol(col);
-
-        ShotResult result;
-        ShipType sunkType = null;
-        if (hitShip == null) {
-            result = ShotResult.MISS;
-        } else {
-
-            int length = hitShip.getLength();
-            int hitCellsBefore = countHitCellsForShip(targetBoard.getId(), hitShip, row, col);
-            boolean willBeSunk = (hitCellsBefore + 1) >= length;
-            if (willBeSunk) {
-                result = ShotResult.SUNK;
-                sunkType = hitShip.getType();
-            } else {
-                result = ShotResult.HIT;
-            }
-        }
         shot.setResult(result);
         shot.setSunkShipType(sunkType);
-        shotRepository.save(shot);
-
-        if (result == ShotResult.SUNK) {
-            hitShip.setSunk(true);
-            shipRepository.save(hitShip);
-        }
-
+        return shot;
+    }
 
-        boolean allSunk = false;
-        if (result != ShotResult.MISS) {
-            allSunk = shipRepository.findByBoardId(targetBoard.getId()).stream().allMatch(Ship::getSunk);
-        }
+    /**
+     * Finishes the game or passes the turn to the defender.
+     */
+    static void applyShotOutcome(Game game, Shot shot, boolean allSunk) {
+        touch(game);
         if (allSunk) {
             game.setStatus(GameStatus.FINISHED);
-            game.setWinnerUserId(shooterUserId);
+            game.setWinnerUserId(shot.getShooterUserId());
             game.setCurrentTurnUserId(null);
-            gameRepository.save(game);
-            log.info("Game {} finished. Winner userId={}", gameId, shooterUserId);
+            log.info("Game {} finished. Winner userId={}", game.getId(), shot.getShooterUserId());
         } else {
-
-            game.setCurrentTurnUserId(targetUserId);
-            gameRepository.save(game);
-            log.info("Shot result: {} at ({},{}). Next turn userId={}", result, row, col, targetUserId);
+            game.setCurrentTurnUserId(shot.getTargetUserId());
+            log.info("Shot result: {} at ({},{}). Next turn userId={}", shot.getResult(), shot.getRow(), shot.getCol(), shot.getTargetUserId());
         }
+    }
 
-        return new ShotResponse(result.name(), sunkType != null ? sunkType.name() : null, GameSummary.fromGame(game));
+    static void touch(Game game) {
+        game.setStateVersion(game.getStateVersion() + 1);
     }
 
-    private boolean occupiesCell(Ship s, int row, int col) {
-        int r0 = s.getStartRow();
-        int c0 = s.getStartCol();
-        int len = s.getLength();
-        if (s.getOrientation() == Orientation.HORIZONTAL) {
-            return row == r0 && col >= c0 && col < c0 + len;
-        } else {
-            return col == c0 && row >= r0 && row < r0 + len;
-        }
+    /**
+     * Version of the game's observable state, read from memory when possible.
+     * Read it before the data it labels so a response can never carry a newer tag than its body.
+     */
+    public long gameVersion(Long gameId) {
+        return getGameSummary(gameId).getVersion();
     }
 
-    private int countHitCellsForShip(Long boardId, Ship ship, int currentRow, int currentCol) {
-        int count = 0;
-        int r0 = ship.getStartRow();
-        int c0 = ship.getStartCol();
-        int len = ship.getLength();
-        if (ship.getOrientation() == Orientation.HORIZONTAL) {
-            for (int c = c0; c < c0 + len; c++) {
-                if (c == currentCol && currentRow == r0) continue;
-                if (shotRepository.existsByBoardIdAndRowAndCol(boardId, r0, c)) {
-                    count++;
-                }
-            }
-        } else {
-            for (int r = r0; r < r0 + len; r++) {
-                if (r == currentRow && currentCol == c0) continue;
-                if (shotRepository.existsByBoardIdAndRowAndCol(boardId, r, c0)) {
-                    count++;
-                }
+    /**
+     * Builds the board state from the rows of {@link ShipRepository#findBoardCells}.
+     */
+    static BoardState toBoardState(int size, List<Object[]> cells) {
+        BoardState state = new BoardState(size);
+        for (Object[] cell : cells) {
+            int row = ((Number) cell[3]).intValue();
+            int col = ((Number) cell[4]).intValue();
+            if (((Number) cell[0]).intValue() == 0) {
+                state.addShip(((Number) cell[1]).longValue(), ShipType.valueOf(cell[2].toString()),
+                        row, col, Orientation.valueOf(cell[5].toString()));
+            } else {
+                state.markShot(row, col);
             }
         }
-        return count;
+        return state;
     }
 }
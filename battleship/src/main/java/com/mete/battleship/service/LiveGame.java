@@ -0,0 +1,74 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.engine.BoardState;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.Shot;
+
+import java.util.*;
+
+/**
+ * In-memory state of one game in write-behind or event-sourced mode. {@link #getGame()} and the board
+ * states are only touched from the game's command lane; the summary and pending shot
+ * lists are safe to read from any thread.
+ */
+public class LiveGame {
+    private final Game game;
+    private final Map<Long, Long> boardIdsByOwner = new HashMap<>();
+    private final Map<Long, BoardState> states = new HashMap<>();
+    private final Map<Long, List<Shot>> pendingShots = new HashMap<>();
+    private int pendingCount;
+    private int eventSeq;
+    private volatile GameSummary summary;
+    private volatile long lastAccessMs = System.currentTimeMillis();
+
+    public LiveGame(Game game) {
+        this.game = game;
+        this.summary = GameSummary.fromGame(game);
+    }
+
+    void addBoard(Long boardId, Long ownerUserId, BoardState state) {
+        boardIdsByOwner.put(ownerUserId, boardId);
+        states.put(boardId, state);
+        pendingShots.put(boardId, new ArrayList<>());
+    }
+
+    public Game getGame() {
+        lastAccessMs = System.currentTimeMillis();
+        return game;
+    }
+
+    public Long boardIdOf(Long ownerUserId) { return boardIdsByOwner.get(ownerUserId); }
+    public BoardState state(Long boardId) { return states.get(boardId); }
+    public Collection<Long> boardIds() { return states.keySet(); }
+    public GameSummary getSummary() { return summary; }
+    public long getLastAccessMs() { return lastAccessMs; }
+
+    /** Last game_events row applied to this state (event-sourced mode). */
+    public int getEventSeq() { return eventSeq; }
+    void setEventSeq(int eventSeq) { this.eventSeq = eventSeq; }
+
+    public void refreshSummary() {
+        summary = GameSummary.fromGame(game);
+    }
+
+    public synchronized void addPending(Shot shot) {
+        pendingShots.get(shot.getBoardId()).add(shot);
+        pendingCount++;
+    }
+
+    // Matched by cell: a game reloaded from the event log holds copies of the flushed shots
+    public synchronized void flushed(Shot shot) {
+        List<Shot> list = pendingShots.get(shot.getBoardId());
+        if (list != null && list.removeIf(s -> s.getRow().equals(shot.getRow()) && s.getCol().equals(shot.getCol()))) pendingCount--;
+    }
+
+    public synchronized List<Shot> pendingShots(Long boardId) {
+        List<Shot> list = pendingShots.get(boardId);
+        return list == null || list.isEmpty() ? List.of() : new ArrayList<>(list);
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+}
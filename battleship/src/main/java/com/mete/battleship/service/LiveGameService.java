@@ -0,0 +1,201 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.SalvoResponse;
+import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.dto.ShotResponse;
+import com.mete.battleship.dto.ShotView;
+import com.mete.battleship.engine.BoardState;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.entity.ShotResult;
+import com.mete.battleship.metrics.SqlBudget;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Entry point for shots. With write-behind and event-sourced mode off this is
+ * {@link GameService#fireShot}. With write-behind on, the shot is resolved against
+ * {@link LiveGameStore}, recorded in the {@link ShotJournal} and acknowledged without
+ * waiting for the database. In event-sourced mode the whole turn is resolved in memory and
+ * logged as one {@link GameEventLog} row. Callers must run it on the game's
+ * {@link GameCommandExecutor} lane.
+ */
+@Service
+public class LiveGameService {
+    private static final Logger log = LoggerFactory.getLogger(LiveGameService.class);
+
+    private final GameService gameService;
+    private final LiveGameStore liveGameStore;
+    private final ShotJournal journal;
+    private final GameEventLog eventLog;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LiveGameService(GameService gameService, LiveGameStore liveGameStore, ShotJournal journal, GameEventLog eventLog, ApplicationEventPublisher eventPublisher) {
+        this.gameService = gameService;
+        this.liveGameStore = liveGameStore;
+        this.journal = journal;
+        this.eventLog = eventLog;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private boolean inMemory() {
+        return journal.isEnabled() || eventLog.isEnabled();
+    }
+
+    private LiveGame load(Long gameId) {
+        return eventLog.isEnabled() ? eventLog.load(gameId) : liveGameStore.load(gameId);
+    }
+
+    @Timed(value = "game.operations", extraTags = {"operation", "fireShot"})
+    @SqlBudget(5)
+    public ShotResponse fireShot(Long gameId, Long shooterUserId, ShootRequest req) {
+        if (!inMemory()) {
+            return gameService.fireShot(gameId, shooterUserId, req);
+        }
+        GameService.requireCell(gameId, shooterUserId, req);
+        LiveGame live = load(gameId);
+        Game game = live.getGame();
+        Long targetUserId = GameService.checkShotAllowed(game, shooterUserId);
+        GameService.requireSingleShots(game);
+        Long boardId = live.boardIdOf(targetUserId);
+        if (boardId == null) {
+            log.warn("Fire shot rejected: target board not found (game={}, targetUserId={})", gameId, targetUserId);
+            throw new RuntimeException("Target board not found");
+        }
+        BoardState state = live.state(boardId);
+        int row = req.getRow();
+        int col = req.getCol();
+        GameService.checkShotCell(state, row, col);
+
+        // Journal first: memory is only changed once the shot is in the journal file
+        ShotResult result = state.peek(row, col);
+        int shipIdx = state.shipAt(row, col);
+        ShipType sunkType = result == ShotResult.SUNK ? state.getShipType(shipIdx) : null;
+        Long sunkShipId = result == ShotResult.SUNK ? state.getShipId(shipIdx) : null;
+        boolean allSunk = result == ShotResult.SUNK && state.getSunkCount() + 1 == state.getShipCount();
+        Shot shot = GameService.newShot(boardId, shooterUserId, targetUserId, row, col, result, sunkType);
+        if (eventLog.isEnabled()) {
+            // Memory first: a failed append drops the live game, which is then folded again from the log
+            state.fire(row, col);
+            GameService.applyShotOutcome(game, shot, allSunk);
+            live.addPending(shot);
+            eventLog.appendTurn(live, List.of(new GameEventLog.Fired(shot, sunkShipId)));
+        } else {
+            journal.append(new ShotJournal.Entry(gameId, shot, sunkShipId,
+                    allSunk ? GameStatus.FINISHED : GameStatus.IN_PROGRESS,
+                    allSunk ? null : targetUserId,
+                    allSunk ? shooterUserId : null,
+                    game.getStateVersion() + 1));
+
+            state.fire(row, col);
+            GameService.applyShotOutcome(game, shot, allSunk);
+            live.addPending(shot);
+        }
+        live.refreshSummary();
+
+        GameSummary summary = live.getSummary();
+        eventPublisher.publishEvent(GameEvent.shot(shot, summary));
+        return new ShotResponse(result.name(), sunkType != null ? sunkType.name() : null, summary);
+    }
+
+    /**
+     * Shots the player may fire this turn; see {@link GameService#salvoSize(Long, Long)}.
+     */
+    public int salvoSize(Long gameId, Long shooterUserId) {
+        if (!inMemory()) {
+            return gameService.salvoSize(gameId, shooterUserId);
+        }
+        LiveGame live = load(gameId);
+        Long ownBoardId = live.boardIdOf(shooterUserId);
+        if (ownBoardId == null) throw new RuntimeException("Board not found");
+        BoardState own = live.state(ownBoardId);
+        return GameService.salvoSize(live.getGame(), own.getShipCount() - own.getSunkCount());
+    }
+
+    /**
+     * Fires a whole turn's shots. The turn is resolved before anything changes and then
+     * recorded as one unit, a single journal record or a single event, so a failed write
+     * never leaves half a salvo applied.
+     */
+    @Timed(value = "game.operations", extraTags = {"operation", "fireSalvo"})
+    @SqlBudget(6)
+    public SalvoResponse fireSalvo(Long gameId, Long shooterUserId, List<ShootRequest> shots) {
+        if (!inMemory()) {
+            return gameService.fireSalvo(gameId, shooterUserId, shots);
+        }
+        LiveGame live = load(gameId);
+        Game game = live.getGame();
+        Long targetUserId = GameService.checkShotAllowed(game, shooterUserId);
+        Long boardId = live.boardIdOf(targetUserId);
+        Long ownBoardId = live.boardIdOf(shooterUserId);
+        if (boardId == null || ownBoardId == null) {
+            log.warn("Salvo rejected: boards not found (game={}, shooter={})", gameId, shooterUserId);
+            throw new RuntimeException("Target board not found");
+        }
+        BoardState state = live.state(boardId);
+        BoardState own = live.state(ownBoardId);
+        GameService.checkSalvo(state, GameService.salvoSize(game, own.getShipCount() - own.getSunkCount()), shots);
+
+        // Resolve every shot against the board as the earlier shots of the salvo will leave it
+        List<GameEventLog.Fired> turn = new ArrayList<>(shots.size());
+        Map<Integer, Integer> salvoHits = new HashMap<>();
+        int sunk = state.getSunkCount();
+        boolean allSunk = false;
+        for (ShootRequest r : shots) {
+            int row = r.getRow();
+            int col = r.getCol();
+            int shipIdx = state.shipAt(row, col);
+            ShotResult result = ShotResult.MISS;
+            if (shipIdx >= 0) {
+                int hits = state.getHits(shipIdx) + salvoHits.merge(shipIdx, 1, Integer::sum);
+                result = hits >= state.getShipLength(shipIdx) ? ShotResult.SUNK : ShotResult.HIT;
+            }
+            ShipType sunkType = result == ShotResult.SUNK ? state.getShipType(shipIdx) : null;
+            Long sunkShipId = result == ShotResult.SUNK ? state.getShipId(shipIdx) : null;
+            turn.add(new GameEventLog.Fired(GameService.newShot(boardId, shooterUserId, targetUserId, row, col, result, sunkType), sunkShipId));
+            allSunk = result == ShotResult.SUNK && ++sunk == state.getShipCount();
+            if (allSunk) break; // the rest of the salvo is not fired
+        }
+
+        if (journal.isEnabled()) {
+            // Journal first: memory is only changed once the whole turn is in the journal file
+            List<ShotJournal.Entry> entries = new ArrayList<>(turn.size());
+            for (int i = 0; i < turn.size(); i++) {
+                boolean last = i == turn.size() - 1;
+                entries.add(new ShotJournal.Entry(gameId, turn.get(i).shot(), turn.get(i).sunkShipId(),
+                        allSunk ? GameStatus.FINISHED : GameStatus.IN_PROGRESS,
+                        allSunk ? null : last ? targetUserId : shooterUserId,
+                        allSunk ? shooterUserId : null,
+                        game.getStateVersion() + 1));
+            }
+            journal.appendTurn(entries);
+        }
+        List<Shot> fired = new ArrayList<>(turn.size());
+        for (GameEventLog.Fired f : turn) {
+            Shot shot = f.shot();
+            state.fire(shot.getRow(), shot.getCol());
+            live.addPending(shot);
+            fired.add(shot);
+        }
+        GameService.applyShotOutcome(game, fired.get(fired.size() - 1), allSunk);
+        // Memory first: a failed append drops the live game, which is then folded again from the log
+        if (eventLog.isEnabled()) eventLog.appendTurn(live, turn);
+        live.refreshSummary();
+
+        GameSummary summary = live.getSummary();
+        for (Shot shot : fired) eventPublisher.publishEvent(GameEvent.shot(shot, summary));
+        return new SalvoResponse(fired.stream().map(ShotView::fromShot).collect(Collectors.toList()), summary);
+    }
+}
@@ -0,0 +1,128 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.entity.Board;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.repository.BoardRepository;
+import com.mete.battleship.repository.GameRepository;
+import com.mete.battleship.repository.ShipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Games whose authoritative state is held in memory (write-behind mode). Empty when the mode is off.
+ */
+@Component
+public class LiveGameStore {
+    private static final Logger log = LoggerFactory.getLogger(LiveGameStore.class);
+
+    private final GameRepository gameRepository;
+    private final BoardRepository boardRepository;
+    private final ShipRepository shipRepository;
+    private final Map<Long, LiveGame> games = new ConcurrentHashMap<>();
+    private final Map<Long, LiveGame> gamesByBoard = new ConcurrentHashMap<>();
+
+    public LiveGameStore(GameRepository gameRepository, BoardRepository boardRepository, ShipRepository shipRepository) {
+        this.gameRepository = gameRepository;
+        this.boardRepository = boardRepository;
+        this.shipRepository = shipRepository;
+    }
+
+    /**
+     * Returns the live game, loading it from the database on first use. Call on the game's lane.
+     */
+    public LiveGame load(Long gameId) {
+        LiveGame live = games.get(gameId);
+        if (live != null) return live;
+        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+        live = new LiveGame(game);
+        for (Board b : boardRepository.findByGameId(gameId)) {
+            int size = GameService.sizeOf(b);
+            live.addBoard(b.getId(), b.getOwnerUserId(), GameService.toBoardState(size, shipRepository.findBoardCells(b.getId())));
+        }
+        for (Long boardId : live.boardIds()) gamesByBoard.put(boardId, live);
+        games.put(gameId, live);
+        log.debug("Loaded live state for game {}", gameId);
+        return live;
+    }
+
+    /**
+     * Caches a game built elsewhere, e.g. folded from the event log. Call on the game's lane.
+     */
+    void register(LiveGame live) {
+        Long gameId = live.getSummary().getGameId();
+        for (Long boardId : live.boardIds()) gamesByBoard.put(boardId, live);
+        games.put(gameId, live);
+    }
+
+    public LiveGame find(Long gameId) {
+        return games.get(gameId);
+    }
+
+    public GameSummary summary(Long gameId) {
+        LiveGame live = games.get(gameId);
+        return live != null ? live.getSummary() : null;
+    }
+
+    public List<Shot> pendingShots(Long boardId) {
+        LiveGame live = gamesByBoard.get(boardId);
+        return live != null ? live.pendingShots(boardId) : List.of();
+    }
+
+    public void flushed(Shot shot) {
+        LiveGame live = gamesByBoard.get(shot.getBoardId());
+        if (live != null) live.flushed(shot);
+    }
+
+    public Collection<LiveGame> all() {
+        return games.values();
+    }
+
+    /**
+     * Drops the game from memory unless it still has unflushed shots. Call on the game's lane.
+     */
+    public boolean evict(Long gameId) {
+        LiveGame live = games.get(gameId);
+        if (live == null) return false;
+        if (live.getPendingCount() > 0) return false;
+        games.remove(gameId);
+        for (Long boardId : live.boardIds()) gamesByBoard.remove(boardId);
+        log.debug("Evicted live state for game {}", gameId);
+        return true;
+    }
+
+    /**
+     * Drops the game from memory even with unflushed shots, which must still be recoverable
+     * from the event log. Call on the game's lane.
+     */
+    void discard(Long gameId) {
+        LiveGame live = games.remove(gameId);
+        if (live == null) return;
+        for (Long boardId : live.boardIds()) gamesByBoard.remove(boardId, live);
+        log.debug("Discarded live state for game {}", gameId);
+    }
+
+    /**
+     * Games with nothing left to flush that are finished or were idle for {@code idleMs}.
+     */
+    public List<Long> evictable(long idleMs) {
+        long now = System.currentTimeMillis();
+        List<Long> ids = new ArrayList<>();
+        for (LiveGame live : games.values()) {
+            boolean finished = live.getSummary() != null && GameStatus.FINISHED.name().equals(live.getSummary().getStatus());
+            if (live.getPendingCount() == 0 && (finished || now - live.getLastAccessMs() > idleMs)) {
+                ids.add(live.getSummary().getGameId());
+            }
+        }
+        return ids;
+    }
+}
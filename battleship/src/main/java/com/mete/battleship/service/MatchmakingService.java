@@ -0,0 +1,66 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.engine.Fleet;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameMode;
+import com.mete.battleship.entity.GameStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Quick-match: joins the oldest open game with the requested mode, board size and fleet, or
+ * opens one for the next player asking for the same. Unset parameters mean a classic 10x10
+ * game with the standard fleet.
+ */
+@Service
+public class MatchmakingService {
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingService.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final GameService gameService;
+    private final OpenLobbyIndex lobbyIndex;
+    private final GameCommandExecutor commandExecutor;
+
+    public MatchmakingService(GameService gameService, OpenLobbyIndex lobbyIndex, GameCommandExecutor commandExecutor) {
+        this.gameService = gameService;
+        this.lobbyIndex = lobbyIndex;
+        this.commandExecutor = commandExecutor;
+    }
+
+    public GameSummary quickMatch(Long userId, GameMode mode, Integer size, String fleet) {
+        GameMode gameMode = mode != null ? mode : GameMode.CLASSIC;
+        int boardSize = size != null ? size : GameService.DEFAULT_BOARD_SIZE;
+        Fleet parsed = Fleet.parse(fleet);
+        GameService.checkFleetFits(boardSize, parsed);
+        OpenLobbyIndex.MatchKey key = new OpenLobbyIndex.MatchKey(gameMode.name(), boardSize, parsed.spec());
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            GameSummary candidate = lobbyIndex.claimOldest(userId, key);
+            if (candidate == null) break;
+            Long gameId = candidate.getGameId();
+            try {
+                Game joined = commandExecutor.call(gameId, () -> gameService.joinGame(gameId, userId));
+                log.info("Quick-match paired user {} into game {}", userId, gameId);
+                return GameSummary.fromGame(joined);
+            } catch (RuntimeException e) {
+                log.warn("Quick-match join of game {} by user {} failed: {}", gameId, userId, e.getMessage());
+                GameSummary current = gameService.getGameSummary(gameId);
+                if (GameStatus.LOBBY.name().equals(current.getStatus()) && current.getPlayer2Id() == null) {
+                    // The game is fine, so the failure is about this user; keep the game for others
+                    lobbyIndex.release(candidate);
+                    throw e;
+                }
+                // Otherwise the index lagged behind the database; try the next game
+            }
+        }
+        GameSummary waiting = lobbyIndex.openGameOf(userId, key);
+        if (waiting != null) {
+            log.debug("Quick-match: user {} keeps waiting in game {}", userId, waiting.getGameId());
+            return waiting;
+        }
+        Game created = gameService.createGame(userId, gameMode, boardSize, parsed.spec());
+        log.info("Quick-match opened game {} for user {}", created.getId(), userId);
+        return GameSummary.fromGame(created);
+    }
+}
@@ -0,0 +1,154 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.repository.GameRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of LOBBY games still waiting for a second player, ordered by id
+ * (ids grow with creation time). Games enter when created and leave when joined or
+ * claimed for quick-match; the index is rebuilt from the database at startup.
+ * <p>
+ * Quick-match only pairs players who asked for the same game, so open games are also
+ * grouped by {@link MatchKey} (mode, board size, fleet); a group is dropped once empty.
+ * <p>
+ * Like the command lanes this is per JVM; the database stays the source of truth and
+ * {@code joinGame} still validates every join.
+ */
+@Component
+public class OpenLobbyIndex {
+    private static final Logger log = LoggerFactory.getLogger(OpenLobbyIndex.class);
+
+    /**
+     * What quick-match pairs on; {@code fleet} is the normalized spec from {@code Fleet.spec()}.
+     */
+    record MatchKey(String mode, int boardSize, String fleet) {
+        static MatchKey of(GameSummary game) {
+            return new MatchKey(game.getMode(), game.getBoardSize(), game.getFleet());
+        }
+    }
+
+    private final ConcurrentSkipListMap<Long, GameSummary> open = new ConcurrentSkipListMap<>();
+    // Same games grouped for quick-match; a game is added here last and claimed here first
+    private final Map<MatchKey, ConcurrentSkipListMap<Long, GameSummary>> byKey = new ConcurrentHashMap<>();
+    private final GameRepository gameRepository;
+
+    public OpenLobbyIndex(GameRepository gameRepository, MeterRegistry meterRegistry) {
+        this.gameRepository = gameRepository;
+        Gauge.builder("lobby.open.games", open, Map::size)
+                .description("LOBBY games waiting for a second player")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void rebuild() {
+        open.clear();
+        byKey.clear();
+        gameRepository.findByStatusAndPlayer2IdIsNull(GameStatus.LOBBY)
+                .forEach(g -> add(GameSummary.fromGame(g)));
+        log.info("Open lobby index rebuilt with {} games", open.size());
+    }
+
+    /**
+     * Adds a newly created game once its insert has committed.
+     */
+    public void opened(GameSummary game) {
+        TransactionHooks.afterCommit(() -> add(game));
+    }
+
+    /**
+     * Drops a game that just received its second player.
+     */
+    public void joined(Long gameId) {
+        TransactionHooks.afterCommit(() -> {
+            GameSummary game = open.remove(gameId);
+            if (game != null) removeFromGroup(MatchKey.of(game), gameId);
+        });
+    }
+
+    /**
+     * Atomically removes and returns the oldest open game with the given key not created by
+     * the user, or null. Only one caller can claim a given game; the claimant must join it or
+     * {@link #release} it.
+     */
+    public GameSummary claimOldest(Long userId, MatchKey key) {
+        ConcurrentSkipListMap<Long, GameSummary> group = byKey.get(key);
+        if (group == null) return null;
+        for (Map.Entry<Long, GameSummary> e : group.entrySet()) {
+            if (Objects.equals(e.getValue().getPlayer1Id(), userId)) continue;
+            if (group.remove(e.getKey(), e.getValue())) {
+                open.remove(e.getKey(), e.getValue());
+                removeFromGroup(key, e.getKey());
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a claimed game to the index when the join did not go through.
+     */
+    public void release(GameSummary game) {
+        if (!open.containsKey(game.getGameId())) add(game);
+    }
+
+    /**
+     * Newest waiting game with the given key created by the user, if any.
+     */
+    public GameSummary openGameOf(Long userId, MatchKey key) {
+        ConcurrentSkipListMap<Long, GameSummary> group = byKey.get(key);
+        if (group == null) return null;
+        for (GameSummary g : group.descendingMap().values()) {
+            if (Objects.equals(g.getPlayer1Id(), userId)) return g;
+        }
+        return null;
+    }
+
+    /**
+     * Up to {@code count} games, newest first, with ids below {@code beforeId} when given.
+     */
+    public List<GameSummary> newest(int count, Long beforeId) {
+        NavigableMap<Long, GameSummary> view = beforeId == null ? open.descendingMap() : open.headMap(beforeId, false).descendingMap();
+        List<GameSummary> page = new ArrayList<>(Math.min(count, open.size()));
+        for (GameSummary g : view.values()) {
+            if (page.size() == count) break;
+            page.add(g);
+        }
+        return page;
+    }
+
+    public int size() {
+        return open.size();
+    }
+
+    private void add(GameSummary game) {
+        open.put(game.getGameId(), game);
+        byKey.compute(MatchKey.of(game), (k, group) -> {
+            if (group == null) group = new ConcurrentSkipListMap<>();
+            group.put(game.getGameId(), game);
+            return group;
+        });
+    }
+
+    // Also drops the group once empty; a claimer still iterating a dropped group finds nothing in it
+    private void removeFromGroup(MatchKey key, Long gameId) {
+        byKey.computeIfPresent(key, (k, group) -> {
+            group.remove(gameId);
+            return group.isEmpty() ? null : group;
+        });
+    }
+}
@@ -0,0 +1,259 @@
+package com.mete.battleship.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mete.battleship.engine.Fleet;
+import com.mete.battleship.entity.Board;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.Ship;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Writes game histories as newline-delimited JSON: per game a {@code game} line, its ship
+ * placements as {@code ship} lines and then every shot as a {@code shot} line, in the order
+ * fired. Rows are written to the stream as the JDBC cursor reads them, so neither one game
+ * nor a range of games is ever held in memory.
+ * <p>
+ * Range exports page through the games in keyset order and read the ships and shots of each
+ * page with one query.
+ */
+@Service
+public class ReplayService {
+    private static final Logger log = LoggerFactory.getLogger(ReplayService.class);
+    static final int GAMES_PER_QUERY = 100;
+
+    // Ships (kind 1) before shots (kind 2); created_at orders the shots, ids break ties
+    private static final String EVENTS_SQL = """
+            SELECT b.game_id, 1 AS kind, s.board_id, b.owner_user_id AS user_id, NULL AS target_user_id,
+                   s.type AS ship_type, s.start_row AS r, s.start_col AS c, s.orientation, NULL AS result,
+                   NULL AS created_at, s.id
+              FROM ships s JOIN boards b ON b.id = s.board_id
+             WHERE b.game_id IN (:ids)
+            UNION ALL
+            SELECT b.game_id, 2 AS kind, h.board_id, h.shooter_user_id, h.target_user_id,
+                   h.sunk_ship_type, h.`row`, h.`col`, NULL, h.result,
+                   h.created_at, h.id
+              FROM shots h JOIN boards b ON b.id = h.board_id
+             WHERE b.game_id IN (:ids)
+             ORDER BY game_id, kind, created_at, id
+            """;
+
+    private final GameRepository gameRepository;
+    private final LiveGameStore liveGameStore;
+    private final ObjectMapper objectMapper;
+    private final GameArchive archive;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ReplayService(GameRepository gameRepository, LiveGameStore liveGameStore, ObjectMapper objectMapper, GameArchive archive,
+                         DataSource dataSource, @Value("${app.replay.fetch-size:500}") int fetchSize) {
+        this.gameRepository = gameRepository;
+        this.liveGameStore = liveGameStore;
+        this.objectMapper = objectMapper;
+        this.archive = archive;
+        // Own template: the fetch size applies to exports only
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbc = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Checks that the game's full history is in the database. Call before the response starts,
+     * so a refusal is still an ordinary error response.
+     */
+    public Game requireReplayable(Long gameId) {
+        Game game = gameRepository.findById(gameId).orElseThrow(() -> new RuntimeException("Game not found"));
+        if (game.getStatus() != GameStatus.FINISHED) {
+            throw new IllegalArgumentException("Only finished games can be replayed");
+        }
+        LiveGame live = liveGameStore.find(gameId);
+        if (live != null && live.getPendingCount() > 0) {
+            throw new RuntimeException("Game history is still being written; retry shortly");
+        }
+        return game;
+    }
+
+    public void writeGame(Game game, OutputStream out) throws IOException {
+        try (JsonGenerator json = generator(out)) {
+            writePage(List.of(game), json);
+        }
+    }
+
+    /**
+     * Streams every finished game created in {@code [from, to)}, oldest first.
+     */
+    public void writeRange(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long games = 0;
+        try (JsonGenerator json = generator(out)) {
+            List<Game> page = gameRepository.findFinishedFirstPage(from, to, Limit.of(GAMES_PER_QUERY));
+            while (!page.isEmpty()) {
+                writePage(page, json);
+                json.flush();
+                games += page.size();
+                if (page.size() < GAMES_PER_QUERY) break;
+                Game last = page.get(page.size() - 1);
+                page = gameRepository.findFinishedPageAfter(to, last.getCreatedAt(), last.getId(), Limit.of(GAMES_PER_QUERY));
+            }
+        }
+        log.info("Replay export {} to {}: {} games in {}ms", from, to, games, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        // One object per line; the servlet container owns the stream
+        json.setRootValueSeparator(null);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return json;
+    }
+
+    // Archived games are decoded one at a time and merged into the cursor's game id order
+    private void writePage(List<Game> page, JsonGenerator json) throws IOException {
+        Map<Long, Game> byId = new HashMap<>();
+        List<Game> sorted = new ArrayList<>();
+        for (Game g : page) {
+            if (g.isArchived()) sorted.add(g);
+            else byId.put(g.getId(), g);
+        }
+        sorted.sort(Comparator.comparing(Game::getId));
+        Deque<Game> archived = new ArrayDeque<>(sorted);
+        // Copied: byId shrinks while the query runs
+        Set<Long> live = new HashSet<>(byId.keySet());
+        long[] written = {Long.MIN_VALUE};
+        try {
+            if (!live.isEmpty()) {
+                jdbc.query(EVENTS_SQL, Map.of("ids", live), (ResultSet rs) -> {
+                    long gameId = rs.getLong("game_id");
+                    if (gameId != written[0]) {
+                        while (!archived.isEmpty() && archived.peekFirst().getId() < gameId) writeArchived(archived.pollFirst(), json);
+                        writeHeader(byId.remove(gameId), json);
+                        written[0] = gameId;
+                    }
+                    if (rs.getInt("kind") == 1) writeShip(gameId, rs, json);
+                    else writeShot(gameId, rs, json);
+                });
+            }
+            while (!archived.isEmpty()) writeArchived(archived.pollFirst(), json);
+            // Games without a single ship or shot still get their line
+            for (Game g : page) {
+                if (byId.containsKey(g.getId())) writeHeader(g, json);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeArchived(Game game, JsonGenerator json) {
+        writeHeader(game, json);
+        GameArchiveCodec.Archived data = archive.load(game.getId());
+        if (data == null) return;
+        Map<Long, Long> owners = new HashMap<>();
+        for (Board b : data.boards()) owners.put(b.getId(), b.getOwnerUserId());
+        for (Ship s : data.ships()) {
+            writeShip(game.getId(), s.getBoardId(), owners.get(s.getBoardId()), s.getType().name(), s.getStartRow(), s.getStartCol(),
+                    s.getOrientation().name(), json);
+        }
+        // Same order as the live query: by time, then id
+        List<Shot> shots = new ArrayList<>(data.shots());
+        shots.sort(Comparator.comparing(Shot::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(Shot::getId));
+        for (Shot s : shots) {
+            writeShot(game.getId(), s.getBoardId(), s.getShooterUserId(), s.getTargetUserId(), s.getRow(), s.getCol(),
+                    s.getResult().name(), s.getSunkShipType() != null ? s.getSunkShipType().name() : null, s.getCreatedAt(), json);
+        }
+    }
+
+    private static void writeHeader(Game game, JsonGenerator json) {
+        try {
+            json.writeStartObject();
+            json.writeStringField("type", "game");
+            json.writeNumberField("gameId", game.getId());
+            json.writeStringField("mode", game.getMode().name());
+            json.writeNumberField("boardSize", game.getBoardSize());
+            json.writeStringField("fleet", Fleet.parse(game.getFleet()).spec());
+            json.writeNumberField("player1Id", game.getPlayer1Id());
+            writeNullable(json, "player2Id", game.getPlayer2Id());
+            writeNullable(json, "winnerUserId", game.getWinnerUserId());
+            json.writeStringField("createdAt", game.getCreatedAt() != null ? game.getCreatedAt().toString() : null);
+            endLine(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeShip(long gameId, ResultSet rs, JsonGenerator json) throws SQLException {
+        writeShip(gameId, rs.getLong("board_id"), rs.getLong("user_id"), rs.getString("ship_type"), rs.getInt("r"), rs.getInt("c"),
+                rs.getString("orientation"), json);
+    }
+
+    private static void writeShip(long gameId, long boardId, long ownerUserId, String ship, int row, int col, String orientation,
+                                  JsonGenerator json) {
+        try {
+            json.writeStartObject();
+            json.writeStringField("type", "ship");
+            json.writeNumberField("gameId", gameId);
+            json.writeNumberField("boardId", boardId);
+            json.writeNumberField("ownerUserId", ownerUserId);
+            json.writeStringField("ship", ship);
+            json.writeNumberField("row", row);
+            json.writeNumberField("col", col);
+            json.writeStringField("orientation", orientation);
+            endLine(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeShot(long gameId, ResultSet rs, JsonGenerator json) throws SQLException {
+        Timestamp at = rs.getTimestamp("created_at");
+        writeShot(gameId, rs.getLong("board_id"), rs.getLong("user_id"), rs.getLong("target_user_id"), rs.getInt("r"), rs.getInt("c"),
+                rs.getString("result"), rs.getString("ship_type"), at != null ? at.toLocalDateTime() : null, json);
+    }
+
+    private static void writeShot(long gameId, long boardId, long shooterUserId, long targetUserId, int row, int col, String result,
+                                  String sunkShipType, LocalDateTime createdAt, JsonGenerator json) {
+        try {
+            json.writeStartObject();
+            json.writeStringField("type", "shot");
+            json.writeNumberField("gameId", gameId);
+            json.writeNumberField("boardId", boardId);
+            json.writeNumberField("shooterUserId", shooterUserId);
+            json.writeNumberField("targetUserId", targetUserId);
+            json.writeNumberField("row", row);
+            json.writeNumberField("col", col);
+            json.writeStringField("result", result);
+            json.writeStringField("sunkShipType", sunkShipType);
+            json.writeStringField("createdAt", createdAt != null ? createdAt.toString() : null);
+            endLine(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void endLine(JsonGenerator json) throws IOException {
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeNullable(JsonGenerator json, String field, Long value) throws IOException {
+        if (value == null) json.writeNullField(field);
+        else json.writeNumberField(field, value);
+    }
+}
@@ -0,0 +1,434 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.entity.ShotResult;
+import com.mete.battleship.repository.GameRepository;
+import com.mete.battleship.repository.ShipRepository;
+import com.mete.battleship.repository.ShotRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind journal for shots. Each accepted shot is appended to a local segment file
+ * and queued in memory; a background flusher rotates the segment every durability window
+ * (or once it holds {@code max-batch} entries) and writes the whole segment to the
+ * database in one transaction (group commit), then deletes the file.
+ * <p>
+ * Segments left on disk by a crash are replayed into the database on startup, whether or
+ * not write-behind mode is still enabled. When the database rejects a segment
+ * {@code max-attempts} times in a row, its games are committed one by one; the shots of each
+ * game that still fails, in that segment and every later unflushed one, go to a
+ * {@code *.quarantined} file for an operator to inspect, and the game is reloaded from the
+ * database. One bad entry neither stalls other games nor leaves a gap that later shots of its
+ * own game would commit over.
+ * <p>
+ * With {@code sync} off, an append reaches the OS page cache but not the disk, and a power
+ * loss can lose acknowledged shots; a process crash cannot.
+ */
+@Component
+public class ShotJournal {
+    private static final Logger log = LoggerFactory.getLogger(ShotJournal.class);
+    private static final String SEGMENT_PREFIX = "shots-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String QUARANTINE_SUFFIX = ".quarantined";
+    // Joins the entries of one turn into a single line, so a torn write loses the whole turn
+    private static final String TURN_SEPARATOR = "|";
+
+    public record Entry(Long gameId, Shot shot, Long sunkShipId, GameStatus status, Long currentTurnUserId, Long winnerUserId, long stateVersion) {}
+
+    private record Segment(Path file, List<Entry> entries) {}
+
+    private final ShotRepository shotRepository;
+    private final ShipRepository shipRepository;
+    private final GameRepository gameRepository;
+    private final LiveGameStore liveGameStore;
+    private final GameCommandExecutor commandExecutor;
+    private final GameReadCache readCache;
+    private final TransactionTemplate tx;
+
+    @Value("${app.game.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.game.write-behind.window-ms:200}")
+    private long windowMs;
+
+    @Value("${app.game.write-behind.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${app.game.write-behind.sync:true}")
+    private boolean sync;
+
+    @Value("${app.game.write-behind.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.game.write-behind.idle-evict-ms:600000}")
+    private long idleEvictMs;
+
+    @Value("${app.game.write-behind.dir:data/journal}")
+    private String dir;
+
+    private final Object lock = new Object();
+    private Path directory;
+    private long segmentSeq;
+    private Path segmentFile;
+    private FileOutputStream segmentOut;
+    private Writer segmentWriter;
+    private List<Entry> segmentEntries = new ArrayList<>();
+
+    // Rotated segments not yet committed; only touched by the flusher thread
+    private final Deque<Segment> unflushed = new ArrayDeque<>();
+    private int headFailures;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private ScheduledExecutorService flusher;
+
+    public ShotJournal(ShotRepository shotRepository, ShipRepository shipRepository, GameRepository gameRepository,
+                       LiveGameStore liveGameStore, GameCommandExecutor commandExecutor, GameReadCache readCache,
+                       PlatformTransactionManager transactionManager) {
+        this.shotRepository = shotRepository;
+        this.shipRepository = shipRepository;
+        this.gameRepository = gameRepository;
+        this.liveGameStore = liveGameStore;
+        this.commandExecutor = commandExecutor;
+        this.readCache = readCache;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        directory = Paths.get(dir);
+        if (Files.isDirectory(directory)) {
+            replay();
+        }
+        if (!enabled) return;
+        Files.createDirectories(directory);
+        synchronized (lock) {
+            openSegment();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "shot-journal-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        log.info("Write-behind shot journal enabled: dir={}, window={}ms, maxBatch={}, sync={}", directory.toAbsolutePath(), windowMs, maxBatch, sync);
+    }
+
+    /**
+     * Appends an entry to the current segment, fsyncing it when {@code sync} is on. Throws if
+     * the write fails, in which case the shot must not be acknowledged.
+     */
+    public void append(Entry entry) {
+        appendTurn(List.of(entry));
+    }
+
+    /**
+     * Appends the shots of one turn as a single record: after a crash either all of them are
+     * replayed or none. Same failure contract as {@link #append}.
+     */
+    public void appendTurn(List<Entry> entries) {
+        if (!enabled) throw new IllegalStateException("Write-behind mode is disabled");
+        StringBuilder line = new StringBuilder();
+        for (Entry e : entries) {
+            if (!line.isEmpty()) line.append(TURN_SEPARATOR);
+            line.append(format(e));
+        }
+        line.append('\n');
+        int size;
+        synchronized (lock) {
+            try {
+                segmentWriter.write(line.toString());
+                segmentWriter.flush();
+                if (sync) segmentOut.getFD().sync();
+            } catch (IOException e) {
+                log.error("Shot journal write failed for game {}: {}", entries.get(0).gameId(), e.getMessage());
+                throw new UncheckedIOException("Could not record shot", e);
+            }
+            segmentEntries.addAll(entries);
+            size = segmentEntries.size();
+        }
+        if (size >= maxBatch && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Shot journal flush failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rotates the current segment and group-commits all outstanding segments in order.
+     */
+    void flush() throws IOException {
+        flushRequested.set(false);
+        Segment rotated = rotate();
+        if (rotated != null) unflushed.addLast(rotated);
+        while (!unflushed.isEmpty()) {
+            Segment segment = unflushed.peekFirst();
+            try {
+                commit(segment.entries(), false);
+            } catch (RuntimeException e) {
+                if (++headFailures < maxAttempts) throw e;
+                headFailures = 0;
+                quarantineFailingGames(segment, e);
+                continue;
+            }
+            headFailures = 0;
+            Files.deleteIfExists(segment.file());
+            unflushed.removeFirst();
+            for (Entry e : segment.entries()) liveGameStore.flushed(e.shot());
+            log.debug("Flushed {} journaled shots from {}", segment.entries().size(), segment.file().getFileName());
+        }
+        evictIdleGames();
+    }
+
+    private void commit(List<Entry> entries, boolean replay) {
+        try {
+            commitOnce(entries, replay);
+        } catch (RuntimeException e) {
+            // Ids assigned by the rolled-back inserts must not survive into the retry
+            for (Entry entry : entries) entry.shot().setId(null);
+            throw e;
+        }
+        // Cached reads predate these rows; live games are served from memory until evicted
+        for (Entry e : entries) {
+            readCache.gameEvicted(e.gameId());
+            readCache.shotsChanged(e.shot().getBoardId());
+            if (e.sunkShipId() != null) readCache.shipsChanged(e.shot().getBoardId());
+        }
+    }
+
+    private void commitOnce(List<Entry> entries, boolean replay) {
+        tx.executeWithoutResult(status -> {
+            List<Shot> shots = new ArrayList<>(entries.size());
+            Map<Long, Entry> lastByGame = new LinkedHashMap<>();
+            for (Entry e : entries) {
+                Shot s = e.shot();
+                // A crash between commit and segment deletion replays rows that already exist
+                if (!replay || !shotRepository.existsByBoardIdAndRowAndCol(s.getBoardId(), s.getRow(), s.getCol())) {
+                    shots.add(s);
+                }
+                lastByGame.put(e.gameId(), e);
+            }
+            shotRepository.saveAll(shots);
+            for (Entry e : entries) {
+                if (e.sunkShipId() != null) shipRepository.markSunk(e.sunkShipId());
+            }
+            for (Entry e : lastByGame.values()) {
+                gameRepository.updateState(e.gameId(), e.status(), e.currentTurnUserId(), e.winnerUserId(), e.stateVersion());
+            }
+        });
+    }
+
+    /**
+     * Closes the current segment and opens a new one; returns the closed segment, or null
+     * if it held nothing.
+     */
+    private Segment rotate() throws IOException {
+        synchronized (lock) {
+            if (segmentEntries.isEmpty()) return null;
+            segmentWriter.close();
+            Segment closed = new Segment(segmentFile, segmentEntries);
+            openSegment();
+            return closed;
+        }
+    }
+
+    /**
+     * Commits the head segment game by game and quarantines the games that still fail,
+     * together with their shots in later segments. Leaves the rest of the head segment
+     * committed and removed.
+     */
+    private void quarantineFailingGames(Segment head, RuntimeException cause) throws IOException {
+        Map<Long, List<Entry>> byGame = new LinkedHashMap<>();
+        for (Entry e : head.entries()) byGame.computeIfAbsent(e.gameId(), k -> new ArrayList<>()).add(e);
+        List<Entry> quarantined = new ArrayList<>();
+        Set<Long> failed = new LinkedHashSet<>();
+        for (Map.Entry<Long, List<Entry>> game : byGame.entrySet()) {
+            try {
+                commit(game.getValue(), false);
+                for (Entry e : game.getValue()) liveGameStore.flushed(e.shot());
+            } catch (RuntimeException e) {
+                failed.add(game.getKey());
+                quarantined.addAll(game.getValue());
+            }
+        }
+        unflushed.removeFirst();
+        for (Long gameId : failed) {
+            // On the lane: shots journaled before the discard are stale, later ones start from the database
+            Segment rotated = commandExecutor.call(gameId, () -> {
+                liveGameStore.discard(gameId);
+                try {
+                    return rotate();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (rotated != null) unflushed.addLast(rotated);
+            quarantined.addAll(dropLaterEntries(gameId));
+        }
+        if (!quarantined.isEmpty()) {
+            Path target = head.file().resolveSibling(head.file().getFileName() + QUARANTINE_SUFFIX);
+            StringBuilder lines = new StringBuilder();
+            for (Entry e : quarantined) lines.append(format(e)).append('\n');
+            Files.writeString(target, lines, StandardCharsets.UTF_8);
+            log.error("Shot journal commit failed {} times for games {}; moved their {} unflushed shots to {}: {}",
+                    maxAttempts, failed, quarantined.size(), target.getFileName(), cause.getMessage(), cause);
+        }
+        Files.deleteIfExists(head.file());
+    }
+
+    /**
+     * Removes the game's entries from every unflushed segment, rewriting their files, and
+     * returns them.
+     */
+    private List<Entry> dropLaterEntries(Long gameId) throws IOException {
+        List<Entry> dropped = new ArrayList<>();
+        List<Segment> kept = new ArrayList<>(unflushed.size());
+        for (Segment segment : unflushed) {
+            List<Entry> rest = new ArrayList<>(segment.entries().size());
+            for (Entry e : segment.entries()) {
+                if (e.gameId().equals(gameId)) dropped.add(e);
+                else rest.add(e);
+            }
+            if (rest.size() == segment.entries().size()) {
+                kept.add(segment);
+                continue;
+            }
+            if (rest.isEmpty()) {
+                Files.deleteIfExists(segment.file());
+                continue;
+            }
+            Path tmp = segment.file().resolveSibling(segment.file().getFileName() + ".tmp");
+            StringBuilder lines = new StringBuilder();
+            for (Entry e : rest) lines.append(format(e)).append('\n');
+            Files.writeString(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, segment.file(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            kept.add(new Segment(segment.file(), rest));
+        }
+        unflushed.clear();
+        unflushed.addAll(kept);
+        return dropped;
+    }
+
+    private void evictIdleGames() {
+        for (Long gameId : liveGameStore.evictable(idleEvictMs)) {
+            commandExecutor.run(gameId, () -> liveGameStore.evict(gameId));
+        }
+    }
+
+    private void replay() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            List<Entry> entries = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        List<Entry> turn = new ArrayList<>();
+                        for (String record : line.split(Pattern.quote(TURN_SEPARATOR))) turn.add(parse(record));
+                        entries.addAll(turn);
+                    } catch (RuntimeException e) {
+                        // A torn last line means the turn was never acknowledged
+                        log.warn("Skipping unreadable journal line in {}: {}", file.getFileName(), line);
+                    }
+                }
+            }
+            if (!entries.isEmpty()) {
+                commit(entries, true);
+            }
+            Files.delete(file);
+            log.info("Replayed {} journaled shots from {}", entries.size(), file.getFileName());
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segmentFile = directory.resolve(String.format("%s%013d-%06d%s", SEGMENT_PREFIX, System.currentTimeMillis(), segmentSeq++ % 1_000_000, SEGMENT_SUFFIX));
+        segmentOut = new FileOutputStream(segmentFile.toFile(), true);
+        segmentWriter = new BufferedWriter(new OutputStreamWriter(segmentOut, StandardCharsets.UTF_8));
+        segmentEntries = new ArrayList<>();
+    }
+
+    private static String format(Entry e) {
+        Shot s = e.shot();
+        return String.join("\t",
+                e.gameId().toString(), s.getBoardId().toString(), s.getShooterUserId().toString(), s.getTargetUserId().toString(),
+                s.getRow().toString(), s.getCol().toString(), s.getResult().name(), str(s.getSunkShipType()),
+                str(e.sunkShipId()), e.status().name(), str(e.currentTurnUserId()), str(e.winnerUserId()),
+                Long.toString(e.stateVersion()));
+    }
+
+    private static Entry parse(String line) {
+        String[] f = line.split("\t", -1);
+        if (f.length != 13 && f.length != 12) throw new IllegalArgumentException("Expected 13 fields, got " + f.length);
+        Shot s = new Shot();
+        s.setBoardId(Long.valueOf(f[1]));
+        s.setShooterUserId(Long.valueOf(f[2]));
+        s.setTargetUserId(Long.valueOf(f[3]));
+        s.setRow(Integer.valueOf(f[4]));
+        s.setCol(Integer.valueOf(f[5]));
+        s.setResult(ShotResult.valueOf(f[6]));
+        s.setSunkShipType(f[7].isEmpty() ? null : ShipType.valueOf(f[7]));
+        return new Entry(Long.valueOf(f[0]), s, f[8].isEmpty() ? null : Long.valueOf(f[8]),
+                GameStatus.valueOf(f[9]), f[10].isEmpty() ? null : Long.valueOf(f[10]), f[11].isEmpty() ? null : Long.valueOf(f[11]),
+                f.length == 13 ? Long.parseLong(f[12]) : -1L);
+    }
+
+    private static String str(Object o) {
+        return o == null ? "" : o.toString();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher == null) return;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+            flush();
+            synchronized (lock) {
+                segmentWriter.close();
+                if (segmentEntries.isEmpty()) Files.deleteIfExists(segmentFile);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Final shot journal flush failed; segments will be replayed on next start: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.mete.battleship.websocket;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.ShotResult;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Binary frame layout of the gameplay WebSocket. All integers are big-endian and unsigned.
+ *
+ * <pre>
+ * client -> server
+ *   FIRE          op=0x01 seq:u16 row:u16 col:u16                                    (7 bytes)
+ *   PING          op=0x02 seq:u16                                                    (3 bytes)
+ * server -> client
+ *   SHOT_RESULT   op=0x81 seq:u16 row:u16 col:u16 result:u8 sunk:u8 status:u8 flags:u8 (11 bytes)
+ *   OPPONENT_SHOT op=0x82 seq=0     row:u16 col:u16 result:u8 sunk:u8 status:u8 flags:u8 (11 bytes)
+ *   PONG          op=0x83 seq:u16                                                    (3 bytes)
+ *   ERROR         op=0x8F seq:u16 code:u8 message:utf8
+ * </pre>
+ * {@code result}: 0 miss, 1 hit, 2 sunk. {@code sunk}: 0 or {@link ShipType} ordinal + 1.
+ * {@code status}: 0 lobby, 1 placing, 2 in progress, 3 finished.
+ * {@code flags}: bit 0 = receiver's turn next, bit 1 = receiver won.
+ */
+public final class GameFrames {
+    private GameFrames() {}
+
+    public static final byte FIRE = 0x01;
+    public static final byte PING = 0x02;
+    public static final byte SHOT_RESULT = (byte) 0x81;
+    public static final byte OPPONENT_SHOT = (byte) 0x82;
+    public static final byte PONG = (byte) 0x83;
+    public static final byte ERROR = (byte) 0x8F;
+
+    public static final int ERR_BAD_FRAME = 1;
+    public static final int ERR_REJECTED = 2;
+    public static final int ERR_BUSY = 3;
+    public static final int ERR_INTERNAL = 4;
+
+    public static final int FLAG_YOUR_TURN = 1;
+    public static final int FLAG_YOU_WON = 2;
+
+    private static final int SHOT_FRAME_LENGTH = 11;
+
+    public record Command(byte op, int seq, int row, int col) {}
+
+    public static Command decode(ByteBuffer in) {
+        if (in.remaining() < 3) throw new IllegalArgumentException("Frame too short");
+        byte op = in.get();
+        int seq = Short.toUnsignedInt(in.getShort());
+        if (op == FIRE) {
+            if (in.remaining() != 4) throw new IllegalArgumentException("FIRE frame must be 7 bytes");
+            return new Command(op, seq, Short.toUnsignedInt(in.getShort()), Short.toUnsignedInt(in.getShort()));
+        }
+        if (op == PING) {
+            return new Command(op, seq, 0, 0);
+        }
+        throw new IllegalArgumentException("Unknown op 0x" + Integer.toHexString(op & 0xFF));
+    }
+
+    public static byte[] shot(byte op, int seq, int row, int col, String result, String sunkShipType, GameSummary game, Long receiverUserId) {
+        ByteBuffer out = ByteBuffer.allocate(SHOT_FRAME_LENGTH);
+        out.put(op);
+        out.putShort((short) seq);
+        out.putShort((short) row);
+        out.putShort((short) col);
+        out.put(resultCode(result));
+        out.put(sunkShipType == null ? 0 : (byte) (ShipType.valueOf(sunkShipType).ordinal() + 1));
+        out.put(statusCode(game.getStatus()));
+        int flags = 0;
+        if (Objects.equals(game.getCurrentTurnUserId(), receiverUserId)) flags |= FLAG_YOUR_TURN;
+        if (Objects.equals(game.getWinnerUserId(), receiverUserId)) flags |= FLAG_YOU_WON;
+        out.put((byte) flags);
+        return out.array();
+    }
+
+    public static byte[] pong(int seq) {
+        return ByteBuffer.allocate(3).put(PONG).putShort((short) seq).array();
+    }
+
+    public static byte[] error(int seq, int code, String message) {
+        byte[] text = message != null ? message.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return ByteBuffer.allocate(4 + text.length).put(ERROR).putShort((short) seq).put((byte) code).put(text).array();
+    }
+
+    private static byte resultCode(String result) {
+        return switch (ShotResult.valueOf(result)) {
+            case MISS -> 0;
+            case HIT -> 1;
+            case SUNK -> 2;
+        };
+    }
+
+    private static byte statusCode(String status) {
+        return switch (GameStatus.valueOf(status)) {
+            case LOBBY -> 0;
+            case PLACING -> 1;
+            case IN_PROGRESS -> 2;
+            case FINISHED -> 3;
+        };
+    }
+}
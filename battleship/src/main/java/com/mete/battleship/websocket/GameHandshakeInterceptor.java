@@ -0,0 +1,70 @@
+package com.mete.battleship.websocket;
+
+import com.mete.battleship.security.SecurityUtils;
+import com.mete.battleship.service.GameService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves the game id from the path and the user from the security context established by
+ * {@code JwtAuthFilter} on the upgrade request, so the token is verified once per connection.
+ * Only the game's players may connect.
+ */
+@Component
+public class GameHandshakeInterceptor implements HandshakeInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(GameHandshakeInterceptor.class);
+
+    static final String GAME_ID = "gameId";
+    static final String USER_ID = "userId";
+    static final String SAFE_SESSION = "safeSession";
+
+    private final GameService gameService;
+
+    public GameHandshakeInterceptor(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Override
+    public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                   @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+        String path = request.getURI().getPath();
+        Long gameId;
+        try {
+            gameId = Long.valueOf(path.substring(path.lastIndexOf('/') + 1));
+        } catch (NumberFormatException e) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return false;
+        }
+        Optional<Long> userId = SecurityUtils.currentUserId();
+        if (userId.isEmpty()) {
+            log.warn("Game socket handshake rejected: unauthenticated (gameId={})", gameId);
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        try {
+            gameService.requirePlayer(gameId, userId.get());
+        } catch (RuntimeException e) {
+            log.warn("Game socket handshake rejected for user {} (gameId={}): {}", userId.get(), gameId, e.getMessage());
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            return false;
+        }
+        attributes.put(GAME_ID, gameId);
+        attributes.put(USER_ID, userId.get());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                               @NonNull WebSocketHandler wsHandler, Exception exception) {
+    }
+}
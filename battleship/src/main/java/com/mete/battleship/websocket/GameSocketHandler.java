@@ -0,0 +1,235 @@
+package com.mete.battleship.websocket;
+
+import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.dto.ShotEvent;
+import com.mete.battleship.dto.ShotResponse;
+import com.mete.battleship.dto.ShotView;
+import com.mete.battleship.service.GameCommandExecutor;
+import com.mete.battleship.service.GameEvent;
+import com.mete.battleship.service.LiveGameService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gameplay over a binary WebSocket ({@link GameFrames}). The user is authenticated once at
+ * handshake by {@link GameHandshakeInterceptor}; every FIRE frame then goes through the same
+ * command lane and rules as {@code POST /games/{gameId}/shots}.
+ * <p>
+ * Opponent shots are published from game command lanes, so pushing them never touches a
+ * socket there: each connection has its own queue, drained by a small {@code ws-fanout}
+ * pool. A connection with more than {@code app.ws.client-queue} frames still waiting is
+ * closed; the client reconnects and reloads the game over REST.
+ */
+@Component
+public class GameSocketHandler extends BinaryWebSocketHandler {
+    private static final Logger log = LoggerFactory.getLogger(GameSocketHandler.class);
+    private static final int SEND_TIME_LIMIT_MS = 5_000;
+    private static final int SEND_BUFFER_LIMIT = 16 * 1024;
+    private static final String OUTBOX = "outbox";
+
+    /**
+     * One socket and the pushed frames queued for it. At most one drain task runs per
+     * socket, so frames reach the client in order.
+     */
+    private final class Outbox {
+        private final Long gameId;
+        private final Long userId;
+        private final WebSocketSession session;
+        private final ArrayDeque<byte[]> pending = new ArrayDeque<>(); // guarded by itself
+        private boolean draining;
+        private boolean closed;
+
+        Outbox(Long gameId, Long userId, WebSocketSession session) {
+            this.gameId = gameId;
+            this.userId = userId;
+            this.session = session;
+        }
+
+        /**
+         * Queues the frame without blocking; closes the socket instead if it is too far behind.
+         */
+        void offer(byte[] frame) {
+            boolean slow;
+            synchronized (pending) {
+                if (closed) return;
+                slow = pending.size() >= clientQueue;
+                if (!slow) {
+                    pending.addLast(frame);
+                    if (draining) return;
+                    draining = true;
+                }
+            }
+            try {
+                if (slow) {
+                    log.debug("Game socket {} dropped: more than {} frames waiting", session.getId(), clientQueue);
+                    close();
+                    fanout.execute(() -> closeQuietly(session, CloseStatus.SESSION_NOT_RELIABLE));
+                } else {
+                    fanout.execute(this::drain);
+                }
+            } catch (RejectedExecutionException e) {
+                close(); // shutting down
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                byte[] frame;
+                synchronized (pending) {
+                    frame = pending.pollFirst();
+                    if (frame == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    session.sendMessage(new BinaryMessage(frame));
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Dropping push to closed socket {}: {}", session.getId(), e.getMessage());
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            synchronized (pending) {
+                closed = true;
+                pending.clear();
+            }
+            Set<Outbox> outboxes = sessionsByGame.get(gameId);
+            if (outboxes != null) {
+                outboxes.remove(this);
+                if (outboxes.isEmpty()) sessionsByGame.remove(gameId, outboxes);
+            }
+        }
+    }
+
+    private final GameCommandExecutor commandExecutor;
+    private final LiveGameService liveGameService;
+    private final Map<Long, Set<Outbox>> sessionsByGame = new ConcurrentHashMap<>();
+    private final ExecutorService fanout;
+
+    @Value("${app.ws.client-queue:64}")
+    private int clientQueue;
+
+    public GameSocketHandler(GameCommandExecutor commandExecutor, LiveGameService liveGameService,
+                             @Value("${app.ws.fanout-threads:4}") int fanoutThreads) {
+        this.commandExecutor = commandExecutor;
+        this.liveGameService = liveGameService;
+        AtomicInteger fanoutIds = new AtomicInteger();
+        this.fanout = Executors.newFixedThreadPool(fanoutThreads, r -> {
+            Thread t = new Thread(r, "ws-fanout-" + fanoutIds.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession safe = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT);
+        Outbox outbox = new Outbox(gameId(session), userId(session), safe);
+        session.getAttributes().put(GameHandshakeInterceptor.SAFE_SESSION, safe);
+        session.getAttributes().put(OUTBOX, outbox);
+        sessionsByGame.computeIfAbsent(gameId(session), id -> ConcurrentHashMap.newKeySet()).add(outbox);
+        log.info("Game socket opened: gameId={}, userId={}", gameId(session), userId(session));
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        WebSocketSession out = (WebSocketSession) session.getAttributes().get(GameHandshakeInterceptor.SAFE_SESSION);
+        GameFrames.Command cmd;
+        try {
+            cmd = GameFrames.decode(message.getPayload());
+        } catch (IllegalArgumentException e) {
+            out.sendMessage(new BinaryMessage(GameFrames.error(0, GameFrames.ERR_BAD_FRAME, e.getMessage())));
+            return;
+        }
+        if (cmd.op() == GameFrames.PING) {
+            out.sendMessage(new BinaryMessage(GameFrames.pong(cmd.seq())));
+            return;
+        }
+        Long gameId = gameId(session);
+        Long userId = userId(session);
+        ShootRequest req = new ShootRequest();
+        req.setRow(cmd.row());
+        req.setCol(cmd.col());
+        byte[] reply;
+        try {
+            ShotResponse resp = commandExecutor.call(gameId, () -> liveGameService.fireShot(gameId, userId, req));
+            reply = GameFrames.shot(GameFrames.SHOT_RESULT, cmd.seq(), cmd.row(), cmd.col(),
+                    resp.getResult(), resp.getSunkShipType(), resp.getGame(), userId);
+        } catch (RejectedExecutionException e) {
+            reply = GameFrames.error(cmd.seq(), GameFrames.ERR_BUSY, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Socket shot rejected: gameId={}, userId={}: {}", gameId, userId, e.getMessage());
+            reply = GameFrames.error(cmd.seq(), GameFrames.ERR_REJECTED, e.getMessage());
+        }
+        out.sendMessage(new BinaryMessage(reply));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Outbox outbox = (Outbox) session.getAttributes().get(OUTBOX);
+        if (outbox != null) outbox.close();
+        log.info("Game socket closed: gameId={}, userId={}, status={}", gameId(session), userId(session), status);
+    }
+
+    /**
+     * Queues shots for the other players' sockets; the shooter already got SHOT_RESULT.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameEvent(GameEvent event) {
+        if (!GameEvent.SHOT.equals(event.type())) return;
+        Set<Outbox> outboxes = sessionsByGame.get(event.gameId());
+        if (outboxes == null) return;
+        ShotEvent shotEvent = (ShotEvent) event.payload();
+        ShotView shot = shotEvent.getShot();
+        for (Outbox out : outboxes) {
+            if (Objects.equals(out.userId, shot.getShooterUserId())) continue;
+            out.offer(GameFrames.shot(GameFrames.OPPONENT_SHOT, 0, shot.getRow(), shot.getCol(),
+                    shot.getResult(), shot.getSunkShipType(), shotEvent.getGame(), out.userId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanout.shutdownNow();
+    }
+
+    private static void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Closing socket {} failed: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private static Long gameId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(GameHandshakeInterceptor.GAME_ID);
+    }
+
+    private static Long userId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(GameHandshakeInterceptor.USER_ID);
+    }
+}
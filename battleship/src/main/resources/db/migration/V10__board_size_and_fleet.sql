@@ -0,0 +1,10 @@
+-- Board size and fleet are chosen at creation; an empty fleet means one ship of each type
+ALTER TABLE games
+    ADD COLUMN board_size INT NOT NULL DEFAULT 10;
+
+ALTER TABLE games
+    ADD COLUMN fleet VARCHAR(255) NOT NULL DEFAULT '';
+
+-- Custom fleets may hold several ships of a type; V2's idx_ships_board still covers the board foreign key
+ALTER TABLE ships
+    DROP CONSTRAINT uq_ships_type_per_board;
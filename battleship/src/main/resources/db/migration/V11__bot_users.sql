@@ -0,0 +1,5 @@
+-- Server-side opponents, one per difficulty. The password is not a BCrypt hash, so nobody can log in as a bot
+INSERT INTO users (username, email, password) VALUES
+    ('bot-easy', 'bot-easy@bots.invalid', '!'),
+    ('bot-medium', 'bot-medium@bots.invalid', '!'),
+    ('bot-hard', 'bot-hard@bots.invalid', '!');
@@ -0,0 +1,24 @@
+-- Append-only command log for event-sourced mode (app.game.event-sourcing.enabled): one row per
+-- command, numbered per game. The primary key makes a second writer for the same slot fail.
+-- No foreign key: the log is written before the projected games row in the same transaction.
+CREATE TABLE game_events(
+    game_id BIGINT NOT NULL,
+    seq INT NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    payload MEDIUMTEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (game_id, seq)
+)ENGINE = INNODB;
+
+-- Latest folded state per game, so a load reads only the events after it
+CREATE TABLE game_snapshots(
+    game_id BIGINT PRIMARY KEY,
+    seq INT NOT NULL,
+    state MEDIUMTEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+)ENGINE = INNODB;
+
+-- Last event applied to games/boards/ships/shots; 0 for games played without the log
+ALTER TABLE games
+    ADD COLUMN projected_seq INT NOT NULL DEFAULT 0;
@@ -0,0 +1,24 @@
+-- Finished games whose boards, ships and shots were moved out of the live tables, one compact
+-- blob each (see GameArchiveCodec). The games row itself stays, flagged as archived.
+CREATE TABLE game_archives(
+    game_id BIGINT PRIMARY KEY,
+    format_version TINYINT NOT NULL,
+    payload MEDIUMBLOB NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_game_archives_game FOREIGN KEY (game_id) REFERENCES games(id)
+)ENGINE = INNODB;
+
+-- Board ids stay valid in URLs after their boards row is gone
+CREATE TABLE archived_boards(
+    board_id BIGINT PRIMARY KEY,
+    game_id BIGINT NOT NULL,
+
+    CONSTRAINT fk_archived_boards_game FOREIGN KEY (game_id) REFERENCES game_archives(game_id)
+)ENGINE = INNODB;
+
+ALTER TABLE games
+    ADD COLUMN archived BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- The archiver walks finished, unarchived games by id
+CREATE INDEX idx_games_archive ON games (status, archived, id);
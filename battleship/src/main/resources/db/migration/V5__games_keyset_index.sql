@@ -0,0 +1,4 @@
+-- Keyset pagination for GET /games orders by (created_at, id).
+-- The open-lobby listing is served by idx_games_status_created: InnoDB appends the
+-- primary key to secondary indexes, so it already covers (status, created_at, id).
+CREATE INDEX idx_games_created_id ON games (created_at, id);
@@ -0,0 +1,3 @@
+-- Monotonic per-game version used for ETags on game, board, ship and shot reads
+ALTER TABLE games
+    ADD COLUMN state_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- Shot feeds read a board's shots in id order; (board_id, id) serves that without a filesort
+CREATE INDEX idx_shots_board_id ON shots (board_id, id);
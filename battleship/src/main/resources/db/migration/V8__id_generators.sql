@@ -0,0 +1,11 @@
+-- Pooled id blocks for games, boards, ships and shots (MySQL has no sequences), so Hibernate can
+-- batch their inserts. Seeding one block past the current max keeps new ids clear of existing rows.
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'games', COALESCE(MAX(id), 0) + 51 FROM games;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'boards', COALESCE(MAX(id), 0) + 51 FROM boards;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'ships', COALESCE(MAX(id), 0) + 51 FROM ships;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'shots', COALESCE(MAX(id), 0) + 51 FROM shots;
@@ -0,0 +1,3 @@
+-- Rules variant chosen at creation; SALVO fires one shot per surviving ship each turn
+ALTER TABLE games
+    ADD COLUMN game_mode VARCHAR(16) NOT NULL DEFAULT 'CLASSIC';
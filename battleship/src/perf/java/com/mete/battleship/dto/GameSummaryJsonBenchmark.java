@@ -0,0 +1,55 @@
+package com.mete.battleship.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the response path of {@code GET /games/{id}}: entity to DTO, DTO to JSON bytes,
+ * with a mapper configured like Spring Boot's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSummaryJsonBenchmark {
+
+    private Game game;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setUp() {
+        game = new Game();
+        game.setId(12345L);
+        game.setStatus(GameStatus.IN_PROGRESS);
+        game.setPlayer1Id(1L);
+        game.setPlayer2Id(2L);
+        game.setCurrentTurnUserId(2L);
+        game.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0));
+        game.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 12, 5));
+        game.setStateVersion(42);
+        mapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public GameSummary fromGame() {
+        return GameSummary.fromGame(game);
+    }
+
+    @Benchmark
+    public byte[] fromGameToJson() throws Exception {
+        return mapper.writeValueAsBytes(GameSummary.fromGame(game));
+    }
+}
@@ -0,0 +1,56 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.entity.GameMode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs {@link Simulator} from the command line and prints games per second, shots to win and
+ * win rates per strategy.
+ * <p>
+ * {@code mvn -Pperf test-compile exec:exec@sim -Dsim.args="--games=1000000 --strategies=MEDIUM,HARD"}
+ * <br>
+ * Other options: {@code --size=10}, {@code --fleet=CARRIER:1,DESTROYER:2}, {@code --mode=SALVO},
+ * {@code --threads=N} (default: all cores) and {@code --seed=N}.
+ */
+public final class SimulationRunner {
+
+    public static void main(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--") || !a.contains("=")) throw new IllegalArgumentException("Expected --key=value, got " + a);
+            opts.put(a.substring(2, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        }
+        long games = Long.parseLong(opts.getOrDefault("games", "1000000"));
+        int size = Integer.parseInt(opts.getOrDefault("size", "10"));
+        Fleet fleet = Fleet.parse(opts.get("fleet"));
+        GameMode mode = GameMode.valueOf(opts.getOrDefault("mode", "CLASSIC").toUpperCase(Locale.ROOT));
+        int threads = Integer.parseInt(opts.getOrDefault("threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "1"));
+        List<TargetingEngine.Difficulty> strategies = new ArrayList<>();
+        for (String s : opts.getOrDefault("strategies", "EASY,MEDIUM,HARD").split(",")) {
+            strategies.add(TargetingEngine.Difficulty.valueOf(s.trim().toUpperCase(Locale.ROOT)));
+        }
+
+        Simulator simulator = new Simulator(size, fleet, mode, strategies);
+        System.out.printf("Simulating %d %s games on %dx%d, fleet %s, %d threads%n", games, mode, size, size, fleet, threads);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            simulator.run(Math.min(games, 10_000), seed, pool); // warm-up
+            Simulator.Report report = simulator.run(games, seed, pool);
+            System.out.printf("%n%-10s %12s %12s %9s %14s%n", "strategy", "games", "wins", "win rate", "shots to win");
+            for (Simulator.StrategyResult r : report.strategies()) {
+                System.out.printf("%-10s %12d %12d %8.2f%% %14.2f%n", r.strategy(), r.games(), r.wins(), 100 * r.winRate(), r.avgShotsToWin());
+            }
+            System.out.printf("%n%d games in %.1fs -> %.0f games/s (%.1fM games/min), %.2f shots to win on average%n",
+                    report.games(), report.seconds(), report.gamesPerSecond(), report.gamesPerSecond() * 60 / 1e6, report.avgShotsToWin());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
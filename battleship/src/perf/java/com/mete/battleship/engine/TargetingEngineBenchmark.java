@@ -0,0 +1,77 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.ShotResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bot move as {@code BotService} makes it: reset the engine, replay the shots so far and
+ * pick a cell. Single-threaded, so the score is moves per second per core; run with the
+ * default {@code -prof gc} to confirm the move allocates nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetingEngineBenchmark {
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    TargetingEngine.Difficulty difficulty;
+
+    /** Shots already fired at the board, played by the hard bot from a fixed seed. */
+    @Param({"0", "30", "60"})
+    int shotsFired;
+
+    @Param({"10", "32"})
+    int boardSize;
+
+    private final TargetingEngine engine = new TargetingEngine();
+    private final SplittableRandom random = new SplittableRandom(7);
+    private Fleet fleet;
+    private int[] rows;
+    private int[] cols;
+    private ShotResult[] results;
+    private ShipType[] sunkTypes;
+
+    @Setup
+    public void setUp() {
+        fleet = Fleet.standard();
+        BoardState board = new BoardState(boardSize);
+        RandomPlacement.place(board, fleet, new SplittableRandom(42), null);
+        rows = new int[shotsFired];
+        cols = new int[shotsFired];
+        results = new ShotResult[shotsFired];
+        sunkTypes = new ShipType[shotsFired];
+        SplittableRandom seeded = new SplittableRandom(42);
+        for (int i = 0; i < shotsFired && !board.allSunk(); i++) {
+            replay(i);
+            int cell = engine.nextCell(TargetingEngine.Difficulty.HARD, seeded);
+            rows[i] = cell / boardSize;
+            cols[i] = cell % boardSize;
+            results[i] = board.fire(rows[i], cols[i]);
+            sunkTypes[i] = results[i] == ShotResult.SUNK ? board.getShipType(board.getLastHitShip()) : null;
+        }
+    }
+
+    @Benchmark
+    public int move() {
+        replay(shotsFired);
+        return engine.nextCell(difficulty, random);
+    }
+
+    private void replay(int shots) {
+        engine.reset(boardSize, fleet);
+        for (int i = 0; i < shots && results[i] != null; i++) {
+            switch (results[i]) {
+                case MISS -> engine.miss(rows[i], cols[i]);
+                case HIT -> engine.hit(rows[i], cols[i]);
+                case SUNK -> engine.sunk(rows[i], cols[i], sunkTypes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.mete.battleship.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mete.battleship.BattleshipApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boots the application on the {@code dev} profile (embedded H2) and plays full games over
+ * the real HTTP API: sign up, log in, create, join, place ships and shoot until someone wins.
+ * Prints p50/p99/p999 latency per endpoint, games per second and error rates.
+ * <p>
+ * {@code mvn -Pperf test-compile exec:exec@load -Dload.args="--games=2000 --concurrency=200"}
+ * <br>
+ * Pass {@code --url=http://host:port} to drive an already running server instead, or
+ * {@code --modes=platform,virtual} to boot once per threading mode (the {@code virtual}
+ * profile, Java 21+) and compare the reports.
+ */
+public final class GameLoadGenerator {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] FLEET = {"CARRIER", "BATTLESHIP", "CRUISER", "SUBMARINE", "DESTROYER"};
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final String runId;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder gamesFailed = new LongAdder();
+
+    private GameLoadGenerator(String baseUrl, int concurrency, String mode) {
+        this.baseUrl = baseUrl;
+        this.runId = Long.toString(System.currentTimeMillis(), 36) + mode.charAt(0);
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 4)))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        int games = Integer.parseInt(opts.getOrDefault("games", "500"));
+        int concurrency = Integer.parseInt(opts.getOrDefault("concurrency", "50"));
+        String url = opts.get("url");
+        if (url != null) {
+            new GameLoadGenerator(url, concurrency, "remote").run(games, concurrency);
+        } else {
+            for (String mode : opts.getOrDefault("modes", "platform").split(",")) {
+                runEmbedded(mode.trim(), games, concurrency);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void runEmbedded(String mode, int games, int concurrency) throws InterruptedException {
+        SpringApplication spring = new SpringApplication(BattleshipApplication.class);
+        if (mode.equals("virtual")) spring.setAdditionalProfiles("dev", "virtual");
+        else if (mode.equals("platform")) spring.setAdditionalProfiles("dev");
+        else throw new IllegalArgumentException("Unknown mode " + mode + ", expected platform or virtual");
+        spring.setDefaultProperties(Map.of(
+                "server.port", "0",
+                "logging.level.com.mete.battleship", "WARN",
+                "logging.level.root", "WARN"));
+        try (ConfigurableApplicationContext app = spring.run()) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            System.out.printf("%n== %s threads ==%n", mode);
+            new GameLoadGenerator("http://localhost:" + port, concurrency, mode).run(games, concurrency);
+        }
+    }
+
+    private void run(int games, int concurrency) throws InterruptedException {
+        System.out.printf("Playing %d games with %d concurrent players against %s%n", games, concurrency, baseUrl);
+        ExecutorService players = Executors.newFixedThreadPool(concurrency);
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            players.execute(() -> {
+                int n;
+                while ((n = next.getAndIncrement()) < games) {
+                    try {
+                        playGame(n);
+                        gamesFinished.increment();
+                    } catch (Exception e) {
+                        gamesFailed.increment();
+                    }
+                }
+            });
+        }
+        players.shutdown();
+        players.awaitTermination(1, TimeUnit.DAYS);
+        report((System.nanoTime() - start) / 1e9);
+    }
+
+    private void playGame(int n) throws Exception {
+        String[] tokens = new String[2];
+        long[] userIds = new long[2];
+        for (int p = 0; p < 2; p++) {
+            String username = "lg" + runId + "g" + n + "p" + p;
+            call("POST /users", "POST", "/api/users", null,
+                    Map.of("username", username, "email", username + "@load.test", "password", "pass"));
+            JsonNode auth = call("POST /auth/login", "POST", "/api/auth/login", null,
+                    Map.of("username", username, "password", "pass"));
+            tokens[p] = auth.get("token").asText();
+            userIds[p] = auth.get("user").get("id").asLong();
+        }
+
+        long gameId = call("POST /games", "POST", "/api/games", tokens[0], null).get("gameId").asLong();
+        call("POST /games/{id}/join", "POST", "/api/games/" + gameId + "/join", tokens[1], null);
+        JsonNode boards = call("GET /games/{id}/boards", "GET", "/api/games/" + gameId + "/boards", tokens[0], null);
+        long[] boardIds = new long[2];
+        for (JsonNode b : boards) {
+            boardIds[b.get("ownerUserId").asLong() == userIds[0] ? 0 : 1] = b.get("id").asLong();
+        }
+        for (int p = 0; p < 2; p++) {
+            call("POST /games/{id}/boards/{id}/ships", "POST",
+                    "/api/games/" + gameId + "/boards/" + boardIds[p] + "/ships", tokens[p], fleet());
+        }
+
+        // Both fleets sit on even rows, so sweeping cells in order always ends the game
+        int[] nextCell = new int[2];
+        int turn = 0;
+        while (true) {
+            int cell = nextCell[turn]++;
+            JsonNode shot = call("POST /games/{id}/shots", "POST", "/api/games/" + gameId + "/shots", tokens[turn],
+                    Map.of("row", cell / 10, "col", cell % 10));
+            if ("FINISHED".equals(shot.get("game").get("status").asText())) break;
+            call("GET /games/{id}", "GET", "/api/games/" + gameId, tokens[1 - turn], null);
+            turn = 1 - turn;
+        }
+    }
+
+    private static List<Map<String, Object>> fleet() {
+        List<Map<String, Object>> fleet = new ArrayList<>();
+        for (int i = 0; i < FLEET.length; i++) {
+            fleet.add(Map.of("type", FLEET[i], "startRow", i * 2, "startCol", 0, "orientation", "HORIZONTAL"));
+        }
+        return fleet;
+    }
+
+    private JsonNode call(String endpoint, String method, String path, String token, Object body) throws Exception {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) req.header("Authorization", "Bearer " + token);
+        if (body != null) {
+            req.header("Content-Type", "application/json");
+            req.method(method, HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)));
+        } else {
+            req.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        EndpointStats s = stats.computeIfAbsent(endpoint, k -> new EndpointStats());
+        long t0 = System.nanoTime();
+        HttpResponse<byte[]> resp;
+        try {
+            resp = http.send(req.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (Exception e) {
+            s.record(System.nanoTime() - t0, false);
+            throw e;
+        }
+        boolean ok = resp.statusCode() < 400;
+        s.record(System.nanoTime() - t0, ok);
+        if (!ok) throw new IllegalStateException(endpoint + " -> " + resp.statusCode());
+        return resp.body().length == 0 ? JSON.nullNode() : JSON.readTree(resp.body());
+    }
+
+    private void report(double seconds) {
+        long done = gamesFinished.sum();
+        long failed = gamesFailed.sum();
+        System.out.printf("%n%-36s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<String, EndpointStats> e : new TreeMap<>(stats).entrySet()) {
+            EndpointStats s = e.getValue();
+            long[] sorted = s.sorted();
+            requests += sorted.length;
+            errors += s.errors.sum();
+            System.out.printf("%-36s %9d %7d %9.2f %9.2f %9.2f %9.2f%n", e.getKey(), sorted.length, s.errors.sum(),
+                    ms(percentile(sorted, 0.50)), ms(percentile(sorted, 0.99)), ms(percentile(sorted, 0.999)),
+                    ms(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        }
+        System.out.printf("%nGames: %d finished, %d failed in %.1fs -> %.1f games/s, %.0f requests/s, error rate %.3f%%%n",
+                done, failed, seconds, done / seconds, requests / seconds, requests == 0 ? 0.0 : 100.0 * errors / requests);
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--") || !a.contains("=")) throw new IllegalArgumentException("Expected --key=value, got " + a);
+            opts.put(a.substring(2, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        }
+        return opts;
+    }
+
+    private static final class EndpointStats {
+        private long[] samples = new long[1024];
+        private int count;
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void record(long nanos, boolean ok) {
+            if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+            samples[count++] = nanos;
+            if (!ok) errors.increment();
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
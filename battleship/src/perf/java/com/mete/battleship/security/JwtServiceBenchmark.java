@@ -0,0 +1,54 @@
+package com.mete.battleship.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and per-request verification, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService uncached;
+    private JwtService cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = newService(false);
+        cached = newService(true);
+        token = uncached.generateToken("benchmark-user", 42L);
+    }
+
+    private static JwtService newService(boolean tokenCache) {
+        JwtService service = new JwtService(new ConcurrentMapCacheManager(JwtService.TOKEN_CACHE));
+        ReflectionTestUtils.setField(service, "secret", "RGV2UHJvZmlsZVNlY3JldEtleUJhc2U2NA==");
+        ReflectionTestUtils.setField(service, "expirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(service, "tokenCacheEnabled", tokenCache);
+        service.init();
+        return service;
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncached.generateToken("benchmark-user", 42L);
+    }
+
+    @Benchmark
+    public CustomUserDetails authenticate() {
+        return uncached.authenticate(token);
+    }
+
+    @Benchmark
+    public CustomUserDetails authenticateCached() {
+        return cached.authenticate(token);
+    }
+}
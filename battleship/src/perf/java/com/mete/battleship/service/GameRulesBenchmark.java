@@ -0,0 +1,82 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.PlaceShipRequest;
+import com.mete.battleship.engine.BoardState;
+import com.mete.battleship.engine.Fleet;
+import com.mete.battleship.entity.Orientation;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.ShotResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placement validation and shot resolution as {@link GameService} runs them, without the
+ * repositories: a board is rebuilt from {@code findBoardCells} rows and one shot is fired.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameRulesBenchmark {
+
+    /** Shots already on the board when the next one is resolved. */
+    @Param({"0", "50", "95"})
+    int shotsFired;
+
+    /** Same fleet and shots on a bigger board; costs should not follow the area. */
+    @Param({"10", "1000"})
+    int boardSize;
+
+    private List<PlaceShipRequest> fleet;
+    private List<Object[]> cells;
+    private int nextRow;
+    private int nextCol;
+
+    @Setup
+    public void setUp() {
+        fleet = new ArrayList<>();
+        cells = new ArrayList<>();
+        ShipType[] types = ShipType.values();
+        for (int i = 0; i < types.length; i++) {
+            PlaceShipRequest r = new PlaceShipRequest();
+            r.setType(types[i]);
+            r.setStartRow(i * 2);
+            r.setStartCol(0);
+            r.setOrientation(Orientation.HORIZONTAL);
+            fleet.add(r);
+            cells.add(new Object[]{0, (long) i + 1, types[i].name(), i * 2, 0, Orientation.HORIZONTAL.name()});
+        }
+        // Skip the last ship's final cell so the board is never fully sunk
+        int fired = 0;
+        for (int cell = 0; cell < 100 && fired < shotsFired; cell++) {
+            if (cell == 81) continue;
+            cells.add(new Object[]{1, null, null, cell / 10, cell % 10, null});
+            fired++;
+        }
+        nextRow = 9;
+        nextCol = 9;
+    }
+
+    @Benchmark
+    public List<PlaceShipRequest> validateFleet() {
+        GameService.validateFleet(boardSize, Fleet.standard(), fleet);
+        return fleet;
+    }
+
+    @Benchmark
+    public BoardState loadBoard() {
+        return GameService.toBoardState(boardSize, cells);
+    }
+
+    @Benchmark
+    public ShotResult loadAndFire() {
+        BoardState state = GameService.toBoardState(boardSize, cells);
+        GameService.checkShotCell(state, nextRow, nextCol);
+        return state.fire(nextRow, nextCol);
+    }
+}
@@ -0,0 +1,136 @@
+package com.mete.battleship;
+
+import com.mete.battleship.dto.*;
+import com.mete.battleship.entity.Orientation;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.service.GameArchive;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Event-sourced turns plus the archiver: archiving must take the game's log with it
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.game.event-sourcing.enabled=true", "app.game.event-sourcing.projection-window-ms=50"})
+@ActiveProfiles("test")
+class EventSourcedArchiveIntegrationTest {
+
+    private static final List<ShipType> FLEET = List.of(ShipType.CARRIER, ShipType.BATTLESHIP, ShipType.CRUISER, ShipType.SUBMARINE, ShipType.DESTROYER);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    GameArchive gameArchive;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    @Test
+    void archivedGame_dropsItsEventLog_andRejectsFurtherShots() throws Exception {
+        UserView p1 = signup("es1", "es1@example.com");
+        UserView p2 = signup("es2", "es2@example.com");
+        HttpHeaders h1 = headers(p1);
+        HttpHeaders h2 = headers(p2);
+
+        Long gameId = rest.exchange(url("/games"), HttpMethod.POST, new HttpEntity<>(null, h1), GameSummary.class).getBody().getGameId();
+        assertEquals(HttpStatus.OK, rest.exchange(url("/games/" + gameId + "/join"), HttpMethod.POST, new HttpEntity<>(null, h2), GameSummary.class).getStatusCode());
+        for (BoardView board : rest.getForEntity(url("/games/" + gameId + "/boards"), BoardView[].class).getBody()) {
+            HttpHeaders owner = board.getOwnerUserId().equals(p1.getId()) ? h1 : h2;
+            assertEquals(HttpStatus.CREATED, rest.exchange(url("/boards/" + board.getId() + "/ships"), HttpMethod.POST,
+                    new HttpEntity<>(fleet(), owner), GameSummary.class).getStatusCode());
+        }
+
+        // Player 1 sinks the fleet on rows 0, 2, .., 8; player 2 misses on the odd rows
+        int p2Shots = 0;
+        for (int i = 0; i < FLEET.size(); i++) {
+            for (int col = 0; col < FLEET.get(i).getLength(); col++) {
+                assertEquals(HttpStatus.OK, fire(gameId, h1, 2 * i, col));
+                if (i == FLEET.size() - 1 && col == FLEET.get(i).getLength() - 1) break;
+                assertEquals(HttpStatus.OK, fire(gameId, h2, 1 + 2 * (p2Shots / 10), p2Shots % 10));
+                p2Shots++;
+            }
+        }
+        assertEquals("FINISHED", rest.getForEntity(url("/games/" + gameId), GameSummary.class).getBody().getStatus());
+        assertTrue(count("game_events", gameId) > 0);
+
+        // Archived once the projector has written the last turn and evicted the finished game
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (gameArchive.archiveDue() == 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "game was never archived");
+            Thread.sleep(50);
+        }
+        assertEquals(0, count("game_events", gameId));
+        assertEquals(0, count("game_snapshots", gameId));
+
+        ResponseEntity<String> shot = rest.exchange(url("/games/" + gameId + "/shots"), HttpMethod.POST,
+                new HttpEntity<>(cell(9, 9), h2), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, shot.getStatusCode());
+        assertTrue(shot.getBody().contains("Game is not in progress"), shot.getBody());
+        ResponseEntity<String> salvo = rest.exchange(url("/games/" + gameId + "/salvo"), HttpMethod.POST,
+                new HttpEntity<>(List.of(cell(9, 9)), h2), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, salvo.getStatusCode());
+        assertTrue(salvo.getBody().contains("Game is not in progress"), salvo.getBody());
+    }
+
+    private int count(String table, Long gameId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE game_id = ?", Integer.class, gameId);
+    }
+
+    private HttpStatusCode fire(Long gameId, HttpHeaders h, int row, int col) {
+        return rest.exchange(url("/games/" + gameId + "/shots"), HttpMethod.POST, new HttpEntity<>(cell(row, col), h), ShotResponse.class).getStatusCode();
+    }
+
+    private static ShootRequest cell(int row, int col) {
+        ShootRequest req = new ShootRequest();
+        req.setRow(row);
+        req.setCol(col);
+        return req;
+    }
+
+    private static HttpHeaders headers(UserView user) {
+        HttpHeaders h = new HttpHeaders();
+        h.setContentType(MediaType.APPLICATION_JSON);
+        h.set("X-User-Id", user.getId().toString());
+        return h;
+    }
+
+    private UserView signup(String username, String email) {
+        SignupRequest req = new SignupRequest();
+        req.setUsername(username);
+        req.setEmail(email);
+        req.setPassword("pass");
+        ResponseEntity<UserView> resp = rest.postForEntity(url("/users"), req, UserView.class);
+        assertEquals(HttpStatus.CREATED, resp.getStatusCode());
+        return resp.getBody();
+    }
+
+    private static List<PlaceShipRequest> fleet() {
+        List<PlaceShipRequest> list = new ArrayList<>();
+        for (int i = 0; i < FLEET.size(); i++) {
+            PlaceShipRequest r = new PlaceShipRequest();
+            r.setType(FLEET.get(i));
+            r.setOrientation(Orientation.HORIZONTAL);
+            r.setStartRow(2 * i);
+            r.setStartCol(0);
+            list.add(r);
+        }
+        return list;
+    }
+}
@@ -3,21 +3,31 @@ package com.mete.battleship;
 import com.mete.battleship.dto.*;
 import com.mete.battleship.entity.Orientation;
 import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.metrics.SqlStatements;
+import com.mete.battleship.service.GameArchive;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+// Observability on: SQL budgets are read from the game.operations.sql meters
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
 @ActiveProfiles("test")
 class GameFlowIntegrationTest {
 
@@ -27,12 +37,26 @@ class GameFlowIntegrationTest {
     @Autowired
     TestRestTemplate rest;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    GameArchive gameArchive;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
     private String url(String path) {
         return "http://localhost:" + port + path;
     }
 
     @Test
     void endToEnd_flow_signup_create_join_place_shoot() {
+        SqlStatements sql = new SqlStatements(meterRegistry);
+
         // 1) Signup two players
         UserView p1 = signup("p1", "p1@example.com");
         UserView p2 = signup("p2", "p2@example.com");
@@ -42,7 +66,8 @@ class GameFlowIntegrationTest {
         // 2) Create a game as player1
         HttpHeaders h1 = new HttpHeaders();
         h1.set("X-User-Id", p1.getId().toString());
-        ResponseEntity<GameSummary> createdGameResp = rest.exchange(url("/games"), HttpMethod.POST, new HttpEntity<>(null, h1), GameSummary.class);
+        ResponseEntity<GameSummary> createdGameResp = sql.expectAtMost("createGame", 2,
+                () -> rest.exchange(url("/games"), HttpMethod.POST, new HttpEntity<>(null, h1), GameSummary.class));
         assertEquals(HttpStatus.CREATED, createdGameResp.getStatusCode());
         GameSummary game = createdGameResp.getBody();
         assertNotNull(game);
@@ -53,7 +78,8 @@ class GameFlowIntegrationTest {
         // 3) Join as player2
         HttpHeaders h2 = new HttpHeaders();
         h2.set("X-User-Id", p2.getId().toString());
-        ResponseEntity<GameSummary> joinResp = rest.exchange(url("/games/" + gameId + "/join"), HttpMethod.POST, new HttpEntity<>(null, h2), GameSummary.class);
+        ResponseEntity<GameSummary> joinResp = sql.expectAtMost("joinGame", 5,
+                () -> rest.exchange(url("/games/" + gameId + "/join"), HttpMethod.POST, new HttpEntity<>(null, h2), GameSummary.class));
         assertEquals(HttpStatus.OK, joinResp.getStatusCode());
         assertNotNull(joinResp.getBody());
 
@@ -76,18 +102,18 @@ class GameFlowIntegrationTest {
         HttpHeaders hPlaceP1 = new HttpHeaders();
         hPlaceP1.setContentType(MediaType.APPLICATION_JSON);
         hPlaceP1.set("X-User-Id", p1.getId().toString());
-        ResponseEntity<GameSummary> place1 = rest.exchange(
+        ResponseEntity<GameSummary> place1 = sql.expectAtMost("placeShips", 5, () -> rest.exchange(
                 url("/boards/" + p1Board.getId() + "/ships"), HttpMethod.POST,
-                new HttpEntity<>(p1Ships, hPlaceP1), GameSummary.class);
+                new HttpEntity<>(p1Ships, hPlaceP1), GameSummary.class));
         assertEquals(HttpStatus.CREATED, place1.getStatusCode());
 
-        // P2 places
+        // P2 places; the second placement also starts the game (status, turn and version)
         HttpHeaders hPlaceP2 = new HttpHeaders();
         hPlaceP2.setContentType(MediaType.APPLICATION_JSON);
         hPlaceP2.set("X-User-Id", p2.getId().toString());
-        ResponseEntity<GameSummary> place2 = rest.exchange(
+        ResponseEntity<GameSummary> place2 = sql.expectAtMost("placeShips", 8, () -> rest.exchange(
                 url("/boards/" + p2Board.getId() + "/ships"), HttpMethod.POST,
-                new HttpEntity<>(p2Ships, hPlaceP2), GameSummary.class);
+                new HttpEntity<>(p2Ships, hPlaceP2), GameSummary.class));
         assertEquals(HttpStatus.CREATED, place2.getStatusCode());
 
         // 6) Game should now be IN_PROGRESS and current turn should be player1
@@ -98,6 +124,14 @@ class GameFlowIntegrationTest {
         assertEquals("IN_PROGRESS", current.getStatus());
         assertEquals(p1.getId(), current.getCurrentTurnUserId());
 
+        // Polling with the returned ETag is answered 304 until the game changes
+        String etagBeforeShot = gameResp.getHeaders().getETag();
+        assertNotNull(etagBeforeShot);
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etagBeforeShot);
+        ResponseEntity<GameSummary> notModified = rest.exchange(url("/games/" + gameId), HttpMethod.GET, new HttpEntity<>(null, conditional), GameSummary.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+
         // 7) Player1 fires a shot at (0,0) -> should be a HIT based on our layout
         HttpHeaders hShot = new HttpHeaders();
         hShot.setContentType(MediaType.APPLICATION_JSON);
@@ -105,9 +139,9 @@ class GameFlowIntegrationTest {
         ShootRequest shotReq = new ShootRequest();
         shotReq.setRow(0);
         shotReq.setCol(0);
-        ResponseEntity<ShotResponse> shotResp = rest.exchange(
+        ResponseEntity<ShotResponse> shotResp = sql.expectAtMost("fireShot", 4, () -> rest.exchange(
                 url("/games/" + gameId + "/shots"), HttpMethod.POST,
-                new HttpEntity<>(shotReq, hShot), ShotResponse.class);
+                new HttpEntity<>(shotReq, hShot), ShotResponse.class));
         assertEquals(HttpStatus.OK, shotResp.getStatusCode());
         ShotResponse sr = shotResp.getBody();
         assertNotNull(sr);
@@ -121,6 +155,172 @@ class GameFlowIntegrationTest {
         ShotView[] shotViews = shotsList.getBody();
         assertNotNull(shotViews);
         assertTrue(shotViews.length >= 1);
+
+        ResponseEntity<GameSummary> changed = rest.exchange(url("/games/" + gameId), HttpMethod.GET, new HttpEntity<>(null, conditional), GameSummary.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etagBeforeShot, changed.getHeaders().getETag());
+
+        // 9) The snapshot carries both boards as bitmasks and hides the opponent's ships
+        ResponseEntity<GameSnapshot> snapResp = rest.exchange(url("/games/" + gameId + "/snapshot"), HttpMethod.GET, new HttpEntity<>(null, h1), GameSnapshot.class);
+        assertEquals(HttpStatus.OK, snapResp.getStatusCode());
+        GameSnapshot snap = snapResp.getBody();
+        assertNotNull(snap);
+        assertEquals(2, snap.getBoards().size());
+        BoardSnapshot own = snap.getBoards().stream().filter(b -> b.getOwnerUserId().equals(p1.getId())).findFirst().orElseThrow();
+        BoardSnapshot opp = snap.getBoards().stream().filter(b -> b.getOwnerUserId().equals(p2.getId())).findFirst().orElseThrow();
+        assertNotNull(own.getShips());
+        assertNull(opp.getShips());
+        assertEquals(1, opp.getShotCount());
+        byte[] hits = Base64.getDecoder().decode(opp.getHits());
+        assertEquals(1, hits[0] & 1); // (0,0) was a hit
+
+        // 10) Replays are only served for finished games
+        ResponseEntity<String> early = rest.exchange(url("/games/" + gameId + "/replay"), HttpMethod.GET, new HttpEntity<>(null, h1), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, early.getStatusCode());
+
+        // Player2 only finds water on rows 1 and 3 while player1 sinks every ship
+        int[] lengths = {5, 4, 3, 3, 2};
+        int p2Shots = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            for (int col = i == 0 ? 1 : 0; col < lengths[i]; col++) {
+                fire(gameId, p2.getId(), 1 + 2 * (p2Shots / 10), p2Shots % 10);
+                p2Shots++;
+                fire(gameId, p1.getId(), 2 * i, col);
+            }
+        }
+        assertEquals("FINISHED", rest.getForEntity(url("/games/" + gameId), GameSummary.class).getBody().getStatus());
+
+        // 11) The replay is the game line, ten placements and all 33 shots in order
+        ResponseEntity<String> replay = rest.exchange(url("/games/" + gameId + "/replay"), HttpMethod.GET, new HttpEntity<>(null, h1), String.class);
+        assertEquals(HttpStatus.OK, replay.getStatusCode());
+        String[] lines = replay.getBody().split("\n");
+        assertEquals(1 + 10 + 33, lines.length);
+        assertTrue(lines[0].contains("\"type\":\"game\""));
+        assertTrue(lines[0].contains("\"winnerUserId\":" + p1.getId()));
+        assertTrue(lines[10].contains("\"type\":\"ship\""));
+        assertTrue(lines[11].contains("\"type\":\"shot\"") && lines[11].contains("\"result\":\"HIT\""));
+        assertTrue(lines[lines.length - 1].contains("\"sunkShipType\":\"DESTROYER\""));
+
+        // The range export streams the same lines
+        LocalDateTime now = LocalDateTime.now();
+        ResponseEntity<String> range = rest.exchange(url("/games/replays?from=" + now.minusDays(1) + "&to=" + now.plusDays(1)),
+                HttpMethod.GET, new HttpEntity<>(null, h1), String.class);
+        assertEquals(HttpStatus.OK, range.getStatusCode());
+        assertTrue(range.getBody().contains(lines[lines.length - 1]));
+
+        // 12) Once archived, the game reads the same from its blob
+        GameSnapshot before = rest.exchange(url("/games/" + gameId + "/snapshot"), HttpMethod.GET, new HttpEntity<>(null, h1), GameSnapshot.class).getBody();
+        assertTrue(gameArchive.archiveDue() >= 1);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        GameSnapshot after = rest.exchange(url("/games/" + gameId + "/snapshot"), HttpMethod.GET, new HttpEntity<>(null, h1), GameSnapshot.class).getBody();
+        assertNotNull(after);
+        assertEquals(2, after.getBoards().size());
+        for (BoardSnapshot was : before.getBoards()) {
+            BoardSnapshot is = after.getBoards().stream().filter(b -> b.getBoardId().equals(was.getBoardId())).findFirst().orElseThrow();
+            assertEquals(was.getShots(), is.getShots());
+            assertEquals(was.getHits(), is.getHits());
+            assertEquals(was.getShips(), is.getShips());
+            assertEquals(was.getSunk(), is.getSunk());
+        }
+        ResponseEntity<String> archivedReplay = rest.exchange(url("/games/" + gameId + "/replay"), HttpMethod.GET, new HttpEntity<>(null, h1), String.class);
+        assertEquals(HttpStatus.OK, archivedReplay.getStatusCode());
+        String[] archivedLines = archivedReplay.getBody().split("\n");
+        assertEquals(lines.length, archivedLines.length);
+        assertTrue(archivedLines[lines.length - 1].contains("\"sunkShipType\":\"DESTROYER\""));
+    }
+
+    @Test
+    void salvo_staysWithinItsSqlBudget() {
+        SqlStatements sql = new SqlStatements(meterRegistry);
+        UserView p1 = signup("salvo1", "salvo1@example.com");
+        UserView p2 = signup("salvo2", "salvo2@example.com");
+        HttpHeaders h1 = new HttpHeaders();
+        h1.setContentType(MediaType.APPLICATION_JSON);
+        h1.set("X-User-Id", p1.getId().toString());
+        HttpHeaders h2 = new HttpHeaders();
+        h2.setContentType(MediaType.APPLICATION_JSON);
+        h2.set("X-User-Id", p2.getId().toString());
+
+        Long gameId = rest.exchange(url("/games?mode=SALVO"), HttpMethod.POST, new HttpEntity<>(null, h1), GameSummary.class).getBody().getGameId();
+        assertEquals(HttpStatus.OK, rest.exchange(url("/games/" + gameId + "/join"), HttpMethod.POST, new HttpEntity<>(null, h2), GameSummary.class).getStatusCode());
+        for (BoardView board : rest.getForEntity(url("/games/" + gameId + "/boards"), BoardView[].class).getBody()) {
+            HttpHeaders owner = board.getOwnerUserId().equals(p1.getId()) ? h1 : h2;
+            assertEquals(HttpStatus.CREATED, rest.exchange(url("/boards/" + board.getId() + "/ships"), HttpMethod.POST,
+                    new HttpEntity<>(buildStandardFleet(), owner), GameSummary.class).getStatusCode());
+        }
+
+        // Five shots, one per ship afloat: the destroyer sunk, a hit on the carrier and two misses
+        List<ShootRequest> salvo = new ArrayList<>();
+        for (int[] cell : new int[][]{{8, 0}, {8, 1}, {0, 0}, {1, 0}, {1, 1}}) {
+            ShootRequest shot = new ShootRequest();
+            shot.setRow(cell[0]);
+            shot.setCol(cell[1]);
+            salvo.add(shot);
+        }
+        ResponseEntity<SalvoResponse> resp = sql.expectAtMost("fireSalvo", 6,
+                () -> rest.exchange(url("/games/" + gameId + "/salvo"), HttpMethod.POST, new HttpEntity<>(salvo, h1), SalvoResponse.class));
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(5, resp.getBody().getShots().size());
+        assertEquals("SUNK", resp.getBody().getShots().get(1).getResult());
+    }
+
+    @Test
+    void replayRange_streamsEveryFinishedGameCreatedInRange() {
+        UserView p1 = signup("range1", "range1@example.com");
+        UserView p2 = signup("range2", "range2@example.com");
+        LocalDateTime from = LocalDateTime.of(2001, 1, 1, 0, 0);
+        LocalDateTime to = from.plusMonths(1);
+        // More games than one page of the export, created a minute apart
+        int inRange = 101;
+        for (int i = 0; i < inRange; i++) {
+            insertGame(900_000L + i, "FINISHED", from.plusMinutes(i), p1.getId(), p2.getId());
+        }
+        insertGame(900_500L, "FINISHED", to, p1.getId(), p2.getId());
+        insertGame(900_501L, "IN_PROGRESS", from.plusDays(1), p1.getId(), p2.getId());
+        for (long gameId : new long[]{900_000L, 900_000L + inRange - 1}) {
+            long boardId = gameId;
+            jdbc.update("INSERT INTO boards (id, game_id, owner_user_id, size) VALUES (?, ?, ?, 10)", boardId, gameId, p2.getId());
+            jdbc.update("INSERT INTO ships (board_id, type, length, start_row, start_col, orientation) VALUES (?, 'DESTROYER', 2, 0, 0, 'HORIZONTAL')", boardId);
+            jdbc.update("INSERT INTO shots (board_id, shooter_user_id, target_user_id, `row`, `col`, result) VALUES (?, ?, ?, 0, 0, 'HIT')",
+                    boardId, p1.getId(), p2.getId());
+        }
+
+        HttpHeaders h1 = new HttpHeaders();
+        h1.set("X-User-Id", p1.getId().toString());
+        ResponseEntity<String> range = rest.exchange(url("/games/replays?from=" + from + "&to=" + to),
+                HttpMethod.GET, new HttpEntity<>(null, h1), String.class);
+
+        assertEquals(HttpStatus.OK, range.getStatusCode());
+        String[] lines = range.getBody().split("\n");
+        List<String> headers = new ArrayList<>();
+        for (String line : lines) {
+            if (line.contains("\"type\":\"game\"")) headers.add(line);
+        }
+        assertEquals(inRange, headers.size());
+        for (int i = 0; i < inRange; i++) {
+            assertTrue(headers.get(i).contains("\"gameId\":" + (900_000L + i)), headers.get(i));
+        }
+        assertEquals(inRange + 4, lines.length);
+        assertTrue(lines[1].contains("\"type\":\"ship\"") && lines[1].contains("\"gameId\":900000"));
+        assertTrue(lines[2].contains("\"type\":\"shot\"") && lines[2].contains("\"gameId\":900000"));
+        assertTrue(lines[lines.length - 1].contains("\"type\":\"shot\"") && lines[lines.length - 1].contains("\"gameId\":" + (900_000L + inRange - 1)));
+    }
+
+    private void insertGame(long id, String status, LocalDateTime createdAt, Long player1Id, Long player2Id) {
+        jdbc.update("INSERT INTO games (id, status, player1_id, player2_id, winner_user_id, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                id, status, player1Id, player2Id, "FINISHED".equals(status) ? player1Id : null, createdAt);
+    }
+
+    private void fire(Long gameId, Long userId, int row, int col) {
+        HttpHeaders h = new HttpHeaders();
+        h.setContentType(MediaType.APPLICATION_JSON);
+        h.set("X-User-Id", userId.toString());
+        ShootRequest req = new ShootRequest();
+        req.setRow(row);
+        req.setCol(col);
+        ResponseEntity<ShotResponse> resp = rest.exchange(url("/games/" + gameId + "/shots"), HttpMethod.POST, new HttpEntity<>(req, h), ShotResponse.class);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
     }
 
     private UserView signup(String username, String email) {
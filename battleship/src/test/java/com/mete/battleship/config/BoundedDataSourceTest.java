@@ -0,0 +1,80 @@
+package com.mete.battleship.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedDataSourceTest {
+
+    DataSource pool = mock(DataSource.class);
+
+    @Test
+    void permitsAreHeldUntilTheConnectionCloses() throws Exception {
+        when(pool.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        BoundedDataSource bounded = new BoundedDataSource(pool, 2, 50);
+
+        Connection a = borrowOnOwnThread(bounded);
+        Connection b = borrowOnOwnThread(bounded);
+        assertEquals(2, bounded.getInUse());
+        assertThrows(SQLTransientConnectionException.class, bounded::getConnection);
+
+        a.close();
+        a.close(); // a second close must not hand out an extra permit
+        assertEquals(1, bounded.getInUse());
+        borrowOnOwnThread(bounded);
+        assertThrows(SQLTransientConnectionException.class, bounded::getConnection);
+        b.close();
+    }
+
+    @Test
+    void failedBorrowReturnsThePermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        BoundedDataSource bounded = new BoundedDataSource(pool, 1, 50);
+
+        assertThrows(SQLException.class, bounded::getConnection);
+        assertEquals(0, bounded.getInUse());
+    }
+
+    @Test
+    void aPermitHolderBorrowsNestedConnectionsWithoutWaiting() throws Exception {
+        when(pool.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        BoundedDataSource bounded = new BoundedDataSource(pool, 1, 50);
+
+        Connection outer = bounded.getConnection();
+        Connection idBlock = bounded.getConnection(); // e.g. the table generator's isolated work
+        assertEquals(1, bounded.getInUse());
+
+        // Other threads still queue for the single permit
+        Throwable[] other = new Throwable[1];
+        Thread t = new Thread(() -> other[0] = assertThrows(SQLTransientConnectionException.class, bounded::getConnection));
+        t.start();
+        t.join();
+        assertNotNull(other[0]);
+
+        idBlock.close();
+        assertEquals(1, bounded.getInUse());
+        outer.close();
+        assertEquals(0, bounded.getInUse());
+    }
+
+    // Each borrower is its own thread, like concurrent requests
+    private static Connection borrowOnOwnThread(BoundedDataSource bounded) throws Exception {
+        Connection[] borrowed = new Connection[1];
+        Thread t = new Thread(() -> {
+            try {
+                borrowed[0] = bounded.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        t.start();
+        t.join();
+        return borrowed[0];
+    }
+}
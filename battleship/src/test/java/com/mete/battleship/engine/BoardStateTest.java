@@ -0,0 +1,64 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.entity.Orientation;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.ShotResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardStateTest {
+
+    @Test
+    void largeBoard_firesAndSinksAtTheFarCorner() {
+        BoardState board = new BoardState(1000, 1);
+        board.addShip(7L, ShipType.DESTROYER, 999, 998, Orientation.HORIZONTAL);
+        board.addShip(8L, ShipType.CRUISER, 0, 0, Orientation.VERTICAL); // grows past the hint
+
+        assertEquals(ShotResult.MISS, board.fire(500, 500));
+        assertEquals(ShotResult.HIT, board.fire(999, 998));
+        assertEquals(ShotResult.SUNK, board.fire(999, 999));
+        assertEquals(7L, board.getShipId(board.getLastHitShip()));
+        assertEquals(3, board.getShotCount());
+        assertFalse(board.allSunk());
+        assertThrows(IllegalStateException.class, () -> board.fire(500, 500));
+    }
+
+    @Test
+    void overlappingShip_isRejectedWithoutLeavingCells() {
+        BoardState board = new BoardState(10);
+        board.addShip(1L, ShipType.DESTROYER, 2, 2, Orientation.VERTICAL);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> board.addShip(2L, ShipType.CRUISER, 3, 0, Orientation.HORIZONTAL));
+        assertEquals(1, board.getShipCount());
+        assertEquals(-1, board.shipAt(3, 0));
+        assertEquals(-1, board.shipAt(3, 1));
+    }
+
+    @Test
+    void tileBits_useTheTileWidthAsRowLength() {
+        BoardState board = new BoardState(1000);
+        board.addShip(1L, ShipType.DESTROYER, 500, 500, Orientation.VERTICAL);
+        board.markShot(500, 500);
+        board.markShot(501, 499);
+
+        // 2x3 tile at (500,499): (500,500) is bit 1, (501,499) is bit 3, (501,500) is bit 4
+        assertArrayEquals(new byte[]{0b1010}, board.shotBits(500, 499, 2, 3));
+        assertArrayEquals(new byte[]{0b10}, board.hitBits(500, 499, 2, 3));
+        assertArrayEquals(new byte[]{0b10010}, board.shipBits(500, 499, 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> board.shotBits(999, 0, 2, 1));
+    }
+
+    @Test
+    void fleetSpec_roundTrips() {
+        Fleet fleet = Fleet.parse("destroyer:3, CARRIER");
+        assertEquals("CARRIER:1,DESTROYER:3", fleet.spec());
+        assertEquals(4, fleet.totalShips());
+        assertEquals(11, fleet.totalCells());
+        assertEquals(fleet, Fleet.parse(fleet.spec()));
+        assertSame(Fleet.standard(), Fleet.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> Fleet.parse("DESTROYER:0"));
+        assertThrows(IllegalArgumentException.class, () -> Fleet.parse("RAFT:1"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.engine.TargetingEngine.Difficulty;
+import com.mete.battleship.entity.GameMode;
+import com.mete.battleship.entity.Orientation;
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.ShotResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTest {
+
+    @Test
+    void run_isReproducibleForASeedWhateverTheThreadCount() {
+        Simulator simulator = new Simulator(10, Fleet.standard(), GameMode.CLASSIC, List.of(Difficulty.EASY, Difficulty.HARD));
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            Simulator.Report a = simulator.run(1_000, 7, one);
+            Simulator.Report b = simulator.run(1_000, 7, four);
+
+            assertEquals(a.strategies(), b.strategies());
+            assertEquals(a.avgShotsToWin(), b.avgShotsToWin());
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test
+    void run_everyGameHasOneWinner() {
+        Simulator simulator = new Simulator(8, Fleet.parse("CRUISER:2,DESTROYER:2"), GameMode.SALVO,
+                List.of(Difficulty.EASY, Difficulty.MEDIUM, Difficulty.HARD));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Simulator.Report report = simulator.run(600, 1, pool);
+
+            long wins = 0;
+            for (Simulator.StrategyResult r : report.strategies()) {
+                assertEquals(400, r.games());
+                wins += r.wins();
+            }
+            assertEquals(600, wins);
+            // Density targeting beats random fire
+            assertTrue(report.strategies().get(2).winRate() > report.strategies().get(0).winRate());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void boardReset_forgetsShipsShotsAndHits() {
+        BoardState board = new BoardState(10);
+        board.addShip(0, ShipType.DESTROYER, 0, 0, Orientation.HORIZONTAL);
+        board.fire(0, 0);
+
+        board.reset();
+        board.addShip(0, ShipType.DESTROYER, 0, 0, Orientation.HORIZONTAL);
+
+        assertEquals(0, board.getShotCount());
+        assertEquals(ShotResult.HIT, board.fire(0, 0));
+        assertEquals(ShotResult.SUNK, board.fire(0, 1));
+        assertTrue(board.allSunk());
+    }
+
+    @Test
+    void boardsLargerThanTheTargetingEngine_areRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Simulator(TargetingEngine.MAX_SIZE + 1, Fleet.standard(), GameMode.CLASSIC, List.of(Difficulty.HARD)));
+    }
+}
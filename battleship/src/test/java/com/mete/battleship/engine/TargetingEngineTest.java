@@ -0,0 +1,74 @@
+package com.mete.battleship.engine;
+
+import com.mete.battleship.entity.ShipType;
+import com.mete.battleship.entity.ShotResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TargetingEngineTest {
+
+    private final TargetingEngine engine = new TargetingEngine();
+    private final SplittableRandom random = new SplittableRandom(1);
+
+    @Test
+    void hard_shootsNextToAnUnresolvedHit() {
+        engine.reset(10, Fleet.standard());
+        engine.hit(5, 5);
+
+        int cell = engine.nextCell(TargetingEngine.Difficulty.HARD, random);
+
+        int row = cell / 10;
+        int col = cell % 10;
+        assertEquals(1, Math.abs(row - 5) + Math.abs(col - 5));
+    }
+
+    @Test
+    void sunkShip_isNoLongerTargeted() {
+        engine.reset(10, Fleet.parse("DESTROYER:1,CARRIER:1"));
+        engine.hit(0, 0);
+        engine.sunk(0, 1, ShipType.DESTROYER);
+
+        engine.nextCell(TargetingEngine.Difficulty.HARD, random);
+
+        // Only the carrier is left; it fits (0,2) once each way and gets no hit bonus
+        assertEquals(2, engine.density(0, 2));
+        assertEquals(2, engine.density(1, 0));
+    }
+
+    @Test
+    void salvoCells_areNeverRepeated() {
+        engine.reset(4, Fleet.parse("DESTROYER:1"));
+        Set<Integer> picked = new HashSet<>();
+        for (int i = 0; i < 16; i++) {
+            assertTrue(picked.add(engine.nextCell(TargetingEngine.Difficulty.MEDIUM, random)));
+        }
+        assertThrows(IllegalStateException.class, () -> engine.nextCell(TargetingEngine.Difficulty.MEDIUM, random));
+    }
+
+    @Test
+    void everyDifficulty_finishesAGame() {
+        for (TargetingEngine.Difficulty difficulty : TargetingEngine.Difficulty.values()) {
+            BoardState board = new BoardState(10);
+            RandomPlacement.place(board, Fleet.standard(), random, null);
+            engine.reset(10, Fleet.standard());
+            int shots = 0;
+            while (!board.allSunk()) {
+                engine.clearPending();
+                int cell = engine.nextCell(difficulty, random);
+                ShotResult result = board.fire(cell / 10, cell % 10);
+                switch (result) {
+                    case MISS -> engine.miss(cell / 10, cell % 10);
+                    case HIT -> engine.hit(cell / 10, cell % 10);
+                    case SUNK -> engine.sunk(cell / 10, cell % 10, board.getShipType(board.getLastHitShip()));
+                }
+                shots++;
+            }
+            assertTrue(shots <= 100, difficulty + " took " + shots + " shots");
+        }
+    }
+}
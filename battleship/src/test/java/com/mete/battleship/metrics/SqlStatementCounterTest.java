@@ -0,0 +1,50 @@
+package com.mete.battleship.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementCounterTest {
+
+    SqlStatementCounter inspector = new SqlStatementCounter();
+
+    @Test
+    void countsOnlyInsideATally() {
+        inspector.inspect("select 1");
+        try (SqlStatementCounter.Tally tally = SqlStatementCounter.open()) {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+            assertEquals(2, tally.count());
+        }
+        assertNull(SqlStatementCounter.current());
+    }
+
+    @Test
+    void nestedTalliesRollUp() {
+        try (SqlStatementCounter.Tally outer = SqlStatementCounter.open()) {
+            inspector.inspect("select 1");
+            try (SqlStatementCounter.Tally inner = SqlStatementCounter.open()) {
+                inspector.inspect("select 2");
+                assertEquals(1, inner.count());
+            }
+            assertSame(outer, SqlStatementCounter.current());
+            assertEquals(2, outer.count());
+        }
+    }
+
+    @Test
+    void callWith_countsWorkOnAnotherThread() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try (SqlStatementCounter.Tally tally = SqlStatementCounter.open()) {
+            pool.submit(() -> SqlStatementCounter.callWith(tally, () -> inspector.inspect("select 1"))).get(5, TimeUnit.SECONDS);
+            assertEquals(1, tally.count());
+            assertNull(pool.submit(SqlStatementCounter::current).get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mete.battleship.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the SQL budget of {@link SqlBudget} operations in tests that drive the app over HTTP,
+ * where the statements run on server threads: the count is read from the
+ * {@code game.operations.sql} summary before and after the action.
+ * <pre>
+ * ShotResponse shot = sql.expectAtMost("fireShot", 4, () -> rest.exchange(...)).getBody();
+ * </pre>
+ */
+public class SqlStatements {
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatements(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the action, which must call the operation exactly once, and fails if that call
+     * issued more than {@code budget} statements. Returns what the action returned.
+     */
+    public <T> T expectAtMost(String operation, int budget, Supplier<T> action) {
+        long countBefore = summary(operation).count();
+        double totalBefore = summary(operation).totalAmount();
+        T result = action.get();
+        assertEquals(1, summary(operation).count() - countBefore, operation + " should run exactly once");
+        long statements = Math.round(summary(operation).totalAmount() - totalBefore);
+        assertTrue(statements <= budget, operation + " issued " + statements + " SQL statements, budget is " + budget);
+        return result;
+    }
+
+    private DistributionSummary summary(String operation) {
+        return DistributionSummary.builder("game.operations.sql")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mete.battleship.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthFilterTest {
+
+    JwtService jwtService = mock(JwtService.class);
+    JwtAuthFilter filter = new JwtAuthFilter(jwtService, mock(CustomUserDetailsService.class));
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void queryToken_isAcceptedOnEventStreamAndGameSocket() throws Exception {
+        when(jwtService.authenticate("t")).thenReturn(new CustomUserDetails(7L, "alice", ""));
+
+        for (String path : new String[]{"/games/5/events", "/api/games/5/events", "/ws/games/5", "/api/ws/games/5"}) {
+            assertTrue(authenticates(path), path);
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void queryToken_isIgnoredElsewhere() throws Exception {
+        for (String path : new String[]{"/games/5/shots", "/users/events", "/ws/games/5/x", "/files/ws/games/5", "/api/games/5"}) {
+            assertFalse(authenticates(path), path);
+        }
+        verifyNoInteractions(jwtService);
+    }
+
+    private boolean authenticates(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setParameter("access_token", "t");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication() != null;
+    }
+}
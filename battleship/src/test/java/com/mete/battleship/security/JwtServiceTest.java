@@ -0,0 +1,53 @@
+package com.mete.battleship.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    CacheManager cacheManager = new ConcurrentMapCacheManager(JwtService.TOKEN_CACHE);
+    JwtService jwtService = new JwtService(cacheManager);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtService, "secret", "VGhpc0lzQVRlc3RTZWNyZXRKV1RTS2V5MzJi");
+        ReflectionTestUtils.setField(jwtService, "expirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheEnabled", true);
+        jwtService.init();
+    }
+
+    @Test
+    void authenticate_buildsPrincipalFromClaims() {
+        String token = jwtService.generateToken("alice", 42L);
+
+        CustomUserDetails principal = jwtService.authenticate(token);
+
+        assertNotNull(principal);
+        assertEquals(42L, principal.getId());
+        assertEquals("alice", principal.getUsername());
+        assertNotNull(cacheManager.getCache(JwtService.TOKEN_CACHE).get(token));
+    }
+
+    @Test
+    void authenticate_tamperedToken_returnsNull() {
+        String token = jwtService.generateToken("alice", 42L);
+        String other = jwtService.generateToken("mallory", 7L);
+        String tampered = token.substring(0, token.lastIndexOf('.')) + other.substring(other.lastIndexOf('.'));
+
+        assertNull(jwtService.authenticate(tampered));
+        assertNull(jwtService.authenticate("not-a-token"));
+    }
+
+    @Test
+    void authenticate_expiredToken_returnsNull() {
+        ReflectionTestUtils.setField(jwtService, "expirationMs", -1_000L);
+        String token = jwtService.generateToken("alice", 42L);
+
+        assertNull(jwtService.authenticate(token));
+    }
+}
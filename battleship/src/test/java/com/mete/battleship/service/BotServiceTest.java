@@ -0,0 +1,97 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.engine.TargetingEngine.Difficulty;
+import com.mete.battleship.entity.Board;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.User;
+import com.mete.battleship.repository.GameRepository;
+import com.mete.battleship.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BotServiceTest {
+
+    static final long BOT = 900L;
+    static final long HUMAN = 10L;
+
+    GameService gameService = mock(GameService.class);
+    LiveGameService liveGameService = mock(LiveGameService.class);
+    GameCommandExecutor commandExecutor = mock(GameCommandExecutor.class);
+    UserRepository userRepository = mock(UserRepository.class);
+    GameRepository gameRepository = mock(GameRepository.class);
+    BotService botService = new BotService(gameService, liveGameService, commandExecutor, userRepository, gameRepository,
+            new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        User bot = new User();
+        bot.setId(BOT);
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findByUsername("bot-hard")).thenReturn(Optional.of(bot));
+        when(gameService.listBoards(5L)).thenReturn(List.of(board(50L, HUMAN), board(51L, BOT)));
+        when(gameService.listShots(50L)).thenReturn(List.of());
+    }
+
+    @Test
+    void sweep_queuesAMoveForGamesStuckOnABotTurn() {
+        Game stuck = new Game();
+        stuck.setId(5L);
+        stuck.setCurrentTurnUserId(BOT);
+        when(gameRepository.findByStatusAndCurrentTurnUserIdIn(GameStatus.IN_PROGRESS, Set.of(BOT))).thenReturn(List.of(stuck));
+        when(gameService.getGameSummary(5L)).thenReturn(summary(BOT));
+
+        assertEquals(1, botService.resumeStalledTurns());
+
+        ArgumentCaptor<Runnable> move = ArgumentCaptor.forClass(Runnable.class);
+        verify(commandExecutor).submit(eq(5L), move.capture());
+        move.getValue().run();
+        verify(liveGameService).fireShot(eq(5L), eq(BOT), any(ShootRequest.class));
+    }
+
+    @Test
+    void queuedMove_doesNothingOnceTheTurnHasPassed() {
+        when(gameService.getGameSummary(5L)).thenReturn(summary(HUMAN));
+
+        botService.play(5L, BOT, Difficulty.HARD);
+
+        verifyNoInteractions(liveGameService);
+    }
+
+    @Test
+    void gameEvent_queuesAMoveOnlyWhenABotIsOnTurn() {
+        botService.onGameEvent(new GameEvent(5L, GameEvent.GAME, summary(HUMAN)));
+        verify(commandExecutor, never()).submit(anyLong(), any());
+
+        botService.onGameEvent(new GameEvent(5L, GameEvent.GAME, summary(BOT)));
+        verify(commandExecutor).submit(eq(5L), any());
+    }
+
+    private static GameSummary summary(Long turn) {
+        GameSummary s = new GameSummary(GameStatus.IN_PROGRESS.name(), 5L, HUMAN, BOT, turn, null, null, null);
+        s.setMode("CLASSIC");
+        s.setBoardSize(10);
+        return s;
+    }
+
+    private static Board board(Long id, Long owner) {
+        Board b = new Board();
+        b.setId(id);
+        b.setGameId(5L);
+        b.setOwnerUserId(owner);
+        b.setSize(10);
+        return b;
+    }
+}
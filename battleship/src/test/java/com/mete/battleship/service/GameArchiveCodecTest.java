@@ -0,0 +1,126 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.entity.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveCodecTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 1, 12, 0, 0);
+
+    @Test
+    void roundTrip_keepsBoardsShipsAndShotsInOrder() {
+        List<Board> boards = List.of(board(200, 1L), board(201, 2L));
+        List<Ship> ships = List.of(
+                ship(500, 200, ShipType.DESTROYER, 0, 0, Orientation.HORIZONTAL, true),
+                ship(501, 200, ShipType.CARRIER, 5, 9, Orientation.VERTICAL, false),
+                ship(502, 201, ShipType.CRUISER, 2, 2, Orientation.VERTICAL, false));
+        List<Shot> shots = List.of(
+                shot(900, 200, 2L, 1L, 0, 0, ShotResult.HIT, null, T0.plusSeconds(5)),
+                shot(901, 201, 1L, 2L, 9, 9, ShotResult.MISS, null, T0.plusSeconds(9)),
+                shot(903, 200, 2L, 1L, 0, 1, ShotResult.SUNK, ShipType.DESTROYER, T0.plusSeconds(14)),
+                shot(904, 201, 1L, 2L, 3, 2, ShotResult.HIT, null, null));
+
+        GameArchiveCodec.Archived decoded = GameArchiveCodec.decode(77L, GameArchiveCodec.encode(boards, ships, shots));
+
+        assertEquals(2, decoded.boards().size());
+        Board first = decoded.boards().get(0);
+        assertEquals(200L, first.getId());
+        assertEquals(77L, first.getGameId());
+        assertEquals(1L, first.getOwnerUserId());
+        assertEquals(10, first.getSize());
+        assertEquals(T0, first.getCreatedAt());
+
+        List<Ship> own = decoded.shipsOf(200L);
+        assertEquals(List.of(500L, 501L), own.stream().map(Ship::getId).toList());
+        Ship carrier = own.get(1);
+        assertEquals(ShipType.CARRIER, carrier.getType());
+        assertEquals(5, carrier.getLength());
+        assertEquals(5, carrier.getStartRow());
+        assertEquals(9, carrier.getStartCol());
+        assertEquals(Orientation.VERTICAL, carrier.getOrientation());
+        assertFalse(carrier.getSunk());
+        assertTrue(own.get(0).getSunk());
+
+        List<Shot> fired = decoded.shotsOf(200L);
+        assertEquals(List.of(900L, 903L), fired.stream().map(Shot::getId).toList());
+        Shot sunk = fired.get(1);
+        assertEquals(2L, sunk.getShooterUserId());
+        assertEquals(1L, sunk.getTargetUserId());
+        assertEquals(0, sunk.getRow());
+        assertEquals(1, sunk.getCol());
+        assertEquals(ShotResult.SUNK, sunk.getResult());
+        assertEquals(ShipType.DESTROYER, sunk.getSunkShipType());
+        assertEquals(T0.plusSeconds(14), sunk.getCreatedAt());
+        assertNull(decoded.shotsOf(201L).get(1).getCreatedAt());
+    }
+
+    @Test
+    void encode_takesAFewBytesPerShot() {
+        List<Board> boards = List.of(board(1, 1L), board(2, 2L));
+        List<Shot> shots = new ArrayList<>();
+        long id = 1;
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < 10; col++) {
+                shots.add(shot(id++, 2, 1L, 2L, row, col, ShotResult.MISS, null, T0.plusSeconds(id * 3)));
+            }
+        }
+
+        byte[] data = GameArchiveCodec.encode(boards, List.of(), shots);
+
+        assertTrue(data.length < 3 * shots.size() + 32, "archive took " + data.length + " bytes");
+        assertEquals(100, GameArchiveCodec.decode(1L, data).shotsOf(2L).size());
+    }
+
+    @Test
+    void encode_rejectsShotsFromTwoPlayersOnOneBoard() {
+        List<Shot> shots = List.of(
+                shot(1, 10, 2L, 1L, 0, 0, ShotResult.MISS, null, T0),
+                shot(2, 10, 3L, 1L, 0, 1, ShotResult.MISS, null, T0));
+
+        assertThrows(IllegalArgumentException.class, () -> GameArchiveCodec.encode(List.of(board(10, 1L)), List.of(), shots));
+    }
+
+    private static Board board(long id, Long owner) {
+        Board b = new Board();
+        b.setId(id);
+        b.setGameId(77L);
+        b.setOwnerUserId(owner);
+        b.setSize(10);
+        b.setCreatedAt(T0);
+        return b;
+    }
+
+    private static Ship ship(long id, long boardId, ShipType type, int row, int col, Orientation orientation, boolean sunk) {
+        Ship s = new Ship();
+        s.setId(id);
+        s.setBoardId(boardId);
+        s.setType(type);
+        s.setLength(type.getLength());
+        s.setStartRow(row);
+        s.setStartCol(col);
+        s.setOrientation(orientation);
+        s.setSunk(sunk);
+        return s;
+    }
+
+    private static Shot shot(long id, long boardId, Long shooter, Long target, int row, int col, ShotResult result,
+                             ShipType sunkShipType, LocalDateTime createdAt) {
+        Shot s = new Shot();
+        s.setId(id);
+        s.setBoardId(boardId);
+        s.setShooterUserId(shooter);
+        s.setTargetUserId(target);
+        s.setRow(row);
+        s.setCol(col);
+        s.setResult(result);
+        s.setSunkShipType(sunkShipType);
+        s.setCreatedAt(createdAt);
+        return s;
+    }
+}
@@ -0,0 +1,72 @@
+package com.mete.battleship.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCommandExecutorTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    GameCommandExecutor executor = new GameCommandExecutor(4, 100, registry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void commandsForSameGame_neverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(callers.submit(() -> executor.run(7L, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            })));
+        }
+        for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+        callers.shutdown();
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void commandException_isRethrownToCaller() {
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> executor.call(1L, () -> { throw new RuntimeException("It's not your turn"); }));
+        assertEquals("It's not your turn", ex.getMessage());
+    }
+
+    @Test
+    void nestedCommandForSameGame_runsInline() {
+        Integer result = executor.call(3L, () -> executor.call(3L, () -> 42));
+        assertEquals(42, result);
+    }
+
+    @Test
+    void nestedCommandForGameOnAnotherLane_failsFast() {
+        // 4 lanes: games 1 and 2 land on different ones
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> executor.call(1L, () -> executor.call(2L, () -> 42)));
+        assertTrue(ex.getMessage().contains("use submit"), ex.getMessage());
+    }
+
+    @Test
+    void queueDepth_isExposedAsGauge() {
+        assertNotNull(registry.find("game.commands.queue.depth").gauge());
+        assertEquals(0.0, registry.find("game.commands.queue.depth").gauge().value());
+    }
+}
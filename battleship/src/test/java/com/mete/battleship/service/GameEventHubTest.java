@@ -0,0 +1,160 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventHubTest {
+
+    static final GameSummary SUMMARY = new GameSummary("IN_PROGRESS", 1L, 10L, 20L, 10L, null, null, null);
+
+    // Records each event as its SSE text; sends block while the gate is closed
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType d : builder.build()) {
+                text.append(MediaType.APPLICATION_JSON.equals(d.getMediaType()) ? "<data>" : d.getData());
+            }
+            events.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    AtomicInteger snapshots = new AtomicInteger();
+    GameEventHub hub = new GameEventHub(3_600_000, 2) {
+        @Override
+        SseEmitter newEmitter() {
+            RecordingEmitter e = new RecordingEmitter();
+            emitters.add(e);
+            return e;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hub, "replayBuffer", 4);
+        ReflectionTestUtils.setField(hub, "clientQueue", 8);
+        ReflectionTestUtils.setField(hub, "idleChannelMs", 120_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (RecordingEmitter e : emitters) e.gate.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    void lastEventId_replaysOnlyWhatTheClientMissed() throws Exception {
+        RecordingEmitter first = subscribe(null);
+        publish(3);
+        awaitEvents(first, 4);
+        assertTrue(first.events.get(0).contains("event:state"));
+
+        RecordingEmitter resumed = subscribe(id(1));
+        awaitEvents(resumed, 2);
+        assertTrue(resumed.events.get(0).contains("id:" + id(2)), resumed.events.toString());
+        assertTrue(resumed.events.get(1).contains("id:" + id(3)), resumed.events.toString());
+        Thread.sleep(50);
+        assertEquals(2, resumed.events.size());
+        assertEquals(1, snapshots.get()); // only the first subscriber needed one
+    }
+
+    @Test
+    void lastEventIdOutsideTheBuffer_getsAFreshState() throws Exception {
+        subscribe(null);
+        publish(6); // buffer keeps 3..6
+
+        RecordingEmitter overrun = subscribe(id(1));
+        awaitEvents(overrun, 1);
+        assertTrue(overrun.events.get(0).contains("event:state"), overrun.events.toString());
+        assertTrue(overrun.events.get(0).contains("id:" + id(6)), overrun.events.toString());
+
+        RecordingEmitter otherBoot = subscribe("previousboot-5");
+        awaitEvents(otherBoot, 1);
+        assertTrue(otherBoot.events.get(0).contains("event:state"), otherBoot.events.toString());
+        assertEquals(3, snapshots.get());
+    }
+
+    @Test
+    void slowSubscriber_isDroppedWithoutHoldingUpOthers() throws Exception {
+        ReflectionTestUtils.setField(hub, "clientQueue", 2);
+        RecordingEmitter slow = subscribe(null);
+        RecordingEmitter fast = subscribe(null);
+        awaitEvents(slow, 1);
+        slow.gate = new CountDownLatch(1);
+        assertEquals(2, hub.subscriberCount());
+
+        // One event stuck in the send, three queued (the state counts toward its limit), the fifth overflows
+        for (int i = 1; i <= 5; i++) {
+            long start = System.nanoTime();
+            publish(1);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+            awaitEvents(fast, 1 + i);
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!slow.completed) {
+            assertTrue(System.currentTimeMillis() < deadline, "slow subscriber was never completed");
+            Thread.sleep(10);
+        }
+        assertEquals(1, hub.subscriberCount());
+        slow.gate.countDown();
+        Thread.sleep(50);
+        assertTrue(slow.events.size() <= 2, slow.events.toString()); // the state and the send in progress
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        int before = emitters.size();
+        hub.subscribe(1L, lastEventId, () -> {
+            snapshots.incrementAndGet();
+            return SUMMARY;
+        });
+        return emitters.get(before);
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) hub.onGameEvent(new GameEvent(1L, GameEvent.GAME, SUMMARY));
+    }
+
+    private String id(long seq) {
+        return ReflectionTestUtils.getField(hub, "bootId") + "-" + seq;
+    }
+
+    private static void awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (emitter.events.size() < count) {
+            assertTrue(System.currentTimeMillis() < deadline, "got " + emitter.events);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.mete.battleship.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.PlaceShipRequest;
+import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.entity.*;
+import com.mete.battleship.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The projector never runs on its own here; tests call project() when they want the rows written
+@SpringBootTest(properties = {"app.game.event-sourcing.enabled=true", "app.game.event-sourcing.projection-window-ms=3600000",
+        "app.game.event-sourcing.snapshot-every=4"})
+@ActiveProfiles("test")
+class GameEventLogIntegrationTest {
+
+    @Autowired GameEventLog eventLog;
+    @Autowired GameService gameService;
+    @Autowired LiveGameService liveGameService;
+    @Autowired LiveGameStore liveGameStore;
+    @Autowired GameCommandExecutor commandExecutor;
+    @Autowired UserRepository userRepository;
+    @Autowired GameRepository gameRepository;
+    @Autowired BoardRepository boardRepository;
+    @Autowired ShipRepository shipRepository;
+    @Autowired ShotRepository shotRepository;
+    @Autowired GameReadCache readCache;
+    @Autowired CacheManager cacheManager;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    void foldedGame_matchesTheLiveGame_andTheProjectedRows() {
+        Long gameId = startGame("evlog1", "evlog2");
+        // Setup wrote seq 1-4 (created, joined, two placements); six turns are 5-10
+        playMisses(gameId, 6);
+        LiveGame live = liveGameStore.find(gameId);
+        assertEquals(10, live.getEventSeq());
+
+        // From the events alone, nothing projected yet
+        LiveGame folded = refold(gameId);
+        assertSameState(live, folded);
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM game_snapshots WHERE game_id = ?", gameId));
+
+        eventLog.project();
+
+        // One snapshot, at the last multiple of snapshot-every
+        assertEquals(8, queryInt("SELECT seq FROM game_snapshots WHERE game_id = ?", gameId));
+        Game row = gameRepository.findById(gameId).orElseThrow();
+        assertEquals(10, row.getProjectedSeq());
+        assertEquals(folded.getGame().getCurrentTurnUserId(), row.getCurrentTurnUserId());
+        assertEquals(folded.getGame().getStateVersion(), row.getStateVersion());
+        for (Long boardId : folded.boardIds()) {
+            List<Shot> shots = shotRepository.findByBoardIdOrderByIdAsc(boardId);
+            assertEquals(folded.state(boardId).getShotCount(), shots.size());
+            for (Shot s : shots) assertTrue(folded.state(boardId).isShot(s.getRow(), s.getCol()));
+        }
+
+        // From the snapshot plus the two events after it
+        assertSameState(live, refold(gameId));
+    }
+
+    @Test
+    void eventsLeftUnprojected_areAppliedOnStartup_andTheQueuedCopiesSkipped() {
+        Long gameId = startGame("evlog3", "evlog4");
+        playMisses(gameId, 3);
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM shots s JOIN boards b ON b.id = s.board_id WHERE b.game_id = ?", gameId));
+
+        // A second instance starting against the same database, as after a restart
+        GameEventLog restarted = new GameEventLog(jdbc, objectMapper, gameRepository, boardRepository, shipRepository,
+                shotRepository, liveGameStore, commandExecutor, readCache, transactionManager);
+        ReflectionTestUtils.setField(restarted, "maxBatch", 500);
+        restarted.start();
+
+        assertEquals(3, queryInt("SELECT COUNT(*) FROM shots s JOIN boards b ON b.id = s.board_id WHERE b.game_id = ?", gameId));
+        assertEquals(7, gameRepository.findById(gameId).orElseThrow().getProjectedSeq());
+
+        // The original projector still holds those turns: the row is already past them
+        eventLog.project();
+        assertEquals(3, queryInt("SELECT COUNT(*) FROM shots s JOIN boards b ON b.id = s.board_id WHERE b.game_id = ?", gameId));
+        assertEquals(7, gameRepository.findById(gameId).orElseThrow().getProjectedSeq());
+    }
+
+    @Test
+    void projection_evictsTheCachedReadsItOutdates() {
+        Long gameId = startGame("evlog5", "evlog6");
+        playMisses(gameId, 2);
+        Long boardId = liveGameStore.find(gameId).boardIds().iterator().next();
+        assertTrue(gameService.listShots(boardId).size() > 0); // pending shots merged over the empty rows
+        assertNotNull(cacheManager.getCache(GameReadCache.SHOTS).get(boardId));
+        readCache.summary(gameId, () -> gameService.getGameSummary(gameId));
+        assertNotNull(cacheManager.getCache(GameReadCache.SUMMARIES).get(gameId));
+
+        eventLog.project();
+
+        assertNull(cacheManager.getCache(GameReadCache.SHOTS).get(boardId));
+        assertNull(cacheManager.getCache(GameReadCache.SUMMARIES).get(gameId));
+    }
+
+    private LiveGame refold(Long gameId) {
+        return commandExecutor.call(gameId, () -> {
+            liveGameStore.discard(gameId);
+            return eventLog.load(gameId);
+        });
+    }
+
+    private static void assertSameState(LiveGame expected, LiveGame actual) {
+        assertEquals(expected.getGame().getStatus(), actual.getGame().getStatus());
+        assertEquals(expected.getGame().getCurrentTurnUserId(), actual.getGame().getCurrentTurnUserId());
+        assertEquals(expected.getGame().getStateVersion(), actual.getGame().getStateVersion());
+        assertEquals(expected.getEventSeq(), actual.getEventSeq());
+        assertEquals(expected.boardIds(), actual.boardIds());
+        for (Long boardId : expected.boardIds()) {
+            assertArrayEquals(expected.state(boardId).shotBits(), actual.state(boardId).shotBits());
+        }
+    }
+
+    private int queryInt(String sql, Long gameId) {
+        return jdbc.queryForObject(sql, Integer.class, gameId);
+    }
+
+    private Long startGame(String name1, String name2) {
+        Long p1 = user(name1);
+        Long p2 = user(name2);
+        Long gameId = gameService.createGame(p1, GameMode.CLASSIC, 10, "DESTROYER:1").getId();
+        commandExecutor.call(gameId, () -> gameService.joinGame(gameId, p2));
+        for (Board b : gameService.listBoards(gameId)) {
+            PlaceShipRequest ship = new PlaceShipRequest();
+            ship.setType(ShipType.DESTROYER);
+            ship.setOrientation(Orientation.HORIZONTAL);
+            ship.setStartRow(0);
+            ship.setStartCol(0);
+            commandExecutor.call(gameId, () -> gameService.placeShips(b.getId(), b.getOwnerUserId(), List.of(ship)));
+        }
+        return gameId;
+    }
+
+    // Each player in turn misses along row 5 of the other's board
+    private void playMisses(Long gameId, int turns) {
+        for (int i = 0; i < turns; i++) {
+            int col = i;
+            commandExecutor.call(gameId, () -> {
+                GameSummary game = gameService.getGameSummary(gameId);
+                ShootRequest req = new ShootRequest();
+                req.setRow(5);
+                req.setCol(col);
+                return liveGameService.fireShot(gameId, game.getCurrentTurnUserId(), req);
+            });
+        }
+    }
+
+    private Long user(String name) {
+        User u = new User();
+        u.setUsername(name);
+        u.setEmail(name + "@example.com");
+        u.setPassword("x");
+        return userRepository.save(u).getId();
+    }
+}
@@ -0,0 +1,133 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.PlaceShipRequest;
+import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.entity.*;
+import com.mete.battleship.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The journal never flushes on its own here; tests call flush() when they want the rows written
+@SpringBootTest(properties = {"app.game.write-behind.enabled=true", "app.game.write-behind.window-ms=3600000",
+        "app.game.write-behind.dir=target/read-cache-journal"})
+@ActiveProfiles("test")
+class GameReadCacheIntegrationTest {
+
+    @Autowired GameService gameService;
+    @Autowired LiveGameService liveGameService;
+    @Autowired GameCommandExecutor commandExecutor;
+    @Autowired ShotJournal journal;
+    @Autowired GameReadCache readCache;
+    @Autowired CacheManager cacheManager;
+    @Autowired UserRepository userRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    void joinAndPlacement_replaceTheCachedReads() {
+        Long p1 = user("rcache1");
+        Long p2 = user("rcache2");
+        Long gameId = gameService.createGame(p1, GameMode.CLASSIC, 10, "DESTROYER:1").getId();
+        assertEquals(GameStatus.LOBBY.name(), gameService.getGameSummary(gameId).getStatus());
+        assertTrue(gameService.listBoards(gameId).isEmpty()); // boards are created on join
+
+        commandExecutor.call(gameId, () -> gameService.joinGame(gameId, p2));
+        assertNotEquals(GameStatus.LOBBY.name(), gameService.getGameSummary(gameId).getStatus());
+        assertEquals(2, gameService.listBoards(gameId).size());
+
+        Board board = gameService.listBoards(gameId).get(0);
+        assertTrue(gameService.listShips(board.getId(), board.getOwnerUserId()).isEmpty());
+        commandExecutor.call(gameId, () -> gameService.placeShips(board.getId(), board.getOwnerUserId(), List.of(destroyer())));
+        assertEquals(1, gameService.listShips(board.getId(), board.getOwnerUserId()).size());
+    }
+
+    @Test
+    void rolledBackChange_leavesTheCachedReadsAlone() {
+        Long gameId = gameService.createGame(user("rcache3"), GameMode.CLASSIC, 10, "DESTROYER:1").getId();
+        Long p2 = user("rcache6");
+        commandExecutor.call(gameId, () -> gameService.joinGame(gameId, p2));
+        Long boardId = gameService.listBoards(gameId).get(0).getId();
+        GameSummary cached = gameService.getGameSummary(gameId);
+        gameService.listShots(boardId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            readCache.gameEvicted(gameId);
+            readCache.shotsChanged(boardId);
+            readCache.boardsChanged(gameId);
+            tx.setRollbackOnly();
+        });
+
+        assertSame(cached, cached(GameReadCache.SUMMARIES, gameId));
+        assertNotNull(cached(GameReadCache.SHOTS, boardId));
+        assertNotNull(cached(GameReadCache.GAME_BOARDS, gameId));
+    }
+
+    @Test
+    void journalFlush_evictsTheSummaryAndShotsItWrote() throws Exception {
+        Long gameId = startGame("rcache4", "rcache5");
+        GameSummary placed = gameService.getGameSummary(gameId);
+        Board target = gameService.listBoards(gameId).stream()
+                .filter(b -> !b.getOwnerUserId().equals(placed.getCurrentTurnUserId()))
+                .findFirst().orElseThrow();
+        assertTrue(gameService.listShots(target.getId()).isEmpty());
+        assertNotNull(cached(GameReadCache.SUMMARIES, gameId));
+
+        commandExecutor.call(gameId, () -> {
+            ShootRequest req = new ShootRequest();
+            req.setRow(5);
+            req.setCol(5);
+            return liveGameService.fireShot(gameId, placed.getCurrentTurnUserId(), req);
+        });
+        // Still queued: the cached rows stay valid, the pending shot is merged in on read
+        assertNotNull(cached(GameReadCache.SHOTS, target.getId()));
+        assertEquals(1, gameService.listShots(target.getId()).size());
+
+        journal.flush();
+
+        assertNull(cached(GameReadCache.SHOTS, target.getId()));
+        assertNull(cached(GameReadCache.SUMMARIES, gameId));
+        assertEquals(1, gameService.listShots(target.getId()).size());
+    }
+
+    private Object cached(String cache, Long key) {
+        var wrapper = cacheManager.getCache(cache).get(key);
+        return wrapper == null ? null : wrapper.get();
+    }
+
+    private Long startGame(String name1, String name2) {
+        Long p1 = user(name1);
+        Long p2 = user(name2);
+        Long gameId = gameService.createGame(p1, GameMode.CLASSIC, 10, "DESTROYER:1").getId();
+        commandExecutor.call(gameId, () -> gameService.joinGame(gameId, p2));
+        for (Board b : gameService.listBoards(gameId)) {
+            commandExecutor.call(gameId, () -> gameService.placeShips(b.getId(), b.getOwnerUserId(), List.of(destroyer())));
+        }
+        return gameId;
+    }
+
+    private static PlaceShipRequest destroyer() {
+        PlaceShipRequest ship = new PlaceShipRequest();
+        ship.setType(ShipType.DESTROYER);
+        ship.setOrientation(Orientation.HORIZONTAL);
+        ship.setStartRow(0);
+        ship.setStartCol(0);
+        return ship;
+    }
+
+    private Long user(String name) {
+        User u = new User();
+        u.setUsername(name);
+        u.setEmail(name + "@example.com");
+        u.setPassword("x");
+        return userRepository.save(u).getId();
+    }
+}
@@ -1,6 +1,12 @@
 package com.mete.battleship.service;
 
+import com.mete.battleship.dto.BoardSnapshot;
+import com.mete.battleship.dto.GamePage;
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.PlaceShipRequest;
 import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.dto.ShotView;
+import com.mete.battleship.engine.Fleet;
 import com.mete.battleship.entity.*;
 import com.mete.battleship.repository.*;
 import org.junit.jupiter.api.Test;
@@ -8,7 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +33,12 @@ class GameServiceTest {
     @Mock BoardRepository boardRepository;
     @Mock ShipRepository shipRepository;
     @Mock ShotRepository shotRepository;
+    @Mock LiveGameStore liveGameStore;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock GameReadCache readCache;
+    @Mock OpenLobbyIndex lobbyIndex;
+    @Mock GameEventLog eventLog;
+    @Mock GameArchive archive;
 
     @InjectMocks GameService gameService;
 
@@ -37,7 +52,7 @@ class GameServiceTest {
             return g;
         });
         // Act
-        Game saved = gameService.createGame(1L);
+        Game saved = gameService.createGame(1L, GameMode.CLASSIC, null, null);
         // Assert
         assertNotNull(saved);
         assertEquals(42L, saved.getId());
@@ -45,13 +60,45 @@ class GameServiceTest {
         verify(gameRepository, times(1)).save(any(Game.class));
     }
 
+    @Test
+    void createUnlistedGame_staysOutOfTheOpenLobby() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(gameRepository.save(any(Game.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Game saved = gameService.createUnlistedGame(1L, GameMode.CLASSIC, null, null);
+
+        assertEquals(GameStatus.LOBBY, saved.getStatus());
+        verify(lobbyIndex, never()).opened(any());
+    }
+
     @Test
     void createGame_userMissing_throws() {
         when(userRepository.existsById(2L)).thenReturn(false);
-        assertThrows(RuntimeException.class, () -> gameService.createGame(2L));
+        assertThrows(RuntimeException.class, () -> gameService.createGame(2L, GameMode.CLASSIC, null, null));
+        verify(gameRepository, never()).save(any());
+    }
+
+    @Test
+    void createGame_fleetTooBigForBoard_throws() {
+        assertThrows(IllegalArgumentException.class, () -> gameService.createGame(1L, GameMode.CLASSIC, 1001, null));
+        assertThrows(IllegalArgumentException.class, () -> gameService.createGame(1L, GameMode.CLASSIC, 4, null));
+        assertThrows(IllegalArgumentException.class, () -> gameService.createGame(1L, GameMode.CLASSIC, 6, "DESTROYER:10"));
         verify(gameRepository, never()).save(any());
     }
 
+    @Test
+    void validateFleet_customFleet_needsExactCounts() {
+        Fleet fleet = Fleet.parse("DESTROYER:2");
+        GameService.validateFleet(1000, fleet, List.of(ship(ShipType.DESTROYER, 0, 0), ship(ShipType.DESTROYER, 999, 998)));
+
+        assertThrows(RuntimeException.class, () -> GameService.validateFleet(1000, fleet,
+                List.of(ship(ShipType.DESTROYER, 0, 0), ship(ShipType.DESTROYER, 0, 1))));
+        assertThrows(RuntimeException.class, () -> GameService.validateFleet(1000, fleet,
+                List.of(ship(ShipType.DESTROYER, 0, 0), ship(ShipType.CRUISER, 5, 5))));
+        assertThrows(RuntimeException.class, () -> GameService.validateFleet(1000, fleet,
+                List.of(ship(ShipType.DESTROYER, 0, 0), ship(ShipType.DESTROYER, 999, 999))));
+    }
+
     @Test
     void fireShot_whenGameNotInProgress_throws() {
         Game game = new Game();
@@ -81,21 +128,12 @@ class GameServiceTest {
         targetBoard.setGameId(99L);
         targetBoard.setOwnerUserId(20L);
         targetBoard.setSize(10);
-        when(boardRepository.findByGameIdAndOwnerUserId(99L, 20L)).thenReturn(targetBoard);
-
-        // No shots yet in target cell or other ship cells
-        when(shotRepository.existsByBoardIdAndRowAndCol(eq(100L), anyInt(), anyInt())).thenReturn(false);
-
-        // Defender has one ship occupying (0,0) and (0,1)
-        Ship ship = new Ship();
-        ship.setBoardId(100L);
-        ship.setType(ShipType.DESTROYER); // length 2
-        ship.setLength(2);
-        ship.setStartRow(0);
-        ship.setStartCol(0);
-        ship.setOrientation(Orientation.HORIZONTAL);
-        ship.setSunk(false);
-        when(shipRepository.findByBoardId(100L)).thenReturn(List.of(ship));
+        when(readCache.gameBoards(eq(99L), any())).thenReturn(List.of(targetBoard));
+
+        // Defender has one ship occupying (0,0) and (0,1), no shots yet
+        when(shipRepository.findBoardCells(100L)).thenReturn(List.<Object[]>of(
+                new Object[]{0, 500L, "DESTROYER", 0, 0, "HORIZONTAL"}
+        ));
 
         // Shoot at (0,0)
         ShootRequest req = new ShootRequest();
@@ -115,5 +153,166 @@ class GameServiceTest {
         verify(shotRepository, times(1)).save(any(Shot.class));
         verify(gameRepository, atLeastOnce()).save(any(Game.class));
     }
-}
 
+    @Test
+    void fireShot_lastShipSunk_finishesGame() {
+        Game game = new Game();
+        game.setId(99L);
+        game.setStatus(GameStatus.IN_PROGRESS);
+        game.setPlayer1Id(10L);
+        game.setPlayer2Id(20L);
+        game.setCurrentTurnUserId(10L);
+        when(gameRepository.findById(99L)).thenReturn(Optional.of(game));
+
+        Board targetBoard = new Board();
+        targetBoard.setId(100L);
+        targetBoard.setGameId(99L);
+        targetBoard.setOwnerUserId(20L);
+        targetBoard.setSize(10);
+        when(readCache.gameBoards(eq(99L), any())).thenReturn(List.of(targetBoard));
+
+        // Destroyer at (0,0)-(0,1) with (0,1) already hit
+        when(shipRepository.findBoardCells(100L)).thenReturn(List.of(
+                new Object[]{0, 500L, "DESTROYER", 0, 0, "HORIZONTAL"},
+                new Object[]{1, null, null, 0, 1, null}
+        ));
+
+        ShootRequest req = new ShootRequest();
+        req.setRow(0);
+        req.setCol(0);
+
+        var resp = gameService.fireShot(99L, 10L, req);
+
+        assertEquals("SUNK", resp.getResult());
+        assertEquals("DESTROYER", resp.getSunkShipType());
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+        assertEquals(10L, game.getWinnerUserId());
+        verify(shipRepository).markSunk(500L);
+        verify(shotRepository, never()).existsByBoardIdAndRowAndCol(any(), any(), any());
+    }
+
+    @Test
+    void listAllGames_fullPage_returnsCursorForNextPage() {
+        LocalDateTime t = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Game g1 = new Game(); g1.setId(3L); g1.setCreatedAt(t); g1.setStatus(GameStatus.LOBBY); g1.setPlayer1Id(1L);
+        Game g2 = new Game(); g2.setId(2L); g2.setCreatedAt(t); g2.setStatus(GameStatus.LOBBY); g2.setPlayer1Id(1L);
+        Game g3 = new Game(); g3.setId(1L); g3.setCreatedAt(t); g3.setStatus(GameStatus.LOBBY); g3.setPlayer1Id(1L);
+        when(gameRepository.findFirstPage(Limit.of(3))).thenReturn(List.of(g1, g2, g3));
+
+        GamePage page = gameService.listAllGames(2, null);
+
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+
+        when(gameRepository.findPageAfter(t, 2L, Limit.of(3))).thenReturn(List.of(g3));
+        GamePage next = gameService.listAllGames(2, page.getNextCursor());
+        assertEquals(1, next.getItems().size());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void listOpenGames_badCursor_throws() {
+        assertThrows(IllegalArgumentException.class, () -> gameService.listOpenGames(20, "not-a-cursor"));
+    }
+
+    @Test
+    void listShotsSince_returnsOnlyUnseenShots() {
+        Shot a = GameService.newShot(7L, 1L, 2L, 0, 0, ShotResult.MISS, null);
+        Shot b = GameService.newShot(7L, 1L, 2L, 0, 1, ShotResult.HIT, null);
+        Shot c = GameService.newShot(7L, 1L, 2L, 0, 2, ShotResult.MISS, null);
+        when(readCache.shots(eq(7L), any())).thenReturn(List.of(a, b, c));
+
+        assertEquals(List.of(b, c), gameService.listShotsSince(7L, 1));
+        assertEquals(List.of(), gameService.listShotsSince(7L, 3));
+        assertThrows(IllegalArgumentException.class, () -> gameService.listShotsSince(7L, -1));
+    }
+
+    @Test
+    void snapshot_boardWiderThanATile_leavesTheMasksToTheTileEndpoint() {
+        Board own = new Board();
+        own.setId(7L);
+        own.setOwnerUserId(1L);
+        own.setSize(GameService.MAX_TILE_SIDE + 1);
+        when(readCache.summary(eq(3L), any())).thenReturn(new GameSummary("IN_PROGRESS", 3L, 1L, 2L, 1L, null, null, null));
+        when(readCache.gameBoards(eq(3L), any())).thenReturn(List.of(own));
+        when(shipRepository.findGameCells(3L)).thenReturn(List.<Object[]>of(new Object[]{1, 7L, null, null, 200, 3, null}));
+
+        BoardSnapshot view = gameService.snapshot(3L, 1L).getBoards().get(0);
+
+        assertTrue(view.isTiled());
+        assertEquals(1, view.getShotCount());
+        assertNull(view.getShots());
+        assertNull(view.getHits());
+        assertNull(view.getShips());
+    }
+
+    @Test
+    void fireSalvo_firesOneShotPerSurvivingShip() {
+        Game game = salvoGame();
+        when(shipRepository.countByBoardIdAndSunkFalse(101L)).thenReturn(2L);
+        when(shipRepository.findBoardCells(100L)).thenReturn(List.<Object[]>of(
+                new Object[]{0, 500L, "DESTROYER", 0, 0, "HORIZONTAL"},
+                new Object[]{0, 501L, "CRUISER", 2, 0, "HORIZONTAL"}
+        ));
+
+        var resp = gameService.fireSalvo(99L, 10L, List.of(cell(0, 0), cell(5, 5)));
+
+        assertEquals(List.of("HIT", "MISS"), resp.getShots().stream().map(ShotView::getResult).toList());
+        assertEquals(20L, game.getCurrentTurnUserId());
+        verify(shotRepository).saveAll(anyList()); // one batch, not a save per shot
+        verify(shotRepository, never()).save(any());
+        verify(shotRepository, never()).existsByBoardIdAndRowAndCol(any(), any(), any());
+    }
+
+    @Test
+    void fireSalvo_rejectsWrongCountAndRepeatedCells() {
+        salvoGame();
+        when(shipRepository.countByBoardIdAndSunkFalse(101L)).thenReturn(2L);
+        when(shipRepository.findBoardCells(100L)).thenReturn(List.<Object[]>of(
+                new Object[]{0, 500L, "DESTROYER", 0, 0, "HORIZONTAL"}
+        ));
+
+        assertThrows(RuntimeException.class, () -> gameService.fireSalvo(99L, 10L, List.of(cell(0, 0))));
+        assertThrows(RuntimeException.class, () -> gameService.fireSalvo(99L, 10L, List.of(cell(0, 0), cell(0, 0))));
+        verify(shotRepository, never()).saveAll(any());
+    }
+
+    private Game salvoGame() {
+        Game game = new Game();
+        game.setId(99L);
+        game.setMode(GameMode.SALVO);
+        game.setStatus(GameStatus.IN_PROGRESS);
+        game.setPlayer1Id(10L);
+        game.setPlayer2Id(20L);
+        game.setCurrentTurnUserId(10L);
+        when(gameRepository.findById(99L)).thenReturn(Optional.of(game));
+        Board target = new Board();
+        target.setId(100L);
+        target.setGameId(99L);
+        target.setOwnerUserId(20L);
+        target.setSize(10);
+        Board own = new Board();
+        own.setId(101L);
+        own.setGameId(99L);
+        own.setOwnerUserId(10L);
+        own.setSize(10);
+        when(readCache.gameBoards(eq(99L), any())).thenReturn(List.of(target, own));
+        return game;
+    }
+
+    private static ShootRequest cell(int row, int col) {
+        ShootRequest req = new ShootRequest();
+        req.setRow(row);
+        req.setCol(col);
+        return req;
+    }
+
+    private static PlaceShipRequest ship(ShipType type, int row, int col) {
+        PlaceShipRequest req = new PlaceShipRequest();
+        req.setType(type);
+        req.setStartRow(row);
+        req.setStartCol(col);
+        req.setOrientation(Orientation.HORIZONTAL);
+        return req;
+    }
+}
@@ -0,0 +1,154 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.ShootRequest;
+import com.mete.battleship.engine.BoardState;
+import com.mete.battleship.entity.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveGameServiceTest {
+
+    @Mock GameService gameService;
+    @Mock LiveGameStore liveGameStore;
+    @Mock ShotJournal journal;
+    @Mock GameEventLog eventLog;
+    @Mock ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks LiveGameService liveGameService;
+
+    private LiveGame liveGame() {
+        Game game = new Game();
+        game.setId(99L);
+        game.setStatus(GameStatus.IN_PROGRESS);
+        game.setPlayer1Id(10L);
+        game.setPlayer2Id(20L);
+        game.setCurrentTurnUserId(10L);
+        LiveGame live = new LiveGame(game);
+        BoardState target = new BoardState(10, 5);
+        target.addShip(500L, ShipType.DESTROYER, 0, 0, Orientation.HORIZONTAL);
+        live.addBoard(100L, 20L, target);
+        live.addBoard(101L, 10L, new BoardState(10, 5));
+        return live;
+    }
+
+    private ShootRequest at(int row, int col) {
+        ShootRequest req = new ShootRequest();
+        req.setRow(row);
+        req.setCol(col);
+        return req;
+    }
+
+    @Test
+    void disabled_delegatesToTransactionalPath() {
+        when(journal.isEnabled()).thenReturn(false);
+        liveGameService.fireShot(99L, 10L, at(0, 0));
+        verify(gameService).fireShot(eq(99L), eq(10L), any());
+        verifyNoInteractions(liveGameStore);
+    }
+
+    @Test
+    void enabled_acknowledgesFromMemoryAndJournals() {
+        LiveGame live = liveGame();
+        when(journal.isEnabled()).thenReturn(true);
+        when(liveGameStore.load(99L)).thenReturn(live);
+
+        var resp = liveGameService.fireShot(99L, 10L, at(0, 0));
+
+        assertEquals("HIT", resp.getResult());
+        assertEquals(20L, resp.getGame().getCurrentTurnUserId());
+        ArgumentCaptor<ShotJournal.Entry> entry = ArgumentCaptor.forClass(ShotJournal.Entry.class);
+        verify(journal).append(entry.capture());
+        assertEquals(GameStatus.IN_PROGRESS, entry.getValue().status());
+        assertEquals(20L, entry.getValue().currentTurnUserId());
+        assertEquals(1, live.pendingShots(100L).size());
+        verifyNoInteractions(gameService);
+    }
+
+    @Test
+    void journalFailure_leavesMemoryUntouched() {
+        LiveGame live = liveGame();
+        when(journal.isEnabled()).thenReturn(true);
+        when(liveGameStore.load(99L)).thenReturn(live);
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(journal).append(any());
+
+        assertThrows(UncheckedIOException.class, () -> liveGameService.fireShot(99L, 10L, at(0, 0)));
+
+        assertFalse(live.state(100L).isShot(0, 0));
+        assertEquals(10L, live.getGame().getCurrentTurnUserId());
+        assertTrue(live.pendingShots(100L).isEmpty());
+    }
+
+    @Test
+    void eventSourced_logsAWholeSalvoAsOneEvent() {
+        LiveGame live = liveGame();
+        live.getGame().setMode(GameMode.SALVO);
+        live.state(101L).addShip(600L, ShipType.CRUISER, 5, 0, Orientation.HORIZONTAL);
+        live.state(101L).addShip(601L, ShipType.DESTROYER, 7, 0, Orientation.HORIZONTAL);
+        when(eventLog.isEnabled()).thenReturn(true);
+        when(eventLog.load(99L)).thenReturn(live);
+
+        var resp = liveGameService.fireSalvo(99L, 10L, List.of(at(0, 0), at(9, 9)));
+
+        assertEquals(2, resp.getShots().size());
+        assertEquals(20L, resp.getGame().getCurrentTurnUserId());
+        ArgumentCaptor<List<GameEventLog.Fired>> fired = ArgumentCaptor.forClass(List.class);
+        verify(eventLog).appendTurn(same(live), fired.capture());
+        assertEquals(2, fired.getValue().size());
+        verify(journal, never()).append(any());
+        verifyNoInteractions(gameService, liveGameStore);
+    }
+
+    private LiveGame salvoGame() {
+        LiveGame live = liveGame();
+        live.getGame().setMode(GameMode.SALVO);
+        live.state(101L).addShip(600L, ShipType.CRUISER, 5, 0, Orientation.HORIZONTAL);
+        live.state(101L).addShip(601L, ShipType.DESTROYER, 7, 0, Orientation.HORIZONTAL);
+        return live;
+    }
+
+    @Test
+    void writeBehind_journalsAWholeSalvoAsOneRecord() {
+        LiveGame live = salvoGame();
+        when(journal.isEnabled()).thenReturn(true);
+        when(liveGameStore.load(99L)).thenReturn(live);
+
+        var resp = liveGameService.fireSalvo(99L, 10L, List.of(at(0, 0), at(0, 1)));
+
+        ArgumentCaptor<List<ShotJournal.Entry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(journal).appendTurn(entries.capture());
+        assertEquals(2, entries.getValue().size());
+        assertEquals(ShotResult.HIT, entries.getValue().get(0).shot().getResult());
+        assertEquals(ShotResult.SUNK, entries.getValue().get(1).shot().getResult());
+        assertEquals(GameStatus.FINISHED, entries.getValue().get(1).status());
+        assertEquals("FINISHED", resp.getGame().getStatus());
+        assertTrue(live.state(100L).allSunk());
+    }
+
+    @Test
+    void writeBehind_salvoJournalFailure_leavesTheTurnUntouched() {
+        LiveGame live = salvoGame();
+        when(journal.isEnabled()).thenReturn(true);
+        when(liveGameStore.load(99L)).thenReturn(live);
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(journal).appendTurn(any());
+
+        assertThrows(UncheckedIOException.class, () -> liveGameService.fireSalvo(99L, 10L, List.of(at(0, 0), at(9, 9))));
+
+        assertEquals(0, live.state(100L).getShotCount());
+        assertEquals(10L, live.getGame().getCurrentTurnUserId());
+        assertTrue(live.pendingShots(100L).isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.engine.Fleet;
+import com.mete.battleship.entity.Game;
+import com.mete.battleship.entity.GameMode;
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.repository.GameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OpenLobbyIndexTest {
+
+    static final OpenLobbyIndex.MatchKey CLASSIC = new OpenLobbyIndex.MatchKey("CLASSIC", 10, Fleet.parse(null).spec());
+
+    GameRepository gameRepository = mock(GameRepository.class);
+    OpenLobbyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<Game> open = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            Game g = new Game();
+            g.setId(id);
+            g.setStatus(GameStatus.LOBBY);
+            g.setMode(GameMode.CLASSIC);
+            g.setBoardSize(10);
+            g.setPlayer1Id(id == 1 ? 100L : id);
+            open.add(g);
+        }
+        when(gameRepository.findByStatusAndPlayer2IdIsNull(GameStatus.LOBBY)).thenReturn(open);
+        index = new OpenLobbyIndex(gameRepository, new SimpleMeterRegistry());
+        index.rebuild();
+    }
+
+    @Test
+    void claimOldest_skipsOwnGames() {
+        GameSummary claimed = index.claimOldest(100L, CLASSIC);
+        assertEquals(2L, claimed.getGameId());
+        assertEquals(4, index.size());
+        assertEquals(100L, index.openGameOf(100L, CLASSIC).getPlayer1Id());
+    }
+
+    @Test
+    void claimOldest_onlyMatchesTheSameModeSizeAndFleet() {
+        Game salvo = new Game();
+        salvo.setId(6L);
+        salvo.setStatus(GameStatus.LOBBY);
+        salvo.setMode(GameMode.SALVO);
+        salvo.setBoardSize(20);
+        salvo.setFleet("DESTROYER:3");
+        salvo.setPlayer1Id(6L);
+        when(gameRepository.findByStatusAndPlayer2IdIsNull(GameStatus.LOBBY)).thenReturn(List.of(salvo));
+        index.rebuild();
+
+        assertNull(index.claimOldest(100L, CLASSIC));
+        assertNull(index.claimOldest(100L, new OpenLobbyIndex.MatchKey("SALVO", 10, "DESTROYER:3")));
+        assertNull(index.openGameOf(6L, CLASSIC));
+        GameSummary claimed = index.claimOldest(100L, new OpenLobbyIndex.MatchKey("SALVO", 20, Fleet.parse("DESTROYER:3").spec()));
+        assertEquals(6L, claimed.getGameId());
+        assertEquals(0, index.size());
+
+        index.release(claimed);
+        assertEquals(6L, index.newest(1, null).get(0).getGameId());
+        assertEquals(6L, index.openGameOf(6L, OpenLobbyIndex.MatchKey.of(claimed)).getGameId());
+    }
+
+    @Test
+    void newest_pagesByIdDescending() {
+        List<GameSummary> first = index.newest(2, null);
+        assertEquals(List.of(5L, 4L), first.stream().map(GameSummary::getGameId).toList());
+        List<GameSummary> next = index.newest(2, 4L);
+        assertEquals(List.of(3L, 2L), next.stream().map(GameSummary::getGameId).toList());
+    }
+
+    @Test
+    void concurrentClaims_neverHandOutTheSameGame() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<GameSummary>> futures = new ArrayList<>();
+        for (long user = 1000; user < 1008; user++) {
+            long u = user;
+            futures.add(pool.submit(() -> index.claimOldest(u, CLASSIC)));
+        }
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        int empty = 0;
+        for (Future<GameSummary> f : futures) {
+            GameSummary g = f.get(5, TimeUnit.SECONDS);
+            if (g == null) empty++;
+            else assertTrue(claimed.add(g.getGameId()));
+        }
+        pool.shutdown();
+        assertEquals(5, claimed.size());
+        assertEquals(3, empty);
+        assertEquals(0, index.size());
+    }
+}
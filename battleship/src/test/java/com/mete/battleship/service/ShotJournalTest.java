@@ -0,0 +1,123 @@
+package com.mete.battleship.service;
+
+import com.mete.battleship.entity.GameStatus;
+import com.mete.battleship.entity.Shot;
+import com.mete.battleship.entity.ShotResult;
+import com.mete.battleship.repository.GameRepository;
+import com.mete.battleship.repository.ShipRepository;
+import com.mete.battleship.repository.ShotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShotJournalTest {
+
+    @TempDir Path dir;
+
+    ShotRepository shotRepository = mock(ShotRepository.class);
+    LiveGameStore liveGameStore = mock(LiveGameStore.class);
+    GameCommandExecutor commandExecutor = mock(GameCommandExecutor.class);
+    ShotJournal journal = new ShotJournal(shotRepository, mock(ShipRepository.class), mock(GameRepository.class),
+            liveGameStore, commandExecutor, mock(GameReadCache.class), mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "dir", dir.toString());
+        ReflectionTestUtils.setField(journal, "windowMs", 3_600_000L);
+        ReflectionTestUtils.setField(journal, "maxBatch", 500);
+        ReflectionTestUtils.setField(journal, "maxAttempts", 3);
+        when(commandExecutor.call(anyLong(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        journal.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.stop();
+    }
+
+    @Test
+    void gameRejectedMaxAttemptsTimes_isQuarantinedAcrossSegments_andOtherGamesFlush() throws Exception {
+        // Game 7's shot at (0,0) is refused; game 8 in the same segment is fine
+        when(shotRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Shot> shots = inv.getArgument(0);
+            if (shots.stream().anyMatch(s -> s.getBoardId() == 70L && s.getRow() == 0)) {
+                throw new DataIntegrityViolationException("bad row");
+            }
+            return shots;
+        });
+        journal.append(entry(7L, 0, 0));
+        journal.append(entry(8L, 0, 0));
+        assertThrows(DataIntegrityViolationException.class, journal::flush);
+        // A later shot of game 7, in the next segment
+        journal.append(entry(7L, 2, 2));
+        assertThrows(DataIntegrityViolationException.class, journal::flush);
+
+        journal.flush();
+
+        List<Path> quarantined = files(".quarantined");
+        assertEquals(1, quarantined.size());
+        List<String> lines = Files.readAllLines(quarantined.get(0));
+        assertEquals(2, lines.size());
+        assertTrue(lines.stream().allMatch(l -> l.startsWith("7\t")), lines.toString());
+        verify(liveGameStore).discard(7L);
+        verify(liveGameStore, never()).discard(8L);
+        // Game 8 committed on its own; game 7's later shot never reached the database
+        verify(shotRepository, atLeastOnce()).saveAll(argThat((List<Shot> l) -> l.size() == 1 && l.get(0).getBoardId() == 80L));
+        verify(shotRepository, never()).saveAll(argThat((List<Shot> l) -> l.stream().anyMatch(s -> s.getBoardId() == 70L && s.getRow() == 2)));
+        assertEquals(1, files(".journal").size()); // only the open segment
+
+        // Later shots of game 7, journaled after the reload, flush normally
+        journal.append(entry(7L, 4, 4));
+        journal.flush();
+        verify(shotRepository).saveAll(argThat((List<Shot> l) -> l.size() == 1 && l.get(0).getRow() == 4));
+        assertEquals(1, files(".quarantined").size());
+    }
+
+    @Test
+    void turnRecord_isReplayedWhole_andATornTurnNotAtAll() throws Exception {
+        journal.appendTurn(List.of(entry(7L, 0, 0), entry(7L, 0, 1)));
+        Path segment = files(".journal").get(0);
+        // A crash in the middle of writing the next turn
+        Files.writeString(segment, Files.readString(segment) + "7\t70\t1\t2\t3\t3\tMISS\t\t\tIN_PROGRESS\t1\t\t1|7\t70");
+
+        ShotJournal restarted = new ShotJournal(shotRepository, mock(ShipRepository.class), mock(GameRepository.class),
+                liveGameStore, commandExecutor, mock(GameReadCache.class), mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(restarted, "dir", dir.toString());
+        restarted.start();
+
+        verify(shotRepository).saveAll(argThat((List<Shot> l) -> l.size() == 2 && l.get(1).getCol() == 1));
+        assertTrue(files(".journal").isEmpty());
+    }
+
+    private List<Path> files(String suffix) throws Exception {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.filter(p -> p.getFileName().toString().endsWith(suffix)).toList();
+        }
+    }
+
+    private static ShotJournal.Entry entry(Long gameId, int row, int col) {
+        Shot s = new Shot();
+        s.setBoardId(gameId * 10);
+        s.setShooterUserId(1L);
+        s.setTargetUserId(2L);
+        s.setRow(row);
+        s.setCol(col);
+        s.setResult(ShotResult.MISS);
+        return new ShotJournal.Entry(gameId, s, null, GameStatus.IN_PROGRESS, 2L, null, 1L);
+    }
+}
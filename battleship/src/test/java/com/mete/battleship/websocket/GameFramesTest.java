@@ -0,0 +1,43 @@
+package com.mete.battleship.websocket;
+
+import com.mete.battleship.dto.GameSummary;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameFramesTest {
+
+    @Test
+    void decode_fireFrame() {
+        ByteBuffer in = ByteBuffer.allocate(7).put(GameFrames.FIRE).putShort((short) 65535).putShort((short) 3).putShort((short) 9).flip();
+        GameFrames.Command cmd = GameFrames.decode(in);
+        assertEquals(GameFrames.FIRE, cmd.op());
+        assertEquals(65535, cmd.seq());
+        assertEquals(3, cmd.row());
+        assertEquals(9, cmd.col());
+    }
+
+    @Test
+    void decode_rejectsTruncatedFire() {
+        ByteBuffer in = ByteBuffer.allocate(5).put(GameFrames.FIRE).putShort((short) 1).putShort((short) 3).flip();
+        assertThrows(IllegalArgumentException.class, () -> GameFrames.decode(in));
+    }
+
+    @Test
+    void shotFrame_isElevenBytes_andFlagsReceiverTurn() {
+        GameSummary game = new GameSummary("IN_PROGRESS", 1L, 10L, 20L, 20L, null, null, null);
+        byte[] frame = GameFrames.shot(GameFrames.SHOT_RESULT, 7, 0, 1, "SUNK", "DESTROYER", game, 20L);
+        assertEquals(11, frame.length);
+        ByteBuffer out = ByteBuffer.wrap(frame);
+        assertEquals(GameFrames.SHOT_RESULT, out.get());
+        assertEquals(7, out.getShort());
+        assertEquals(0, out.getShort());
+        assertEquals(1, out.getShort());
+        assertEquals(2, out.get());  // SUNK
+        assertEquals(5, out.get());  // DESTROYER ordinal + 1
+        assertEquals(2, out.get());  // IN_PROGRESS
+        assertEquals(GameFrames.FLAG_YOUR_TURN, out.get());
+    }
+}
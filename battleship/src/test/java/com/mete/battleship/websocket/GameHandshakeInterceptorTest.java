@@ -0,0 +1,63 @@
+package com.mete.battleship.websocket;
+
+import com.mete.battleship.security.CustomUserDetails;
+import com.mete.battleship.service.GameService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.socket.WebSocketHandler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GameHandshakeInterceptorTest {
+
+    GameService gameService = mock(GameService.class);
+    GameHandshakeInterceptor interceptor = new GameHandshakeInterceptor(gameService);
+    MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+    Map<String, Object> attributes = new HashMap<>();
+
+    @BeforeEach
+    void signIn() {
+        CustomUserDetails user = new CustomUserDetails(10L, "alice", "");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void player_isAccepted() {
+        assertTrue(handshake("/ws/games/42"));
+        assertEquals(42L, attributes.get(GameHandshakeInterceptor.GAME_ID));
+        assertEquals(10L, attributes.get(GameHandshakeInterceptor.USER_ID));
+    }
+
+    @Test
+    void nonPlayer_isForbidden() {
+        doThrow(new RuntimeException("You are not a player in this game")).when(gameService).requirePlayer(42L, 10L);
+
+        assertFalse(handshake("/ws/games/42"));
+        assertEquals(HttpStatus.FORBIDDEN.value(), servletResponse.getStatus());
+        assertTrue(attributes.isEmpty());
+    }
+
+    private boolean handshake(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        return interceptor.beforeHandshake(new ServletServerHttpRequest(request), new ServletServerHttpResponse(servletResponse),
+                mock(WebSocketHandler.class), attributes);
+    }
+}
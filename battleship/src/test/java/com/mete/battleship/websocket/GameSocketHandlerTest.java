@@ -0,0 +1,106 @@
+package com.mete.battleship.websocket;
+
+import com.mete.battleship.dto.GameSummary;
+import com.mete.battleship.dto.ShotEvent;
+import com.mete.battleship.dto.ShotView;
+import com.mete.battleship.service.GameCommandExecutor;
+import com.mete.battleship.service.GameEvent;
+import com.mete.battleship.service.LiveGameService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GameSocketHandlerTest {
+
+    GameSocketHandler handler = new GameSocketHandler(mock(GameCommandExecutor.class), mock(LiveGameService.class), 2);
+    CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(handler, "clientQueue", 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        handler.shutdown();
+    }
+
+    @Test
+    void stalledSocket_neverBlocksThePublisher_andIsClosedOnOverflow() throws Exception {
+        ReflectionTestUtils.setField(handler, "clientQueue", 2);
+        WebSocketSession stalled = session("s1", 20L);
+        CountDownLatch sending = new CountDownLatch(1);
+        doAnswer(inv -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(stalled).sendMessage(any());
+        handler.afterConnectionEstablished(stalled);
+
+        long start = System.nanoTime();
+        handler.onGameEvent(shot(0));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        handler.onGameEvent(shot(1));
+        handler.onGameEvent(shot(2));
+        handler.onGameEvent(shot(3)); // third frame waiting: over the limit
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+
+        verify(stalled, timeout(5_000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        handler.onGameEvent(shot(4));
+        release.countDown();
+        verify(stalled, after(200).times(1)).sendMessage(any());
+    }
+
+    @Test
+    void shooter_isSkipped_andOpponentGetsFramesInOrder() throws Exception {
+        WebSocketSession shooter = session("s1", 10L);
+        WebSocketSession opponent = session("s2", 20L);
+        handler.afterConnectionEstablished(shooter);
+        handler.afterConnectionEstablished(opponent);
+
+        for (int col = 0; col < 5; col++) handler.onGameEvent(shot(col));
+
+        verify(opponent, timeout(5_000).times(5)).sendMessage(any());
+        ArgumentCaptor<WebSocketMessage<?>> frames = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(opponent, times(5)).sendMessage(frames.capture());
+        for (int col = 0; col < 5; col++) {
+            byte[] frame = ((ByteBuffer) frames.getAllValues().get(col).getPayload()).array();
+            assertEquals(GameFrames.OPPONENT_SHOT, frame[0]);
+            assertEquals(col, frame[6]);
+        }
+        verify(shooter, never()).sendMessage(any());
+    }
+
+    private static WebSocketSession session(String id, Long userId) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(GameHandshakeInterceptor.GAME_ID, 1L);
+        attributes.put(GameHandshakeInterceptor.USER_ID, userId);
+        WebSocketSession s = mock(WebSocketSession.class);
+        when(s.getId()).thenReturn(id);
+        when(s.getAttributes()).thenReturn(attributes);
+        when(s.isOpen()).thenReturn(true);
+        return s;
+    }
+
+    private static GameEvent shot(int col) {
+        GameSummary game = new GameSummary("IN_PROGRESS", 1L, 10L, 20L, 20L, null, null, null);
+        ShotView shot = new ShotView((long) col, 200L, 10L, 20L, 0, col, "MISS", null);
+        return new GameEvent(1L, GameEvent.SHOT, new ShotEvent(shot, game));
+    }
+}